@@ -32,42 +32,10 @@ CREATE TABLE IF NOT EXISTS cliente (
     INDEX idx_cliente_estado (estado)
 );
 
--- Crear base de datos para el servicio de contabilidad
+-- Crear base de datos para el servicio de contabilidad. Las tablas (cuentas,
+-- movimientos, saldos_diarios, ...) las crea el servicio al iniciar con las migraciones
+-- de Flyway en src/main/resources/db/migration/mysql.
 CREATE DATABASE IF NOT EXISTS accounting_db;
-USE accounting_db;
-
--- Tabla Cuenta
-CREATE TABLE IF NOT EXISTS cuenta (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    numero_cuenta VARCHAR(20) UNIQUE NOT NULL,
-    tipo_cuenta VARCHAR(20) NOT NULL,
-    saldo_inicial DECIMAL(15,2) DEFAULT 0.00,
-    saldo_actual DECIMAL(15,2) DEFAULT 0.00,
-    cliente_id BIGINT NOT NULL,
-    estado BOOLEAN DEFAULT TRUE,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_cuenta_cliente (cliente_id),
-    INDEX idx_cuenta_numero (numero_cuenta),
-    INDEX idx_cuenta_estado (estado)
-);
-
--- Tabla Movimiento
-CREATE TABLE IF NOT EXISTS movimiento (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    cuenta_id BIGINT NOT NULL,
-    cliente_id BIGINT NOT NULL,
-    fecha TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    tipo_movimiento VARCHAR(20) NOT NULL,
-    valor DECIMAL(15,2) NOT NULL,
-    saldo DECIMAL(15,2) NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    FOREIGN KEY (cuenta_id) REFERENCES cuenta(id) ON DELETE CASCADE,
-    INDEX idx_movimiento_cuenta (cuenta_id),
-    INDEX idx_movimiento_cliente (cliente_id),
-    INDEX idx_movimiento_fecha (fecha)
-);
 
 -- Insertar datos de prueba según los casos de uso
 
@@ -83,64 +51,8 @@ INSERT INTO customer_db.cliente (persona_id, cliente_id, contrasena, estado) VAL
 (2, 'CLI002', '5678', TRUE),
 (3, 'CLI003', '1245', TRUE);
 
--- Datos de Cuentas
-INSERT INTO accounting_db.cuenta (numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, cliente_id, estado) VALUES
-('478758', 'Ahorros', 2000.00, 2000.00, 1, TRUE),
-('225487', 'Corriente', 100.00, 100.00, 2, TRUE),
-('495878', 'Ahorros', 0.00, 0.00, 3, TRUE),
-('496825', 'Ahorros', 540.00, 540.00, 2, TRUE),
-('585545', 'Corriente', 1000.00, 1000.00, 1, TRUE);
-
--- Datos de Movimientos de ejemplo
-INSERT INTO accounting_db.movimiento (cuenta_id, cliente_id, tipo_movimiento, valor, saldo, fecha) VALUES
-(1, 1, 'Retiro', 575.00, 1425.00, '2024-01-10 10:30:00'),
-(2, 2, 'Deposito', 600.00, 700.00, '2024-01-10 11:15:00'),
-(3, 3, 'Deposito', 150.00, 150.00, '2024-01-10 14:20:00'),
-(4, 2, 'Retiro', 540.00, 0.00, '2024-01-08 16:45:00');
-
--- Actualizar saldos actuales en las cuentas
-UPDATE accounting_db.cuenta SET saldo_actual = 1425.00 WHERE id = 1;
-UPDATE accounting_db.cuenta SET saldo_actual = 700.00 WHERE id = 2;
-UPDATE accounting_db.cuenta SET saldo_actual = 150.00 WHERE id = 3;
-UPDATE accounting_db.cuenta SET saldo_actual = 0.00 WHERE id = 4;
-
--- Crear índices adicionales para optimización
-CREATE INDEX idx_movimiento_tipo_fecha ON accounting_db.movimiento(tipo_movimiento, fecha);
-CREATE INDEX idx_cuenta_tipo_estado ON accounting_db.cuenta(tipo_cuenta, estado);
-
--- Crear vistas para reportes
-CREATE VIEW accounting_db.vista_estado_cuenta AS
-SELECT 
-    c.id as cuenta_id,
-    c.numero_cuenta,
-    c.tipo_cuenta,
-    c.saldo_actual,
-    c.estado as cuenta_estado,
-    c.cliente_id,
-    p.nombre as cliente_nombre,
-    p.identificacion as cliente_identificacion
-FROM accounting_db.cuenta c
-LEFT JOIN customer_db.persona p ON c.cliente_id = p.id;
-
--- Crear vista de movimientos con información del cliente
-CREATE VIEW accounting_db.vista_movimientos_detalle AS
-SELECT 
-    m.id as movimiento_id,
-    m.fecha,
-    m.tipo_movimiento,
-    m.valor,
-    m.saldo,
-    c.numero_cuenta,
-    c.tipo_cuenta,
-    c.saldo_inicial,
-    c.estado as cuenta_estado,
-    m.cliente_id,
-    p.nombre as cliente_nombre,
-    p.identificacion as cliente_identificacion
-FROM accounting_db.movimiento m
-JOIN accounting_db.cuenta c ON m.cuenta_id = c.id
-LEFT JOIN customer_db.persona p ON m.cliente_id = p.id
-ORDER BY m.fecha DESC;
+-- Las cuentas y movimientos de ejemplo se crean con la colección de Postman, una vez
+-- que el servicio de contabilidad aplicó sus migraciones
 
 -- Crear usuario para la aplicación
 CREATE USER IF NOT EXISTS 'app_user'@'%' IDENTIFIED BY 'app_password';
@@ -151,4 +63,4 @@ FLUSH PRIVILEGES;
 -- Mostrar información de las tablas creadas
 SELECT 'Base de datos customer_db creada exitosamente' as mensaje;
 SELECT 'Base de datos accounting_db creada exitosamente' as mensaje;
-SELECT 'Datos de prueba insertados correctamente' as mensaje;
+SELECT 'Datos de prueba de clientes insertados correctamente' as mensaje;
@@ -0,0 +1,136 @@
+package com.microservices.accountingservice.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.AccountingServiceApplication;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService;
+import com.microservices.accountingservice.application.service.CuentaService;
+import com.microservices.accountingservice.application.service.MovimientoService;
+import com.microservices.accountingservice.application.service.SaldoService;
+import com.microservices.accountingservice.carga.SembradorCarga.CuentaSembrada;
+import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Arnés de carga: levanta el servicio completo con el perfil {@code carga} (H2 en modo
+ * MySQL, sin Kafka), siembra datos, genera carga HTTP sobre el puerto real y al final
+ * verifica los saldos. Se ejecuta con {@code mvn -Pcarga verify}.
+ *
+ * <p>La verificación compara, para cada cuenta, el saldo guardado con el saldo después
+ * de la siembra más lo que el servicio confirmó durante la carga, y el saldo guardado
+ * con la suma de sus movimientos ({@link SaldoService#verificarSaldo(Long)}). Si alguna
+ * cuenta no cuadra el proceso termina con código 1.
+ */
+@Slf4j
+public class ArnesCarga {
+
+    private final ConfigurableApplicationContext contexto;
+    private final ParametrosCarga parametros;
+
+    ArnesCarga(ConfigurableApplicationContext contexto) {
+        this.contexto = contexto;
+        this.parametros = Binder.get(contexto.getEnvironment()).bindOrCreate("carga", ParametrosCarga.class);
+    }
+
+    /**
+     * Recibe los parámetros como {@code clave=valor} sin el prefijo, por ejemplo
+     * {@code tasa=2000 duracion=2m}.
+     */
+    public static void main(String[] args) throws Exception {
+        String[] propiedades = Arrays.stream(args)
+            .map(argumento -> "--carga." + argumento)
+            .toArray(String[]::new);
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AccountingServiceApplication.class)
+            .profiles("carga")
+            .run(propiedades);
+        int codigo;
+        try {
+            codigo = new ArnesCarga(contexto).ejecutar();
+        } finally {
+            contexto.close();
+        }
+        System.exit(codigo);
+    }
+
+    int ejecutar() throws Exception {
+        List<CuentaSembrada> cuentas = new SembradorCarga(parametros,
+            contexto.getBean(ClienteProyeccionService.class),
+            contexto.getBean(CuentaService.class),
+            contexto.getBean(MovimientoService.class)).sembrar();
+        Map<Long, BigDecimal> saldosIniciales = leerSaldos(cuentas);
+
+        int puerto = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        ResultadosCarga resultados = new ResultadosCarga();
+        GeneradorCarga generador = new GeneradorCarga(parametros, URI.create("http://localhost:" + puerto),
+            cuentas, resultados);
+        generador.ejecutar();
+
+        Map<String, Object> verificacion = verificar(cuentas, saldosIniciales, generador);
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("parametros", parametros);
+        resumen.putAll(resultados.resumen(parametros.duracion()));
+        resumen.put("verificacion", verificacion);
+
+        System.out.println();
+        resultados.imprimir(System.out, parametros.duracion());
+        System.out.println("verificacion de saldos: " + verificacion);
+
+        Path directorio = Path.of(parametros.directorioResultados());
+        resultados.escribir(directorio, resumen, contexto.getBean(ObjectMapper.class));
+        log.info("Resultados escritos en {}", directorio.toAbsolutePath());
+
+        boolean cuadra = (long) verificacion.get("descuadradas") == 0 && (long) verificacion.get("inconsistentes") == 0;
+        return cuadra ? 0 : 1;
+    }
+
+    private Map<String, Object> verificar(List<CuentaSembrada> cuentas, Map<Long, BigDecimal> saldosIniciales,
+                                          GeneradorCarga generador) {
+        SaldoService saldoService = contexto.getBean(SaldoService.class);
+        Map<Long, BigDecimal> saldosFinales = leerSaldos(cuentas);
+
+        long descuadradas = 0;
+        long inconsistentes = 0;
+        for (CuentaSembrada cuenta : cuentas) {
+            if (!generador.inciertas().contains(cuenta.id())) {
+                LongAdder variacion = generador.variaciones().get(cuenta.id());
+                BigDecimal esperado = saldosIniciales.get(cuenta.id())
+                    .add(BigDecimal.valueOf(variacion == null ? 0 : variacion.sum(), 2));
+                if (esperado.compareTo(saldosFinales.get(cuenta.id())) != 0) {
+                    descuadradas++;
+                    log.error("Cuenta {}: saldo {} y se esperaba {}", cuenta.id(), saldosFinales.get(cuenta.id()), esperado);
+                }
+            }
+            if (!Boolean.TRUE.equals(saldoService.verificarSaldo(cuenta.id()).getConsistente())) {
+                inconsistentes++;
+                log.error("Cuenta {}: el saldo no coincide con la suma de sus movimientos", cuenta.id());
+            }
+        }
+
+        Map<String, Object> verificacion = new LinkedHashMap<>();
+        verificacion.put("cuentas", (long) cuentas.size());
+        verificacion.put("inciertas", (long) generador.inciertas().size());
+        verificacion.put("descuadradas", descuadradas);
+        verificacion.put("inconsistentes", inconsistentes);
+        return verificacion;
+    }
+
+    private Map<Long, BigDecimal> leerSaldos(List<CuentaSembrada> cuentas) {
+        List<Long> ids = cuentas.stream().map(CuentaSembrada::id).collect(Collectors.toList());
+        return contexto.getBean(CuentaRepository.class).findAllById(ids).stream()
+            .collect(Collectors.toMap(Cuenta::getId, cuenta -> cuenta.getSaldoActual().aBigDecimal()));
+    }
+}
@@ -0,0 +1,199 @@
+package com.microservices.accountingservice.carga;
+
+import com.microservices.accountingservice.carga.ResultadosCarga.Operacion;
+import com.microservices.accountingservice.carga.SembradorCarga.CuentaSembrada;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+/**
+ * Generador de carga de modelo abierto: las solicitudes llegan según un proceso de
+ * Poisson a la tasa configurada, sin esperar a que terminen las anteriores, como lo
+ * harían muchos clientes independientes. Cada solicitud sale por una conexión propia
+ * del pool del {@link HttpClient}.
+ *
+ * <p>Una fracción de las solicitudes va a un conjunto chico de cuentas calientes, que
+ * es donde se concentra la contención real. Los reportes se piden para el cliente de
+ * la cuenta elegida, con el mismo sesgo.
+ *
+ * <p>Lleva además un libro propio con lo que el servicio confirmó por cuenta, que se
+ * compara con los saldos al final. Las cuentas con alguna solicitud de resultado
+ * desconocido (timeout o 5xx) se marcan como inciertas.
+ */
+@Slf4j
+class GeneradorCarga {
+
+    private final ParametrosCarga parametros;
+    private final URI base;
+    private final List<CuentaSembrada> cuentas;
+    private final ResultadosCarga resultados;
+    private final HttpClient cliente;
+    private final SplittableRandom random;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final Map<Long, LongAdder> variaciones = new ConcurrentHashMap<>();
+    private final Set<Long> inciertas = ConcurrentHashMap.newKeySet();
+
+    GeneradorCarga(ParametrosCarga parametros, URI base, List<CuentaSembrada> cuentas, ResultadosCarga resultados) {
+        this.parametros = parametros;
+        this.base = base;
+        this.cuentas = cuentas;
+        this.resultados = resultados;
+        this.cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.random = new SplittableRandom(parametros.semilla());
+    }
+
+    /**
+     * Genera carga durante el calentamiento y la ventana de medición y espera a que
+     * terminen las solicitudes en curso. Solo se registran las que debían salir dentro
+     * de la ventana.
+     */
+    void ejecutar() throws InterruptedException {
+        long intervaloMedioNanos = (long) (TimeUnit.SECONDS.toNanos(1) / parametros.tasa());
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + parametros.calentamiento().toNanos();
+        long fin = inicioMedicion + parametros.duracion().toNanos();
+
+        log.info("Generando carga a {} solicitudes/s: {} s de calentamiento y {} s medidos",
+            parametros.tasa(), parametros.calentamiento().toSeconds(), parametros.duracion().toSeconds());
+
+        long programado = inicio;
+        while (true) {
+            programado += (long) (-Math.log(1 - random.nextDouble()) * intervaloMedioNanos);
+            if (programado >= fin) {
+                break;
+            }
+            esperarHasta(programado);
+            boolean medir = programado >= inicioMedicion;
+            if (enCurso.get() >= parametros.maxEnCurso()) {
+                if (medir) {
+                    resultados.descartada();
+                }
+                continue;
+            }
+            enviar(programado, medir);
+        }
+
+        long limite = System.nanoTime() + parametros.timeoutSolicitud().plusSeconds(5).toNanos();
+        while (enCurso.get() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        if (enCurso.get() > 0) {
+            log.warn("{} solicitudes siguen en curso al cerrar la medición", enCurso.get());
+        }
+    }
+
+    Map<Long, LongAdder> variaciones() {
+        return variaciones;
+    }
+
+    Set<Long> inciertas() {
+        return inciertas;
+    }
+
+    private void enviar(long programado, boolean medir) {
+        CuentaSembrada cuenta = elegirCuenta();
+        if (random.nextDouble() < parametros.proporcionReportes()) {
+            enviarReporte(cuenta, programado, medir);
+        } else {
+            enviarMovimiento(cuenta, programado, medir);
+        }
+    }
+
+    private CuentaSembrada elegirCuenta() {
+        int calientes = Math.min(parametros.cuentasCalientes(), cuentas.size());
+        if (calientes > 0 && random.nextDouble() < parametros.proporcionCalientes()) {
+            return cuentas.get(random.nextInt(calientes));
+        }
+        return cuentas.get(random.nextInt(cuentas.size()));
+    }
+
+    private void enviarMovimiento(CuentaSembrada cuenta, long programado, boolean medir) {
+        boolean retiro = random.nextDouble() < parametros.proporcionRetiros();
+        long centavos = 100 + random.nextInt(10_000);
+        String cuerpo = String.format(Locale.ROOT,
+            "{\"cuentaId\":%d,\"clienteId\":%d,\"tipoMovimiento\":\"%s\",\"valor\":%d.%02d,\"fecha\":\"%s\",\"saldo\":0}",
+            cuenta.id(), cuenta.clienteId(), retiro ? "Retiro" : "Deposito", centavos / 100, centavos % 100,
+            LocalDateTime.now());
+        HttpRequest solicitud = HttpRequest.newBuilder(base.resolve("/api/movimientos"))
+            .timeout(parametros.timeoutSolicitud())
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+            .build();
+
+        long variacion = retiro ? -centavos : centavos;
+        despachar(solicitud, Operacion.MOVIMIENTO, programado, medir, estado -> {
+            if (estado == 201) {
+                variaciones.computeIfAbsent(cuenta.id(), id -> new LongAdder()).add(variacion);
+            } else if (estado >= 500) {
+                inciertas.add(cuenta.id());
+            }
+        }, () -> inciertas.add(cuenta.id()));
+    }
+
+    private void enviarReporte(CuentaSembrada cuenta, long programado, boolean medir) {
+        LocalDate hoy = LocalDate.now();
+        URI uri = base.resolve(String.format("/api/reportes?cliente=%d&fechaInicio=%s&fechaFin=%s",
+            cuenta.clienteId(), hoy.atStartOfDay(), hoy.plusDays(1).atStartOfDay()));
+        HttpRequest solicitud = HttpRequest.newBuilder(uri)
+            .timeout(parametros.timeoutSolicitud())
+            .GET()
+            .build();
+        despachar(solicitud, Operacion.REPORTE, programado, medir, estado -> { }, () -> { });
+    }
+
+    private void despachar(HttpRequest solicitud, Operacion operacion, long programado, boolean medir,
+                           IntConsumer alResponder, Runnable alFallar) {
+        enCurso.incrementAndGet();
+        if (medir) {
+            resultados.enviada(operacion);
+        }
+        // El cuerpo se lee completo: la latencia incluye la transferencia del reporte
+        cliente.sendAsync(solicitud, HttpResponse.BodyHandlers.discarding())
+            .whenComplete((respuesta, error) -> {
+                long latencia = System.nanoTime() - programado;
+                try {
+                    if (error != null) {
+                        alFallar.run();
+                        if (medir) {
+                            resultados.fallida(operacion, latencia);
+                        }
+                    } else {
+                        alResponder.accept(respuesta.statusCode());
+                        if (medir) {
+                            resultados.respuesta(operacion, latencia, respuesta.statusCode());
+                        }
+                    }
+                } finally {
+                    enCurso.decrementAndGet();
+                }
+            });
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.microservices.accountingservice.carga;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Parámetros del arnés, con prefijo {@code carga}. Los valores por defecto están en
+ * application-carga.yml.
+ */
+public record ParametrosCarga(
+    int clientes,
+    int cuentasPorCliente,
+    int movimientosPorCuenta,
+    BigDecimal saldoInicial,
+    double tasa,
+    Duration calentamiento,
+    Duration duracion,
+    double proporcionReportes,
+    double proporcionRetiros,
+    int cuentasCalientes,
+    double proporcionCalientes,
+    int maxEnCurso,
+    Duration timeoutSolicitud,
+    long semilla,
+    String directorioResultados) {
+}
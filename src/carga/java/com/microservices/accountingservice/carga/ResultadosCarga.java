@@ -0,0 +1,163 @@
+package com.microservices.accountingservice.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histogramas de latencia por operación. Las latencias se registran en
+ * microsegundos desde el instante en que la solicitud debía salir, no desde que salió:
+ * si el servicio se atrasa, la espera en cola también cuenta.
+ */
+class ResultadosCarga {
+
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    enum Operacion {
+        MOVIMIENTO("movimientos"),
+        REPORTE("reportes");
+
+        private final String nombre;
+
+        Operacion(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    private static final class Estadisticas {
+        private final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3);
+        private final LongAdder enviadas = new LongAdder();
+        private final LongAdder exitosas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder fallidas = new LongAdder();
+    }
+
+    private final Map<Operacion, Estadisticas> estadisticas = new EnumMap<>(Operacion.class);
+    private final LongAdder descartadas = new LongAdder();
+
+    ResultadosCarga() {
+        for (Operacion operacion : Operacion.values()) {
+            estadisticas.put(operacion, new Estadisticas());
+        }
+    }
+
+    void enviada(Operacion operacion) {
+        estadisticas.get(operacion).enviadas.increment();
+    }
+
+    void descartada() {
+        descartadas.increment();
+    }
+
+    /**
+     * Registra una respuesta: 2xx es exitosa, 4xx un rechazo de negocio (por ejemplo
+     * saldo insuficiente) y 5xx un error del servicio.
+     */
+    void respuesta(Operacion operacion, long latenciaNanos, int estadoHttp) {
+        Estadisticas actual = estadisticas.get(operacion);
+        registrarLatencia(actual, latenciaNanos);
+        if (estadoHttp < 300) {
+            actual.exitosas.increment();
+        } else if (estadoHttp < 500) {
+            actual.rechazadas.increment();
+        } else {
+            actual.errores.increment();
+        }
+    }
+
+    /**
+     * Registra una solicitud sin respuesta (timeout o conexión rechazada).
+     */
+    void fallida(Operacion operacion, long latenciaNanos) {
+        Estadisticas actual = estadisticas.get(operacion);
+        registrarLatencia(actual, latenciaNanos);
+        actual.fallidas.increment();
+    }
+
+    private static void registrarLatencia(Estadisticas actual, long latenciaNanos) {
+        actual.latencias.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latenciaNanos), LATENCIA_MAXIMA_MICROS));
+    }
+
+    Map<String, Object> resumen(Duration ventana) {
+        double segundos = ventana.toMillis() / 1000.0;
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        for (Operacion operacion : Operacion.values()) {
+            Estadisticas actual = estadisticas.get(operacion);
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("enviadas", actual.enviadas.sum());
+            datos.put("exitosas", actual.exitosas.sum());
+            datos.put("rechazadas", actual.rechazadas.sum());
+            datos.put("errores", actual.errores.sum());
+            datos.put("fallidas", actual.fallidas.sum());
+            datos.put("exitosasPorSegundo", redondear(actual.exitosas.sum() / segundos));
+            Map<String, Object> latenciasMs = new LinkedHashMap<>();
+            for (double percentil : PERCENTILES) {
+                latenciasMs.put("p" + formatear(percentil), milisegundos(actual.latencias.getValueAtPercentile(percentil)));
+            }
+            latenciasMs.put("max", milisegundos(actual.latencias.getMaxValue()));
+            latenciasMs.put("media", redondear(actual.latencias.getMean() / 1000.0));
+            datos.put("latenciaMs", latenciasMs);
+            resumen.put(operacion.nombre, datos);
+        }
+        resumen.put("descartadas", descartadas.sum());
+        return resumen;
+    }
+
+    void imprimir(PrintStream salida, Duration ventana) {
+        double segundos = ventana.toMillis() / 1000.0;
+        salida.printf(Locale.ROOT, "%-12s %9s %9s %10s %8s %9s %10s %9s %9s %9s %9s %9s%n",
+            "operacion", "enviadas", "exitosas", "rechazadas", "errores", "fallidas", "exitosas/s",
+            "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operacion operacion : Operacion.values()) {
+            Estadisticas actual = estadisticas.get(operacion);
+            Histogram latencias = actual.latencias;
+            salida.printf(Locale.ROOT, "%-12s %9d %9d %10d %8d %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operacion.nombre, actual.enviadas.sum(), actual.exitosas.sum(), actual.rechazadas.sum(),
+                actual.errores.sum(), actual.fallidas.sum(), actual.exitosas.sum() / segundos,
+                milisegundos(latencias.getValueAtPercentile(50)), milisegundos(latencias.getValueAtPercentile(90)),
+                milisegundos(latencias.getValueAtPercentile(99)), milisegundos(latencias.getValueAtPercentile(99.9)),
+                milisegundos(latencias.getMaxValue()));
+        }
+        salida.printf(Locale.ROOT, "descartadas por exceso de solicitudes en curso: %d%n", descartadas.sum());
+    }
+
+    /**
+     * Escribe el resumen en JSON y la distribución completa de cada operación en formato
+     * hgrm (milisegundos), que se puede graficar con HdrHistogram Plotter.
+     */
+    void escribir(Path directorio, Map<String, Object> resumen, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directorio);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directorio.resolve("resumen.json").toFile(), resumen);
+        for (Operacion operacion : Operacion.values()) {
+            try (PrintStream salida = new PrintStream(Files.newOutputStream(directorio.resolve(operacion.nombre + ".hgrm")))) {
+                estadisticas.get(operacion).latencias.outputPercentileDistribution(salida, 1000.0);
+            }
+        }
+    }
+
+    private static double milisegundos(long micros) {
+        return redondear(micros / 1000.0);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    private static String formatear(double percentil) {
+        return percentil == Math.rint(percentil) ? String.valueOf((long) percentil) : String.valueOf(percentil);
+    }
+}
@@ -0,0 +1,134 @@
+package com.microservices.accountingservice.carga;
+
+import com.microservices.accountingservice.application.service.ClienteProyeccionService;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
+import com.microservices.accountingservice.application.service.CuentaService;
+import com.microservices.accountingservice.application.service.MovimientoService;
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.dto.LoteMovimientosResultadoDto;
+import com.microservices.accountingservice.domain.dto.MovimientoDto;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Siembra los datos iniciales por los mismos servicios que usa la aplicación: los
+ * clientes como eventos de la proyección, las cuentas con {@link CuentaService} y el
+ * historial con el endpoint de lotes, para que saldos, saldos diarios y outbox queden
+ * como en producción.
+ */
+@RequiredArgsConstructor
+@Slf4j
+class SembradorCarga {
+
+    private static final String TOPICO_SIEMBRA = "carga-clientes";
+    private static final int TAMANO_LOTE = 1000;
+
+    private final ParametrosCarga parametros;
+    private final ClienteProyeccionService clienteProyeccionService;
+    private final CuentaService cuentaService;
+    private final MovimientoService movimientoService;
+
+    record CuentaSembrada(long id, long clienteId) {
+    }
+
+    List<CuentaSembrada> sembrar() {
+        long inicio = System.nanoTime();
+        sembrarClientes();
+        List<CuentaSembrada> cuentas = sembrarCuentas();
+        int movimientos = sembrarMovimientos(cuentas);
+        log.info("Siembra completa: {} clientes, {} cuentas y {} movimientos en {} ms",
+            parametros.clientes(), cuentas.size(), movimientos, (System.nanoTime() - inicio) / 1_000_000);
+        return cuentas;
+    }
+
+    private void sembrarClientes() {
+        List<EventoCliente> eventos = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 1; i <= parametros.clientes(); i++) {
+            ClienteEvent evento = ClienteEvent.builder()
+                .eventType("CREATED")
+                .clienteId((long) i)
+                .identificacion(String.format("%010d", i))
+                .nombre("Cliente de carga " + i)
+                .estado(true)
+                .timestamp(LocalDateTime.now())
+                .build();
+            eventos.add(new EventoCliente(evento, TOPICO_SIEMBRA, 0, i));
+            if (eventos.size() == TAMANO_LOTE) {
+                clienteProyeccionService.aplicarLote(eventos);
+                eventos.clear();
+            }
+        }
+        clienteProyeccionService.aplicarLote(eventos);
+    }
+
+    private List<CuentaSembrada> sembrarCuentas() {
+        int total = parametros.clientes() * parametros.cuentasPorCliente();
+        return IntStream.range(0, total).parallel()
+            .mapToObj(i -> {
+                CuentaDto cuenta = new CuentaDto();
+                cuenta.setNumeroCuenta(String.format("C%09d", i + 1));
+                cuenta.setTipoCuenta(i % 2 == 0 ? "Ahorros" : "Corriente");
+                cuenta.setSaldoInicial(parametros.saldoInicial());
+                cuenta.setEstado(true);
+                cuenta.setClienteId((long) (i / parametros.cuentasPorCliente() + 1));
+                CuentaDto creada = cuentaService.crearCuenta(cuenta);
+                return new CuentaSembrada(creada.getId(), creada.getClienteId());
+            })
+            .collect(Collectors.toList());
+    }
+
+    private int sembrarMovimientos(List<CuentaSembrada> cuentas) {
+        Random random = new Random(parametros.semilla());
+        long[] saldos = new long[cuentas.size()];
+        long saldoInicial = parametros.saldoInicial().movePointRight(2).longValueExact();
+
+        int creados = 0;
+        List<MovimientoDto> lote = new ArrayList<>(TAMANO_LOTE);
+        for (int ronda = 0; ronda < parametros.movimientosPorCuenta(); ronda++) {
+            for (int i = 0; i < cuentas.size(); i++) {
+                long centavos = 100 + random.nextInt(20_000);
+                // Los retiros del historial nunca dejan la cuenta en negativo
+                boolean retiro = random.nextDouble() < parametros.proporcionRetiros()
+                    && saldoInicial + saldos[i] >= centavos;
+                saldos[i] += retiro ? -centavos : centavos;
+                lote.add(movimiento(cuentas.get(i), retiro, centavos));
+                if (lote.size() == TAMANO_LOTE) {
+                    creados += contabilizar(lote);
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            creados += contabilizar(lote);
+        }
+        return creados;
+    }
+
+    private int contabilizar(List<MovimientoDto> lote) {
+        LoteMovimientosResultadoDto resultado = movimientoService.crearMovimientosEnLote(lote);
+        if (resultado.getRechazados() > 0) {
+            throw new IllegalStateException("La siembra rechazó " + resultado.getRechazados() + " movimientos");
+        }
+        lote.clear();
+        return resultado.getCreados();
+    }
+
+    static MovimientoDto movimiento(CuentaSembrada cuenta, boolean retiro, long centavos) {
+        MovimientoDto movimiento = new MovimientoDto();
+        movimiento.setCuentaId(cuenta.id());
+        movimiento.setClienteId(cuenta.clienteId());
+        movimiento.setTipoMovimiento(retiro ? "Retiro" : "Deposito");
+        movimiento.setValor(BigDecimal.valueOf(centavos, 2));
+        movimiento.setFecha(LocalDateTime.now());
+        movimiento.setSaldo(BigDecimal.ZERO);
+        return movimiento;
+    }
+}
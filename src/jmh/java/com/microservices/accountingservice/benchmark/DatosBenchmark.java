@@ -0,0 +1,135 @@
+package com.microservices.accountingservice.benchmark;
+
+import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.MovimientoReporteFila;
+import com.microservices.accountingservice.domain.projection.MovimientoVista;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Datos de prueba compartidos por los benchmarks, con valores parecidos a los reales.
+ */
+final class DatosBenchmark {
+
+    static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * Repositorio que responde solo los métodos indicados por nombre; cualquier otro
+     * falla para que un cambio en el servicio no pase desapercibido.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repositorio(Class<T> tipo, Map<String, Supplier<?>> respuestas) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, argumentos) -> {
+            Supplier<?> respuesta = respuestas.get(metodo.getName());
+            if (respuesta != null) {
+                return respuesta.get();
+            }
+            if (metodo.getDeclaringClass() == Object.class) {
+                return metodo.getName().equals("toString") ? tipo.getSimpleName() : System.identityHashCode(proxy);
+            }
+            throw new UnsupportedOperationException(tipo.getSimpleName() + "." + metodo.getName());
+        });
+    }
+
+    static PlatformTransactionManager sinTransacciones() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definicion) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus estado) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus estado) {
+            }
+        };
+    }
+
+    static Cuenta cuenta(long id) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setId(id);
+        cuenta.setNumeroCuenta(String.valueOf(478700 + id));
+        cuenta.setTipoCuenta(id % 2 == 0 ? "Ahorros" : "Corriente");
+        cuenta.setSaldoInicial(Dinero.deCentavos(200_000));
+        cuenta.setSaldoActual(Dinero.deCentavos(142_550));
+        cuenta.setClienteId(7L);
+        cuenta.setVersion(3L);
+        cuenta.setFechaCreacion(INICIO);
+        cuenta.setFechaActualizacion(INICIO.plusDays(10));
+        return cuenta;
+    }
+
+    static CuentaVista cuentaVista(long id) {
+        return new CuentaVista(id, String.valueOf(478700 + id), id % 2 == 0 ? "Ahorros" : "Corriente",
+            Dinero.deCentavos(200_000), Dinero.deCentavos(142_550), true, 7L, 3L, INICIO, INICIO.plusDays(10));
+    }
+
+    static List<Movimiento> movimientos(Cuenta cuenta, int cantidad) {
+        List<Movimiento> movimientos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Movimiento movimiento = new Movimiento();
+            movimiento.setId((long) i + 1);
+            movimiento.setFecha(INICIO.plusMinutes(i));
+            movimiento.setTipoMovimiento(i % 3 == 0 ? "Retiro" : "Deposito");
+            movimiento.setValor(valor(i));
+            movimiento.setSaldo(saldo(i));
+            movimiento.setClienteId(cuenta.getClienteId());
+            movimiento.setSecuencia((long) i + 1);
+            movimiento.setCuenta(cuenta);
+            movimiento.setFechaCreacion(INICIO.plusMinutes(i));
+            movimientos.add(movimiento);
+        }
+        return movimientos;
+    }
+
+    static List<MovimientoVista> movimientoVistas(int cantidad) {
+        List<MovimientoVista> vistas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            vistas.add(new MovimientoVista((long) i + 1, INICIO.plusMinutes(i), i % 3 == 0 ? "Retiro" : "Deposito",
+                valor(i), saldo(i), 1L, 7L, "478701", "Corriente",
+                INICIO.plusMinutes(i), null));
+        }
+        return vistas;
+    }
+
+    // Filas de reporte ordenadas por cuenta, como las devuelve la consulta
+    static List<MovimientoReporteFila> filasReporte(List<CuentaVista> cuentas, int porCuenta) {
+        List<MovimientoReporteFila> filas = new ArrayList<>(cuentas.size() * porCuenta);
+        long id = 1;
+        for (CuentaVista cuenta : cuentas) {
+            for (int i = 0; i < porCuenta; i++) {
+                filas.add(new MovimientoReporteFila(cuenta.id(), id++, INICIO.plusMinutes(i),
+                    i % 3 == 0 ? "Retiro" : "Deposito", valor(i), saldo(i)));
+            }
+        }
+        return filas;
+    }
+
+    // Los valores se guardan positivos; el tipo de movimiento decide el signo
+    private static Dinero valor(int i) {
+        return Dinero.deCentavos(10_000 + i * 37L);
+    }
+
+    private static Dinero saldo(int i) {
+        return Dinero.deCentavos(200_000 + i * 100L);
+    }
+}
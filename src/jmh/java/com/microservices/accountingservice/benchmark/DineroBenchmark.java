@@ -0,0 +1,111 @@
+package com.microservices.accountingservice.benchmark;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aritmética de montos con {@link BigDecimal} frente a {@link Dinero}: el paso de una
+ * contabilización (validar el saldo, descontar y acumular en el total del día) y la
+ * suma de totales por línea de un reporte. Con {@code -prof gc} la columna
+ * {@code gc.alloc.rate.norm} muestra los bytes asignados por operación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DineroBenchmark {
+
+    @Param({"1000"})
+    private int lineas;
+
+    private BigDecimal saldoDecimal;
+    private BigDecimal totalDiaDecimal;
+    private BigDecimal[] valoresDecimal;
+    private Dinero saldo;
+    private Dinero totalDia;
+    private Dinero[] valores;
+    private boolean[] retiros;
+
+    @Setup
+    public void preparar() {
+        saldoDecimal = new BigDecimal("142550.75");
+        totalDiaDecimal = new BigDecimal("8311.40");
+        saldo = Dinero.de(saldoDecimal);
+        totalDia = Dinero.de(totalDiaDecimal);
+        valoresDecimal = new BigDecimal[lineas];
+        valores = new Dinero[lineas];
+        retiros = new boolean[lineas];
+        for (int i = 0; i < lineas; i++) {
+            valoresDecimal[i] = BigDecimal.valueOf(10_000 + i * 37L, 2);
+            valores[i] = Dinero.de(valoresDecimal[i]);
+            retiros[i] = i % 3 == 0;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal contabilizarBigDecimal() {
+        BigDecimal valor = valoresDecimal[0];
+        if (saldoDecimal.compareTo(valor) < 0) {
+            return saldoDecimal;
+        }
+        BigDecimal nuevoSaldo = saldoDecimal.subtract(valor);
+        BigDecimal nuevoTotal = totalDiaDecimal.add(valor);
+        return nuevoSaldo.compareTo(nuevoTotal) < 0 ? nuevoTotal : nuevoSaldo;
+    }
+
+    @Benchmark
+    public Dinero contabilizarDinero() {
+        Dinero valor = valores[0];
+        if (saldo.esMenorQue(valor)) {
+            return saldo;
+        }
+        Dinero nuevoSaldo = saldo.menos(valor);
+        Dinero nuevoTotal = totalDia.mas(valor);
+        return nuevoSaldo.esMenorQue(nuevoTotal) ? nuevoTotal : nuevoSaldo;
+    }
+
+    // Totales de depósitos y retiros como los que arma el resumen del período
+    @Benchmark
+    public BigDecimal totalesReporteBigDecimal() {
+        BigDecimal depositos = BigDecimal.ZERO;
+        BigDecimal retirosTotal = BigDecimal.ZERO;
+        for (int i = 0; i < lineas; i++) {
+            if (retiros[i]) {
+                retirosTotal = retirosTotal.add(valoresDecimal[i]);
+            } else {
+                depositos = depositos.add(valoresDecimal[i]);
+            }
+        }
+        return depositos.subtract(retirosTotal);
+    }
+
+    // Igual que ReporteService: se acumulan los centavos y se crea un solo Dinero al final
+    @Benchmark
+    public Dinero totalesReporteDinero() {
+        long depositos = 0;
+        long retirosTotal = 0;
+        for (int i = 0; i < lineas; i++) {
+            if (retiros[i]) {
+                retirosTotal = Math.addExact(retirosTotal, valores[i].centavos());
+            } else {
+                depositos = Math.addExact(depositos, valores[i].centavos());
+            }
+        }
+        return Dinero.deCentavos(Math.subtractExact(depositos, retirosTotal));
+    }
+}
@@ -0,0 +1,85 @@
+package com.microservices.accountingservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.domain.event.EventoCodec;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el formato binario de {@link EventoCodec} con el JSON de Jackson para un
+ * {@link MovimientoEvent}. Al terminar cada fork se imprime el tamaño del evento en
+ * ambos formatos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventoCodecBenchmark {
+
+    private final EventoCodec codec = new EventoCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MovimientoEvent evento;
+    private byte[] binario;
+    private byte[] json;
+
+    @Setup
+    public void preparar() throws Exception {
+        evento = MovimientoEvent.builder()
+            .eventType("CREATED")
+            .movimientoId(123456789L)
+            .cuentaId(42L)
+            .numeroCuenta("478758")
+            .clienteId(7L)
+            .tipoMovimiento("Retiro")
+            .valor(new BigDecimal("-575.50"))
+            .saldo(new BigDecimal("1424.50"))
+            .fecha(LocalDateTime.now())
+            .timestamp(LocalDateTime.now())
+            .build();
+        binario = codec.codificar(evento);
+        json = objectMapper.writeValueAsBytes(evento);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportarTamanos() {
+        System.out.printf("%nEvento serializado: binario %d bytes, JSON %d bytes%n", binario.length, json.length);
+    }
+
+    @Benchmark
+    public byte[] codificarBinario() {
+        return codec.codificar(evento);
+    }
+
+    @Benchmark
+    public byte[] codificarJson() throws Exception {
+        return objectMapper.writeValueAsBytes(evento);
+    }
+
+    @Benchmark
+    public Object decodificarBinario() {
+        return codec.decodificar(binario);
+    }
+
+    @Benchmark
+    public Object decodificarJson() throws Exception {
+        return objectMapper.readValue(json, MovimientoEvent.class);
+    }
+}
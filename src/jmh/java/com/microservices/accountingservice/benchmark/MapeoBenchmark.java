@@ -0,0 +1,108 @@
+package com.microservices.accountingservice.benchmark;
+
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.dto.MovimientoDto;
+import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import com.microservices.accountingservice.domain.mapper.CuentaMapper;
+import com.microservices.accountingservice.domain.mapper.MovimientoMapper;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.CuentaMetadatos;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.MovimientoVista;
+import com.microservices.accountingservice.domain.projection.SaldoCuenta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de entidades y proyecciones a DTOs y eventos en {@link MovimientoMapper}
+ * y {@link CuentaMapper}. Las listas usan {@code cantidad} elementos, el tamaño de una
+ * página de movimientos o de un reporte mediano.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoBenchmark {
+
+    @Param({"50", "1000"})
+    private int cantidad;
+
+    private final MovimientoMapper movimientoMapper = new MovimientoMapper();
+    private final CuentaMapper cuentaMapper = new CuentaMapper();
+
+    private Cuenta cuenta;
+    private CuentaVista cuentaVista;
+    private CuentaMetadatos metadatos;
+    private SaldoCuenta saldo;
+    private Movimiento movimiento;
+    private List<Movimiento> movimientos;
+    private List<MovimientoVista> vistas;
+
+    @Setup
+    public void preparar() {
+        cuenta = DatosBenchmark.cuenta(1L);
+        cuentaVista = DatosBenchmark.cuentaVista(1L);
+        metadatos = CuentaMetadatos.de(cuentaVista);
+        saldo = new SaldoCuenta(Dinero.deCentavos(142_550), 3L, DatosBenchmark.INICIO);
+        movimientos = DatosBenchmark.movimientos(cuenta, cantidad);
+        movimiento = movimientos.get(0);
+        vistas = DatosBenchmark.movimientoVistas(cantidad);
+    }
+
+    @Benchmark
+    public MovimientoDto movimientoToDto() {
+        return movimientoMapper.toDto(movimiento);
+    }
+
+    @Benchmark
+    public List<MovimientoDto> movimientoToDtoList() {
+        return movimientoMapper.toDtoList(movimientos);
+    }
+
+    @Benchmark
+    public List<MovimientoDto> movimientoVistasToDtoList() {
+        return movimientoMapper.vistasToDtoList(vistas);
+    }
+
+    @Benchmark
+    public MovimientoEvent movimientoToEvent() {
+        return movimientoMapper.toEvent(movimiento, "CREATED");
+    }
+
+    @Benchmark
+    public CuentaDto cuentaToDto() {
+        return cuentaMapper.toDto(cuenta);
+    }
+
+    @Benchmark
+    public CuentaDto cuentaVistaToDto() {
+        return cuentaMapper.toDto(cuentaVista);
+    }
+
+    @Benchmark
+    public CuentaDto cuentaMetadatosToDto() {
+        return cuentaMapper.toDto(metadatos, saldo);
+    }
+
+    @Benchmark
+    public CuentaEvent cuentaToEvent() {
+        return cuentaMapper.toEvent(cuenta, "UPDATED");
+    }
+}
@@ -0,0 +1,125 @@
+package com.microservices.accountingservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.application.archivo.ConsultaMovimientos;
+import com.microservices.accountingservice.application.archivo.FronteraArchivo;
+import com.microservices.accountingservice.application.cache.ReporteCache;
+import com.microservices.accountingservice.application.proyeccion.ClienteDirectorio;
+import com.microservices.accountingservice.application.service.ReporteService;
+import com.microservices.accountingservice.application.service.SaldoDiarioService;
+import com.microservices.accountingservice.domain.dto.ReporteEstadoCuentaDto;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.MovimientoReporteFila;
+import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import com.microservices.accountingservice.domain.repository.MovimientoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Armado del estado de cuenta en {@link ReporteService} sin base de datos: los
+ * repositorios devuelven filas ya cargadas y la caché de reportes siempre falla, así
+ * que se mide solo el mapeo a DTOs y la escritura NDJSON. Los dobles son clases
+ * simples y no mocks de Mockito, cuyo costo por llamada taparía lo que se mide.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReporteBenchmark {
+
+    private static final Long CLIENTE_ID = 7L;
+    private static final int CUENTAS = 5;
+
+    @Param({"10", "1000"})
+    private int movimientosPorCuenta;
+
+    private ReporteService reporteService;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+
+    @Setup
+    public void preparar() {
+        List<CuentaVista> cuentas = LongStream.rangeClosed(1, CUENTAS)
+            .mapToObj(DatosBenchmark::cuentaVista)
+            .toList();
+        List<MovimientoReporteFila> filas = DatosBenchmark.filasReporte(cuentas, movimientosPorCuenta);
+        Map<Long, SaldoDiarioService.ResumenPeriodo> resumenes = new HashMap<>();
+        cuentas.forEach(cuenta -> resumenes.put(cuenta.id(), new SaldoDiarioService.ResumenPeriodo(
+            cuenta.saldoInicial(), cuenta.saldoActual(), Dinero.deCentavos(100_000), Dinero.deCentavos(157_450),
+            movimientosPorCuenta)));
+
+        CuentaRepository cuentaRepository = DatosBenchmark.repositorio(CuentaRepository.class,
+            Map.of("findVistasByClienteIdAndEstadoTrue", () -> cuentas));
+        MovimientoRepository movimientoRepository = DatosBenchmark.repositorio(MovimientoRepository.class, Map.of(
+            "findReporteByClienteIdAndFechaBetween", () -> filas,
+            "streamReporteByClienteIdAndFechaBetween", filas::stream));
+        // Sin frontera publicada: solo se lee el nivel caliente
+        ConsultaMovimientos consultaMovimientos = new ConsultaMovimientos(movimientoRepository, null,
+            new FronteraArchivo(null));
+
+        SaldoDiarioService saldoDiarioService = new SaldoDiarioService(null, null, null, null, null, null, null) {
+            @Override
+            public Map<Long, ResumenPeriodo> resumirPeriodo(Long clienteId, Collection<CuentaVista> cuentasCliente,
+                                                            LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+                return resumenes;
+            }
+        };
+        // Siempre genera: se mide el armado del reporte, no la caché
+        ReporteCache reporteCache = new ReporteCache(new SimpleMeterRegistry(), 1, Duration.ofMinutes(1), Duration.ZERO) {
+            @Override
+            public ReporteEstadoCuentaDto obtener(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                  boolean incluirMovimientos, Supplier<ReporteEstadoCuentaDto> generador) {
+                return generador.get();
+            }
+        };
+        ClienteDirectorio clienteDirectorio = new ClienteDirectorio(null, null, new SimpleMeterRegistry());
+        clienteDirectorio.registrar(new ClienteResumen(CLIENTE_ID, "Jose Lema", "1234567890", true));
+
+        reporteService = new ReporteService(cuentaRepository, consultaMovimientos, saldoDiarioService,
+            new ObjectMapper().findAndRegisterModules(), reporteCache, clienteDirectorio,
+            DatosBenchmark.sinTransacciones(), new SimpleMeterRegistry());
+        inicio = DatosBenchmark.INICIO;
+        fin = inicio.plusMonths(1);
+    }
+
+    @Benchmark
+    public ReporteEstadoCuentaDto reporteConMovimientos() {
+        return reporteService.generarReporteEstadoCuenta(CLIENTE_ID, inicio, fin, true);
+    }
+
+    @Benchmark
+    public ReporteEstadoCuentaDto reporteSoloResumen() {
+        return reporteService.generarReporteEstadoCuenta(CLIENTE_ID, inicio, fin, false);
+    }
+
+    @Benchmark
+    public void reporteNdjson() throws IOException {
+        reporteService.escribirReporteEstadoCuenta(CLIENTE_ID, inicio, fin, true, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,77 @@
+package com.microservices.accountingservice.benchmark;
+
+import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.model.Dinero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de saldos: la lectura de {@link Cuenta#getSaldoActual()} en cada
+ * contabilización, con y sin saldo registrado, y la suma de movimientos con la que se
+ * verifica o reconstruye un saldo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SaldoBenchmark {
+
+    @Param({"1000"})
+    private int cantidad;
+
+    private Cuenta conSaldo;
+    private Cuenta sinSaldo;
+    private List<Movimiento> movimientos;
+
+    @Setup
+    public void preparar() {
+        conSaldo = DatosBenchmark.cuenta(1L);
+        sinSaldo = DatosBenchmark.cuenta(2L);
+        sinSaldo.setSaldoActual(null);
+        movimientos = DatosBenchmark.movimientos(conSaldo, cantidad);
+    }
+
+    @Benchmark
+    public Dinero saldoActualRegistrado() {
+        return conSaldo.getSaldoActual();
+    }
+
+    @Benchmark
+    public Dinero saldoActualInicial() {
+        return sinSaldo.getSaldoActual();
+    }
+
+    // Misma validación y cálculo que la contabilización de un retiro
+    @Benchmark
+    public Dinero contabilizarRetiro() {
+        Dinero saldoActual = conSaldo.getSaldoActual();
+        Dinero valor = movimientos.get(0).getValor();
+        return saldoActual.esMenorQue(valor) ? saldoActual : saldoActual.menos(valor);
+    }
+
+    @Benchmark
+    public Dinero sumarMovimientos() {
+        Dinero saldo = conSaldo.getSaldoInicial();
+        for (Movimiento movimiento : movimientos) {
+            saldo = "Retiro".equals(movimiento.getTipoMovimiento())
+                ? saldo.menos(movimiento.getValor())
+                : saldo.mas(movimiento.getValor());
+        }
+        return saldo;
+    }
+}
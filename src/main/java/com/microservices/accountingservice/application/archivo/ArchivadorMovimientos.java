@@ -0,0 +1,153 @@
+package com.microservices.accountingservice.application.archivo;
+
+import com.microservices.accountingservice.domain.entity.EstadoArchivo;
+import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import com.microservices.accountingservice.domain.repository.EstadoArchivoRepository;
+import com.microservices.accountingservice.domain.repository.MovimientoArchivadoRepository;
+import com.microservices.accountingservice.domain.repository.MovimientoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pasa a {@code movimientos_archivo} los movimientos anteriores al horizonte
+ * ({@code accounting.movimientos.archivo.horizonte-meses}, en meses completos). El corte
+ * avanza un mes cada mes; con cada corte nuevo se hace una pasada por todas las cuentas.
+ *
+ * <p>Una pasada empieza publicando el corte como frontera y no mueve filas hasta que
+ * transcurre {@code espera-publicacion}, más que el refresco de {@link FronteraArchivo}
+ * en todas las instancias. Después recorre las cuentas por bloques reservados en la fila
+ * de estado, de modo que varias instancias se reparten el trabajo, y mueve los
+ * movimientos de cada cuenta en lotes: copiar al archivo y eliminar de
+ * {@code movimientos} en una transacción corta que solo bloquea las filas del lote.
+ *
+ * <p>Con {@code accounting.movimientos.archivo.habilitado=false} no se crea; las
+ * lecturas siguen considerando lo que ya esté archivado.
+ */
+@Component
+@ConditionalOnProperty(name = "accounting.movimientos.archivo.habilitado", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ArchivadorMovimientos {
+
+    private final EstadoArchivoRepository estadoArchivoRepository;
+    private final CuentaRepository cuentaRepository;
+    private final MovimientoRepository movimientoRepository;
+    private final MovimientoArchivadoRepository movimientoArchivadoRepository;
+    private final FronteraArchivo fronteraArchivo;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonteMeses;
+    private final int tamanoLote;
+    private final int cuentasPorBloque;
+    private final Duration esperaPublicacion;
+    private final Counter archivados;
+
+    private record Bloque(LocalDateTime corte, List<Long> cuentas) {
+    }
+
+    public ArchivadorMovimientos(EstadoArchivoRepository estadoArchivoRepository,
+                                 CuentaRepository cuentaRepository,
+                                 MovimientoRepository movimientoRepository,
+                                 MovimientoArchivadoRepository movimientoArchivadoRepository,
+                                 FronteraArchivo fronteraArchivo,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${accounting.movimientos.archivo.horizonte-meses:12}") int horizonteMeses,
+                                 @Value("${accounting.movimientos.archivo.tamano-lote:1000}") int tamanoLote,
+                                 @Value("${accounting.movimientos.archivo.cuentas-por-bloque:200}") int cuentasPorBloque,
+                                 @Value("${accounting.movimientos.archivo.espera-publicacion:2m}") Duration esperaPublicacion) {
+        this.estadoArchivoRepository = estadoArchivoRepository;
+        this.cuentaRepository = cuentaRepository;
+        this.movimientoRepository = movimientoRepository;
+        this.movimientoArchivadoRepository = movimientoArchivadoRepository;
+        this.fronteraArchivo = fronteraArchivo;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonteMeses = horizonteMeses;
+        this.tamanoLote = tamanoLote;
+        this.cuentasPorBloque = cuentasPorBloque;
+        this.esperaPublicacion = esperaPublicacion;
+        this.archivados = Counter.builder("accounting.archivo.movimientos")
+            .description("Movimientos pasados de movimientos a movimientos_archivo")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${accounting.movimientos.archivo.intervalo-ms:600000}",
+               fixedDelayString = "${accounting.movimientos.archivo.intervalo-ms:600000}")
+    public void archivar() {
+        LocalDateTime corte = LocalDate.now().withDayOfMonth(1).minusMonths(horizonteMeses).atStartOfDay();
+        EstadoArchivo estado = transactionTemplate.execute(status -> publicarCorte(corte));
+        if (Boolean.TRUE.equals(estado.getCompleto())
+                || estado.getFechaActualizacion().plus(esperaPublicacion).isAfter(LocalDateTime.now())) {
+            return;
+        }
+        fronteraArchivo.publicar(estado.getFrontera());
+
+        long movidos = 0;
+        Bloque bloque;
+        while (!(bloque = transactionTemplate.execute(status -> reservarCuentas())).cuentas().isEmpty()) {
+            for (Long cuentaId : bloque.cuentas()) {
+                movidos += archivarCuenta(cuentaId, bloque.corte());
+            }
+        }
+        if (movidos > 0) {
+            log.info("Archivo de movimientos: {} movimientos anteriores a {} archivados", movidos, estado.getFrontera());
+        }
+    }
+
+    /**
+     * Publica el corte como frontera si es posterior a la actual y reinicia la pasada.
+     */
+    EstadoArchivo publicarCorte(LocalDateTime corte) {
+        EstadoArchivo estado = estadoArchivoRepository.bloquear(EstadoArchivo.UNICO).orElseThrow();
+        if (estado.getFrontera() == null || corte.isAfter(estado.getFrontera())) {
+            estado.setFrontera(corte);
+            estado.setUltimaCuenta(0L);
+            estado.setCompleto(false);
+            estado.setFechaActualizacion(LocalDateTime.now());
+            log.info("Nueva frontera del archivo de movimientos: {}", corte);
+        }
+        return estado;
+    }
+
+    private Bloque reservarCuentas() {
+        EstadoArchivo estado = estadoArchivoRepository.bloquear(EstadoArchivo.UNICO).orElseThrow();
+        if (Boolean.TRUE.equals(estado.getCompleto())) {
+            return new Bloque(estado.getFrontera(), List.of());
+        }
+        List<Long> cuentas = cuentaRepository.findIdsDespuesDe(estado.getUltimaCuenta(), Limit.of(cuentasPorBloque));
+        if (cuentas.isEmpty()) {
+            estado.setCompleto(true);
+        } else {
+            estado.setUltimaCuenta(cuentas.get(cuentas.size() - 1));
+        }
+        return new Bloque(estado.getFrontera(), cuentas);
+    }
+
+    private long archivarCuenta(Long cuentaId, LocalDateTime corte) {
+        long movidos = 0;
+        int lote;
+        do {
+            lote = transactionTemplate.execute(status -> {
+                List<Long> ids = movimientoRepository.findIdsArchivables(cuentaId, corte, Limit.of(tamanoLote));
+                if (!ids.isEmpty()) {
+                    movimientoArchivadoRepository.copiarDesdeMovimientos(ids);
+                    movimientoRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            archivados.increment(lote);
+            movidos += lote;
+        } while (lote == tamanoLote);
+        return movidos;
+    }
+}
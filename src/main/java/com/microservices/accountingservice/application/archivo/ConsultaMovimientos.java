@@ -0,0 +1,286 @@
+package com.microservices.accountingservice.application.archivo;
+
+import com.microservices.accountingservice.domain.projection.MovimientoReporteFila;
+import com.microservices.accountingservice.domain.projection.MovimientoVista;
+import com.microservices.accountingservice.domain.projection.PrimerMovimiento;
+import com.microservices.accountingservice.domain.projection.TotalesMovimientos;
+import com.microservices.accountingservice.domain.repository.MovimientoArchivadoRepository;
+import com.microservices.accountingservice.domain.repository.MovimientoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lecturas de movimientos sobre los dos niveles: {@code movimientos} (caliente) y
+ * {@code movimientos_archivo} (frío). El archivo solo se consulta cuando el rango pedido
+ * empieza antes de la {@link FronteraArchivo frontera}; los resultados de ambos niveles
+ * llegan en el mismo orden y se fusionan sin volver a ordenar.
+ *
+ * <p>Las dos lecturas de un método comparten la transacción del llamador, así que en
+ * MySQL ven la misma instantánea aunque el archivador mueva filas entre ellas. Las
+ * listas descartan además una fila repetida en ambos niveles.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ConsultaMovimientos {
+
+    private static final Comparator<MovimientoVista> VISTA_DESCENDENTE =
+        Comparator.comparing(MovimientoVista::fecha).thenComparing(MovimientoVista::id).reversed();
+    private static final Comparator<MovimientoReporteFila> FILA_DESCENDENTE =
+        Comparator.comparing(MovimientoReporteFila::fecha).thenComparing(MovimientoReporteFila::movimientoId).reversed();
+    private static final Comparator<MovimientoReporteFila> FILA_ASCENDENTE =
+        Comparator.comparing(MovimientoReporteFila::fecha).thenComparing(MovimientoReporteFila::movimientoId);
+    private static final Comparator<MovimientoReporteFila> FILA_POR_CUENTA =
+        Comparator.comparing(MovimientoReporteFila::cuentaId).thenComparing(FILA_ASCENDENTE);
+
+    private final MovimientoRepository movimientoRepository;
+    private final MovimientoArchivadoRepository movimientoArchivadoRepository;
+    private final FronteraArchivo fronteraArchivo;
+
+    public Optional<MovimientoVista> findVistaById(Long id) {
+        Optional<MovimientoVista> vista = movimientoRepository.findVistaById(id);
+        if (vista.isPresent() || !fronteraArchivo.alcanza(null)) {
+            return vista;
+        }
+        return movimientoArchivadoRepository.findVistaById(id);
+    }
+
+    public boolean estaArchivado(Long id) {
+        return fronteraArchivo.alcanza(null) && movimientoArchivadoRepository.existsById(id);
+    }
+
+    public List<MovimientoReporteFila> findReporteByClienteIdAndFechaBetween(Long clienteId, LocalDateTime fechaInicio,
+                                                                             LocalDateTime fechaFin) {
+        List<MovimientoReporteFila> calientes =
+            movimientoRepository.findReporteByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin);
+        if (!fronteraArchivo.alcanza(fechaInicio)) {
+            return calientes;
+        }
+        return fusionar(calientes, movimientoArchivadoRepository.findReporteByClienteIdAndFechaBetween(
+            clienteId, fechaInicio, fechaFin), FILA_DESCENDENTE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Igual que {@link MovimientoRepository#streamReporteByClienteIdAndFechaBetween}: debe
+     * consumirse dentro de una transacción y cerrarse al terminar, lo que cierra los
+     * cursores de ambos niveles.
+     */
+    public Stream<MovimientoReporteFila> streamReporteByClienteIdAndFechaBetween(Long clienteId,
+                                                                                LocalDateTime fechaInicio,
+                                                                                LocalDateTime fechaFin) {
+        Stream<MovimientoReporteFila> calientes =
+            movimientoRepository.streamReporteByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin);
+        if (!fronteraArchivo.alcanza(fechaInicio)) {
+            return calientes;
+        }
+        return fusionar(calientes, movimientoArchivadoRepository.streamReporteByClienteIdAndFechaBetween(
+            clienteId, fechaInicio, fechaFin), FILA_POR_CUENTA);
+    }
+
+    public Stream<MovimientoReporteFila> streamByCuentaId(Long cuentaId) {
+        Stream<MovimientoReporteFila> calientes = movimientoRepository.streamByCuentaId(cuentaId);
+        if (!fronteraArchivo.alcanza(null)) {
+            return calientes;
+        }
+        return fusionar(calientes, movimientoArchivadoRepository.streamByCuentaId(cuentaId), FILA_ASCENDENTE);
+    }
+
+    /**
+     * Totales por cuenta en {@code [desde, hasta)}. Con ambos niveles una cuenta puede
+     * aparecer dos veces; los llamadores ya acumulan tramos por cuenta.
+     */
+    public List<TotalesMovimientos> sumarPorCuentaEntre(Long clienteId, LocalDateTime desde, LocalDateTime hasta) {
+        List<TotalesMovimientos> calientes = movimientoRepository.sumarPorCuentaEntre(clienteId, desde, hasta);
+        if (!fronteraArchivo.alcanza(desde)) {
+            return calientes;
+        }
+        List<TotalesMovimientos> tramos = new ArrayList<>(calientes);
+        tramos.addAll(movimientoArchivadoRepository.sumarPorCuentaEntre(clienteId, desde, hasta));
+        return tramos;
+    }
+
+    /**
+     * Fecha del primer movimiento de cada cuenta que tenga alguno. Las cuentas con
+     * movimientos archivados toman la fecha del archivo, que siempre es la anterior.
+     */
+    public Map<Long, LocalDateTime> findPrimerasFechas(Collection<Long> cuentaIds) {
+        List<PrimerMovimiento> primeros = new ArrayList<>(movimientoRepository.findPrimerosByCuentaIdIn(cuentaIds));
+        if (fronteraArchivo.alcanza(null)) {
+            primeros.addAll(movimientoArchivadoRepository.findPrimerosByCuentaIdIn(cuentaIds));
+        }
+        Map<Long, LocalDateTime> fechas = new HashMap<>();
+        for (PrimerMovimiento primero : primeros) {
+            fechas.merge(primero.cuentaId(), primero.fecha(), (a, b) -> a.isBefore(b) ? a : b);
+        }
+        return fechas;
+    }
+
+    // Paginación: el archivo solo se lee si la página del nivel caliente no se llenó con
+    // movimientos posteriores a la frontera
+
+    public List<MovimientoVista> findPaginaDespuesDe(LocalDateTime fecha, Long id, Limit limite) {
+        List<MovimientoVista> calientes = movimientoRepository.findPaginaDespuesDe(fecha, id, limite);
+        if (!necesitaArchivo(calientes, null, limite)) {
+            return calientes;
+        }
+        return fusionar(calientes, movimientoArchivadoRepository.findPaginaDespuesDe(fecha, id, limite),
+            VISTA_DESCENDENTE, limite.max());
+    }
+
+    public List<MovimientoVista> findPaginaPorClienteDespuesDe(Long clienteId, LocalDateTime fecha, Long id,
+                                                               Limit limite) {
+        List<MovimientoVista> calientes = movimientoRepository.findPaginaPorClienteDespuesDe(clienteId, fecha, id, limite);
+        if (!necesitaArchivo(calientes, null, limite)) {
+            return calientes;
+        }
+        return fusionar(calientes, movimientoArchivadoRepository.findPaginaPorClienteDespuesDe(clienteId, fecha, id, limite),
+            VISTA_DESCENDENTE, limite.max());
+    }
+
+    public List<MovimientoVista> findPaginaPorCuentaDespuesDe(Long cuentaId, LocalDateTime fecha, Long id,
+                                                              Limit limite) {
+        List<MovimientoVista> calientes = movimientoRepository.findPaginaPorCuentaDespuesDe(cuentaId, fecha, id, limite);
+        if (!necesitaArchivo(calientes, null, limite)) {
+            return calientes;
+        }
+        return fusionar(calientes, movimientoArchivadoRepository.findPaginaPorCuentaDespuesDe(cuentaId, fecha, id, limite),
+            VISTA_DESCENDENTE, limite.max());
+    }
+
+    public List<MovimientoVista> findPaginaPorClienteYFechaDespuesDe(Long clienteId, LocalDateTime fechaInicio,
+                                                                     LocalDateTime fecha, Long id, Limit limite) {
+        List<MovimientoVista> calientes = movimientoRepository.findPaginaPorClienteYFechaDespuesDe(
+            clienteId, fechaInicio, fecha, id, limite);
+        if (!necesitaArchivo(calientes, fechaInicio, limite)) {
+            return calientes;
+        }
+        return fusionar(calientes, movimientoArchivadoRepository.findPaginaPorClienteYFechaDespuesDe(
+            clienteId, fechaInicio, fecha, id, limite), VISTA_DESCENDENTE, limite.max());
+    }
+
+    @Transactional
+    public int reasignarCliente(Long cuentaId, Long clienteId) {
+        int reasignados = movimientoRepository.reasignarCliente(cuentaId, clienteId);
+        if (fronteraArchivo.alcanza(null)) {
+            reasignados += movimientoArchivadoRepository.reasignarCliente(cuentaId, clienteId);
+        }
+        return reasignados;
+    }
+
+    public BigDecimal sumarValoresPorCuenta(Long cuentaId) {
+        BigDecimal calientes = movimientoRepository.sumarValoresPorCuenta(cuentaId);
+        if (!fronteraArchivo.alcanza(null)) {
+            return calientes;
+        }
+        return sumar(calientes, movimientoArchivadoRepository.sumarValoresPorCuenta(cuentaId));
+    }
+
+    public BigDecimal sumarValoresPorCuentaDesdeSecuencia(Long cuentaId, Long secuencia) {
+        BigDecimal calientes = movimientoRepository.sumarValoresPorCuentaDesdeSecuencia(cuentaId, secuencia);
+        if (!fronteraArchivo.alcanza(null)) {
+            return calientes;
+        }
+        return sumar(calientes, movimientoArchivadoRepository.sumarValoresPorCuentaDesdeSecuencia(cuentaId, secuencia));
+    }
+
+    private boolean necesitaArchivo(List<MovimientoVista> calientes, LocalDateTime desde, Limit limite) {
+        if (!fronteraArchivo.alcanza(desde)) {
+            return false;
+        }
+        if (calientes.size() < limite.max()) {
+            return true;
+        }
+        return fronteraArchivo.alcanza(calientes.get(calientes.size() - 1).fecha());
+    }
+
+    // Las sumas son nulas cuando el nivel no tiene movimientos de la cuenta
+    private static BigDecimal sumar(BigDecimal a, BigDecimal b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : a.add(b);
+    }
+
+    private static <T> List<T> fusionar(List<T> a, List<T> b, Comparator<T> orden, int maximo) {
+        if (b.isEmpty()) {
+            return a;
+        }
+        List<T> resultado = new ArrayList<>(Math.min(a.size() + b.size(), maximo));
+        Iterator<T> fusion = new Fusion<>(a.iterator(), b.iterator(), orden);
+        while (fusion.hasNext() && resultado.size() < maximo) {
+            resultado.add(fusion.next());
+        }
+        return resultado;
+    }
+
+    private static <T> Stream<T> fusionar(Stream<T> a, Stream<T> b, Comparator<T> orden) {
+        Iterator<T> fusion = new Fusion<>(a.iterator(), b.iterator(), orden);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(fusion, Spliterator.ORDERED), false)
+            .onClose(a::close)
+            .onClose(b::close);
+    }
+
+    /**
+     * Recorre dos secuencias ordenadas con el mismo criterio. Dos elementos iguales según
+     * el orden son el mismo movimiento (la clave incluye el ID) y se devuelve uno solo.
+     */
+    private static final class Fusion<T> implements Iterator<T> {
+
+        private final Iterator<T> a;
+        private final Iterator<T> b;
+        private final Comparator<T> orden;
+        private T siguienteA;
+        private T siguienteB;
+
+        Fusion(Iterator<T> a, Iterator<T> b, Comparator<T> orden) {
+            this.a = a;
+            this.b = b;
+            this.orden = orden;
+            this.siguienteA = a.hasNext() ? a.next() : null;
+            this.siguienteB = b.hasNext() ? b.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguienteA != null || siguienteB != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int comparacion = siguienteA == null ? 1 : siguienteB == null ? -1 : orden.compare(siguienteA, siguienteB);
+            T elemento;
+            if (comparacion <= 0) {
+                elemento = siguienteA;
+                siguienteA = a.hasNext() ? a.next() : null;
+                if (comparacion == 0) {
+                    siguienteB = b.hasNext() ? b.next() : null;
+                }
+            } else {
+                elemento = siguienteB;
+                siguienteB = b.hasNext() ? b.next() : null;
+            }
+            return elemento;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.microservices.accountingservice.application.archivo;
+
+import com.microservices.accountingservice.domain.entity.EstadoArchivo;
+import com.microservices.accountingservice.domain.repository.EstadoArchivoRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia local de la frontera del archivo: los movimientos con fecha anterior pueden
+ * estar en {@code movimientos_archivo}, los demás están siempre en {@code movimientos}.
+ * Las consultas la usan para no leer el archivo cuando su rango no llega hasta él, sin
+ * una sentencia adicional por solicitud.
+ *
+ * <p>Se relee cada {@code accounting.movimientos.archivo.refresco-ms}. El archivador
+ * publica una frontera nueva y espera más que ese intervalo antes de mover filas, de
+ * modo que ninguna instancia deja de leer el archivo para un rango que ya tiene filas
+ * archivadas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FronteraArchivo {
+
+    private final EstadoArchivoRepository estadoArchivoRepository;
+
+    // null mientras no se haya archivado nada
+    private volatile LocalDateTime frontera;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${accounting.movimientos.archivo.refresco-ms:30000}",
+               initialDelayString = "${accounting.movimientos.archivo.refresco-ms:30000}")
+    public void refrescar() {
+        LocalDateTime leida = estadoArchivoRepository.findById(EstadoArchivo.UNICO)
+            .map(EstadoArchivo::getFrontera)
+            .orElse(null);
+        if (leida != null && !leida.equals(frontera)) {
+            log.info("Frontera del archivo de movimientos: {}", leida);
+        }
+        frontera = leida;
+    }
+
+    public LocalDateTime actual() {
+        return frontera;
+    }
+
+    /**
+     * Indica si un rango que empieza en {@code desde} puede tener movimientos archivados;
+     * {@code null} es un rango sin inicio.
+     */
+    public boolean alcanza(LocalDateTime desde) {
+        LocalDateTime limite = frontera;
+        return limite != null && (desde == null || desde.isBefore(limite));
+    }
+
+    void publicar(LocalDateTime nueva) {
+        frontera = nueva;
+    }
+}
@@ -0,0 +1,107 @@
+package com.microservices.accountingservice.application.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.projection.CuentaMetadatos;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché local de los metadatos de las cuentas, por ID y por número de cuenta. Nunca
+ * guarda el saldo: quien lo necesite lo lee de la base de datos.
+ *
+ * <p>Las entradas se invalidan cuando se confirma una actualización o desactivación de
+ * la cuenta en esta instancia; los cambios hechos por otras instancias se ven como
+ * máximo tras el TTL. Una lectura que empezó antes de una invalidación no se guarda,
+ * para no volver a dejar en caché datos anteriores al cambio. No se guardan cuentas
+ * inexistentes.
+ */
+@Component
+@Slf4j
+public class CuentaCache {
+
+    private final CuentaRepository cuentaRepository;
+    private final Cache<Long, CuentaMetadatos> porId;
+    private final Cache<String, Long> idPorNumero;
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public CuentaCache(CuentaRepository cuentaRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${accounting.cuentas.cache.max-entradas:100000}") long maxEntradas,
+                       @Value("${accounting.cuentas.cache.ttl:60s}") Duration ttl) {
+        this.cuentaRepository = cuentaRepository;
+        this.porId = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        this.idPorNumero = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfterWrite(ttl)
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "cuentas");
+    }
+
+    public Optional<CuentaMetadatos> obtener(Long id) {
+        CuentaMetadatos metadatos = porId.getIfPresent(id);
+        if (metadatos != null) {
+            return Optional.of(metadatos);
+        }
+        long marca = invalidaciones.get();
+        return cuentaRepository.findVistaById(id).map(vista -> registrar(vista, marca));
+    }
+
+    public Optional<CuentaMetadatos> obtenerPorNumero(String numeroCuenta) {
+        Long id = idPorNumero.getIfPresent(numeroCuenta);
+        if (id != null) {
+            CuentaMetadatos metadatos = porId.getIfPresent(id);
+            // El número pudo haber pasado a otra cuenta desde que se guardó el índice
+            if (metadatos != null && metadatos.numeroCuenta().equals(numeroCuenta)) {
+                return Optional.of(metadatos);
+            }
+        }
+        long marca = invalidaciones.get();
+        return cuentaRepository.findVistaByNumeroCuenta(numeroCuenta).map(vista -> registrar(vista, marca));
+    }
+
+    public void invalidar(Long id) {
+        invalidaciones.incrementAndGet();
+        CuentaMetadatos metadatos = porId.asMap().remove(id);
+        if (metadatos != null) {
+            idPorNumero.asMap().remove(metadatos.numeroCuenta(), id);
+        }
+        log.debug("Metadatos de cuenta invalidados en caché: {}", id);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCuenta(CuentaEvent evento) {
+        if (!"CREATED".equals(evento.getEventType())) {
+            invalidar(evento.getCuentaId());
+        }
+    }
+
+    private CuentaMetadatos registrar(CuentaVista vista, long marca) {
+        CuentaMetadatos metadatos = CuentaMetadatos.de(vista);
+        // Con invalidaciones concurrentes no se sabe si la lectura es anterior al cambio
+        if (invalidaciones.get() == marca) {
+            porId.put(metadatos.id(), metadatos);
+            idPorNumero.put(metadatos.numeroCuenta(), metadatos.id());
+            if (invalidaciones.get() != marca) {
+                porId.invalidate(metadatos.id());
+            }
+        }
+        return metadatos;
+    }
+}
@@ -0,0 +1,180 @@
+package com.microservices.accountingservice.application.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.microservices.accountingservice.domain.dto.ReporteEstadoCuentaDto;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché de reportes de estado de cuenta ya generados, acotada por peso (cuentas más
+ * movimientos de cada reporte) y con expiración tras la escritura.
+ *
+ * <p>Las entradas de un cliente se invalidan cuando se confirma una transacción que
+ * contabiliza un movimiento o modifica una cuenta suya, o cuando cambian sus datos.
+ * La clave lleva la generación del cliente vigente al empezar a generar el reporte: un
+ * reporte que se estaba generando mientras llegó una invalidación queda guardado con
+ * una generación vieja y no vuelve a servirse. El estado de un cliente (generación y
+ * claves) se descarta con su última entrada cuando no hay reportes suyos en curso, así
+ * que no crece con los clientes que alguna vez pidieron un reporte.
+ *
+ * <p>La caché es local a cada instancia y solo la invalidan las transacciones que
+ * confirma la propia instancia. Un movimiento contabilizado en otra instancia no se ve
+ * en los reportes en caché de esta hasta que expiran, como mucho tras
+ * {@code accounting.reportes.cache.ttl}.
+ *
+ * <p>Durante {@code accounting.reportes.cache.ventana-primaria} tras invalidar un
+ * cliente, {@link #invalidadoRecientemente} lo informa para que el reporte se arme en la
+ * primaria: una réplica atrasada todavía podría no tener el cambio y el reporte viejo
+ * quedaría en caché con la generación nueva.
+ */
+@Component
+@Slf4j
+public class ReporteCache {
+
+    private record Clave(Long clienteId, long generacion, LocalDateTime fechaInicio,
+                         LocalDateTime fechaFin, boolean incluirMovimientos) {
+    }
+
+    // Solo se lee y modifica dentro de compute sobre el mapa de clientes
+    private static final class EstadoCliente {
+        private long generacion;
+        private int enCurso;
+        private final Set<Clave> claves = new HashSet<>();
+
+        private EstadoCliente descartarSiVacio() {
+            return claves.isEmpty() && enCurso == 0 ? null : this;
+        }
+    }
+
+    private final Cache<Clave, ReporteEstadoCuentaDto> reportes;
+    private final Map<Long, EstadoCliente> clientes = new ConcurrentHashMap<>();
+    private final Cache<Long, Boolean> invalidacionesRecientes;
+
+    public ReporteCache(MeterRegistry meterRegistry,
+                        @Value("${accounting.reportes.cache.peso-maximo:200000}") long pesoMaximo,
+                        @Value("${accounting.reportes.cache.ttl:5m}") Duration ttl,
+                        @Value("${accounting.reportes.cache.ventana-primaria:10s}") Duration ventanaPrimaria) {
+        this.reportes = Caffeine.newBuilder()
+            .maximumWeight(pesoMaximo)
+            .weigher((Clave clave, ReporteEstadoCuentaDto reporte) -> peso(reporte))
+            .expireAfterWrite(ttl)
+            // En el mismo hilo: el estado del cliente se descarta junto con su última entrada
+            .executor(Runnable::run)
+            .removalListener((Clave clave, ReporteEstadoCuentaDto reporte, RemovalCause causa) -> olvidar(clave))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, reportes, "reportes-estado-cuenta");
+        this.invalidacionesRecientes = Caffeine.newBuilder()
+            .expireAfterWrite(ventanaPrimaria)
+            .build();
+    }
+
+    public ReporteEstadoCuentaDto obtener(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                          boolean incluirMovimientos, Supplier<ReporteEstadoCuentaDto> generador) {
+        long[] generacion = new long[1];
+        clientes.compute(clienteId, (id, estado) -> {
+            EstadoCliente vigente = estado != null ? estado : new EstadoCliente();
+            vigente.enCurso++;
+            generacion[0] = vigente.generacion;
+            return vigente;
+        });
+        try {
+            Clave clave = new Clave(clienteId, generacion[0], fechaInicio, fechaFin, incluirMovimientos);
+            return reportes.get(clave, k -> {
+                ReporteEstadoCuentaDto reporte = generador.get();
+                clientes.computeIfPresent(clienteId, (id, estado) -> {
+                    estado.claves.add(k);
+                    return estado;
+                });
+                return reporte;
+            });
+        } finally {
+            clientes.computeIfPresent(clienteId, (id, estado) -> {
+                estado.enCurso--;
+                return estado.descartarSiVacio();
+            });
+        }
+    }
+
+    public void invalidarCliente(Long clienteId) {
+        if (clienteId == null) {
+            return;
+        }
+        invalidacionesRecientes.put(clienteId, Boolean.TRUE);
+        // Las claves siguen registradas hasta que la caché avise que las quitó: si el
+        // estado se descartara antes, un reporte nuevo volvería a la generación de ellas
+        List<Clave> claves = new ArrayList<>();
+        clientes.computeIfPresent(clienteId, (id, estado) -> {
+            estado.generacion++;
+            claves.addAll(estado.claves);
+            return estado;
+        });
+        if (claves.isEmpty()) {
+            return;
+        }
+        reportes.invalidateAll(claves);
+        log.debug("Reportes en caché invalidados para cliente: {}", clienteId);
+    }
+
+    public boolean invalidadoRecientemente(Long clienteId) {
+        return invalidacionesRecientes.getIfPresent(clienteId) != null;
+    }
+
+    // Clientes con estado registrado, para las pruebas
+    int clientesRegistrados() {
+        return clientes.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMovimiento(MovimientoEvent evento) {
+        invalidarCliente(evento.getClienteId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCuenta(CuentaEvent evento) {
+        invalidarCliente(evento.getClienteId());
+        invalidarCliente(evento.getClienteIdAnterior());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCliente(ClienteEvent evento) {
+        invalidarCliente(evento.getClienteId());
+    }
+
+    private void olvidar(Clave clave) {
+        clientes.computeIfPresent(clave.clienteId(), (id, estado) -> {
+            estado.claves.remove(clave);
+            return estado.descartarSiVacio();
+        });
+    }
+
+    private static int peso(ReporteEstadoCuentaDto reporte) {
+        int peso = 1;
+        if (reporte.getCuentas() != null) {
+            for (ReporteEstadoCuentaDto.CuentaReporteDto cuenta : reporte.getCuentas()) {
+                peso += 1 + (cuenta.getMovimientos() != null ? cuenta.getMovimientos().size() : 0);
+            }
+        }
+        return peso;
+    }
+}
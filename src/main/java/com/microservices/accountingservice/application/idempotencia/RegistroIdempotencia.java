@@ -0,0 +1,150 @@
+package com.microservices.accountingservice.application.idempotencia;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.accountingservice.application.archivo.ConsultaMovimientos;
+import com.microservices.accountingservice.domain.dto.MovimientoDto;
+import com.microservices.accountingservice.domain.entity.ClaveIdempotencia;
+import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.exception.ClaveIdempotenciaInvalidaException;
+import com.microservices.accountingservice.domain.mapper.MovimientoMapper;
+import com.microservices.accountingservice.domain.repository.ClaveIdempotenciaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Registro de las claves {@code Idempotency-Key} de los movimientos. La tabla
+ * {@code claves_idempotencia} es la fuente de verdad y se escribe en la transacción del
+ * movimiento; delante hay una caché local acotada con las respuestas recientes, de modo
+ * que un reintento a la misma instancia se responde sin consultar la base de datos ni
+ * tomar el carril de la cuenta.
+ *
+ * <p>Las claves vencen tras el TTL: pasado ese tiempo la misma clave contabiliza un
+ * movimiento nuevo. Las vencidas se eliminan periódicamente.
+ */
+@Component
+@Slf4j
+public class RegistroIdempotencia {
+
+    private static final int LONGITUD_MAXIMA = 100;
+
+    private record Respuesta(String huella, MovimientoDto movimiento) {
+    }
+
+    private final ClaveIdempotenciaRepository claveRepository;
+    private final ConsultaMovimientos consultaMovimientos;
+    private final MovimientoMapper movimientoMapper;
+    private final Duration ttl;
+    private final Cache<String, Respuesta> respuestas;
+
+    public RegistroIdempotencia(ClaveIdempotenciaRepository claveRepository,
+                                ConsultaMovimientos consultaMovimientos,
+                                MovimientoMapper movimientoMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${accounting.movimientos.idempotencia.ttl:24h}") Duration ttl,
+                                @Value("${accounting.movimientos.idempotencia.cache.max-entradas:100000}") long maxEntradas) {
+        this.claveRepository = claveRepository;
+        this.consultaMovimientos = consultaMovimientos;
+        this.movimientoMapper = movimientoMapper;
+        this.ttl = ttl;
+        this.respuestas = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, respuestas, "idempotencia");
+    }
+
+    /**
+     * Huella de la solicitud: la misma clave solo puede repetirse con la misma cuenta,
+     * cliente, tipo y valor. Valida también la clave.
+     */
+    public String huella(String clave, MovimientoDto movimientoDto) {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA) {
+            throw new ClaveIdempotenciaInvalidaException(
+                "La clave de idempotencia debe tener entre 1 y " + LONGITUD_MAXIMA + " caracteres");
+        }
+        BigDecimal valor = movimientoDto.getValor();
+        String solicitud = movimientoDto.getCuentaId() + "|" + movimientoDto.getClienteId() + "|"
+            + movimientoDto.getTipoMovimiento() + "|" + (valor == null ? null : valor.stripTrailingZeros().toPlainString());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(solicitud.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Respuesta del movimiento ya contabilizado con esta clave, primero en la caché y si
+     * no en la tabla. Una clave vencida que aún no se limpió se elimina aquí para que
+     * pueda volver a registrarse.
+     *
+     * @throws ClaveIdempotenciaInvalidaException si la clave se usó con otra solicitud
+     */
+    public Optional<MovimientoDto> buscar(String clave, String huella) {
+        Respuesta respuesta = respuestas.getIfPresent(clave);
+        if (respuesta == null) {
+            Optional<ClaveIdempotencia> registro = claveRepository.findById(clave);
+            if (registro.isEmpty()) {
+                return Optional.empty();
+            }
+            if (!registro.get().getFechaExpiracion().isAfter(LocalDateTime.now())) {
+                claveRepository.delete(registro.get());
+                return Optional.empty();
+            }
+            respuesta = consultaMovimientos.findVistaById(registro.get().getMovimientoId())
+                .map(vista -> new Respuesta(registro.get().getHuella(), movimientoMapper.toDto(vista)))
+                .orElse(null);
+            if (respuesta == null) {
+                return Optional.empty();
+            }
+            respuestas.put(clave, respuesta);
+        }
+        if (!respuesta.huella().equals(huella)) {
+            throw new ClaveIdempotenciaInvalidaException("La clave de idempotencia ya se usó con otro movimiento");
+        }
+        return Optional.of(respuesta.movimiento());
+    }
+
+    /**
+     * Inserta la clave del movimiento en la transacción en curso, sin consultarla antes:
+     * si otra solicitud con la misma clave se confirmó primero, el commit falla por clave
+     * duplicada y la transacción completa, saldo incluido, se revierte.
+     */
+    public void registrar(String clave, String huella, Movimiento movimiento) {
+        ClaveIdempotencia registro = new ClaveIdempotencia(clave);
+        registro.setHuella(huella);
+        registro.setMovimientoId(movimiento.getId());
+        registro.setFechaExpiracion(LocalDateTime.now().plus(ttl));
+        claveRepository.save(registro);
+    }
+
+    /** Deja la respuesta en la caché; llamar después de confirmar la transacción. */
+    public void recordar(String clave, String huella, MovimientoDto movimiento) {
+        respuestas.put(clave, new Respuesta(huella, movimiento));
+    }
+
+    @Scheduled(fixedDelayString = "${accounting.movimientos.idempotencia.limpieza-intervalo-ms:600000}")
+    @Transactional
+    public void eliminarVencidas() {
+        int eliminadas = claveRepository.deleteExpiradas(LocalDateTime.now());
+        if (eliminadas > 0) {
+            log.info("Claves de idempotencia vencidas eliminadas: {}", eliminadas);
+        }
+    }
+}
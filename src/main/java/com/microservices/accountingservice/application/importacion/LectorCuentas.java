@@ -0,0 +1,240 @@
+package com.microservices.accountingservice.application.importacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.exception.ImportacionInvalidaException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lee las cuentas de un archivo de importación línea por línea, sin cargarlo completo.
+ * En CSV la primera línea es la cabecera con los nombres de las columnas
+ * ({@code numeroCuenta,tipoCuenta,saldoInicial,estado,clienteId}, en cualquier orden);
+ * en NDJSON cada línea es un objeto con esos campos. Las líneas en blanco se ignoran.
+ *
+ * <p>Una línea que no se puede interpretar no detiene la lectura: se devuelve con el
+ * error para que se informe y se sigue con la siguiente. Las líneas de más de
+ * {@link #LARGO_MAXIMO} caracteres se descartan sin guardarlas en memoria.
+ */
+public class LectorCuentas {
+
+    public static final int LARGO_MAXIMO = 4096;
+
+    private static final List<String> COLUMNAS = List.of("numeroCuenta", "tipoCuenta", "saldoInicial", "estado", "clienteId");
+
+    public enum Formato { CSV, NDJSON }
+
+    /**
+     * Una línea del archivo: la cuenta leída, o el motivo por el que no se pudo leer.
+     */
+    public record Fila(long linea, CuentaDto cuenta, String error) {
+    }
+
+    private final Reader entrada;
+    private final Formato formato;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder linea = new StringBuilder();
+    private final Map<String, Integer> columnas = new HashMap<>();
+    private long numeroLinea;
+    private boolean truncada;
+
+    private LectorCuentas(Reader entrada, Formato formato, ObjectMapper objectMapper) {
+        this.entrada = entrada;
+        this.formato = formato;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Abre el archivo y, en CSV, lee la cabecera. Un archivo sin cabecera o sin alguna de
+     * las columnas se rechaza completo antes de importar nada.
+     */
+    public static LectorCuentas abrir(InputStream cuerpo, Formato formato, ObjectMapper objectMapper) throws IOException {
+        Reader entrada = new BufferedReader(new InputStreamReader(cuerpo, StandardCharsets.UTF_8));
+        LectorCuentas lector = new LectorCuentas(entrada, formato, objectMapper);
+        if (formato == Formato.CSV) {
+            lector.leerCabecera();
+        }
+        return lector;
+    }
+
+    /**
+     * Devuelve la siguiente línea con contenido, o {@code null} al final del archivo.
+     */
+    public Fila siguiente() throws IOException {
+        while (leerLinea()) {
+            if (truncada) {
+                return new Fila(numeroLinea, null, "La línea supera los " + LARGO_MAXIMO + " caracteres");
+            }
+            if (!linea.toString().isBlank()) {
+                return formato == Formato.CSV ? filaCsv() : filaNdjson();
+            }
+        }
+        return null;
+    }
+
+    private void leerCabecera() throws IOException {
+        if (!leerLinea() || truncada) {
+            throw new ImportacionInvalidaException("El archivo CSV debe comenzar con la cabecera de columnas");
+        }
+        // Los archivos guardados desde una planilla suelen empezar con la marca de orden de bytes
+        if (!linea.isEmpty() && linea.charAt(0) == '\uFEFF') {
+            linea.deleteCharAt(0);
+        }
+        List<String> nombres;
+        try {
+            nombres = separar(linea);
+        } catch (IllegalArgumentException e) {
+            throw new ImportacionInvalidaException("Cabecera CSV inválida: " + e.getMessage());
+        }
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.putIfAbsent(nombres.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        List<String> faltantes = COLUMNAS.stream()
+            .filter(columna -> !columnas.containsKey(columna.toLowerCase(Locale.ROOT)))
+            .toList();
+        if (!faltantes.isEmpty()) {
+            throw new ImportacionInvalidaException("Faltan columnas en la cabecera CSV: " + String.join(", ", faltantes));
+        }
+    }
+
+    // Deja la línea en el buffer sin el fin de línea; false al final del archivo
+    private boolean leerLinea() throws IOException {
+        linea.setLength(0);
+        truncada = false;
+        int caracter = entrada.read();
+        if (caracter == -1) {
+            return false;
+        }
+        while (caracter != -1 && caracter != '\n') {
+            if (linea.length() < LARGO_MAXIMO) {
+                linea.append((char) caracter);
+            } else {
+                truncada = true;
+            }
+            caracter = entrada.read();
+        }
+        if (!linea.isEmpty() && linea.charAt(linea.length() - 1) == '\r') {
+            linea.setLength(linea.length() - 1);
+        }
+        numeroLinea++;
+        return true;
+    }
+
+    private Fila filaCsv() {
+        try {
+            List<String> valores = separar(linea);
+            CuentaDto cuenta = new CuentaDto();
+            cuenta.setNumeroCuenta(valor(valores, "numeroCuenta"));
+            cuenta.setTipoCuenta(valor(valores, "tipoCuenta"));
+            String saldoInicial = valor(valores, "saldoInicial");
+            cuenta.setSaldoInicial(saldoInicial == null ? null : numero(saldoInicial, "saldoInicial"));
+            String estado = valor(valores, "estado");
+            cuenta.setEstado(estado == null ? null : booleano(estado));
+            String clienteId = valor(valores, "clienteId");
+            cuenta.setClienteId(clienteId == null ? null : entero(clienteId));
+            return new Fila(numeroLinea, cuenta, null);
+        } catch (IllegalArgumentException e) {
+            return new Fila(numeroLinea, null, e.getMessage());
+        }
+    }
+
+    private Fila filaNdjson() {
+        try {
+            CuentaDto leida = objectMapper.readValue(linea.toString(), CuentaDto.class);
+            if (leida == null) {
+                return new Fila(numeroLinea, null, "JSON inválido: se esperaba un objeto");
+            }
+            // Solo los campos de alta: un id, saldo actual o versión en el archivo no se respetan
+            CuentaDto cuenta = new CuentaDto();
+            cuenta.setNumeroCuenta(leida.getNumeroCuenta());
+            cuenta.setTipoCuenta(leida.getTipoCuenta());
+            cuenta.setSaldoInicial(leida.getSaldoInicial());
+            cuenta.setEstado(leida.getEstado());
+            cuenta.setClienteId(leida.getClienteId());
+            return new Fila(numeroLinea, cuenta, null);
+        } catch (JsonProcessingException e) {
+            return new Fila(numeroLinea, null, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private String valor(List<String> valores, String columna) {
+        int indice = columnas.get(columna.toLowerCase(Locale.ROOT));
+        if (indice >= valores.size() || valores.get(indice).isEmpty()) {
+            return null;
+        }
+        return valores.get(indice);
+    }
+
+    private static BigDecimal numero(String valor, String columna) {
+        try {
+            return new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + ": '" + valor + "' no es un número");
+        }
+    }
+
+    private static Long entero(String valor) {
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("clienteId: '" + valor + "' no es un número entero");
+        }
+    }
+
+    private static Boolean booleano(String valor) {
+        if ("true".equalsIgnoreCase(valor)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(valor)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("estado: '" + valor + "' debe ser true o false");
+    }
+
+    /**
+     * Separa una línea CSV por comas. Un campo entre comillas dobles puede contener comas
+     * y {@code ""} representa una comilla; no se admiten saltos de línea dentro de un campo.
+     */
+    static List<String> separar(CharSequence linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char caracter = linea.charAt(i);
+            if (entreComillas) {
+                if (caracter != '"') {
+                    campo.append(caracter);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (caracter == '"') {
+                entreComillas = true;
+            } else if (caracter == ',') {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(caracter);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+}
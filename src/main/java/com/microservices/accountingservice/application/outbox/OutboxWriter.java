@@ -0,0 +1,72 @@
+package com.microservices.accountingservice.application.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.domain.entity.EventoOutbox;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.event.EventoCodec;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import com.microservices.accountingservice.domain.repository.EventoOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * Guarda en la tabla outbox los eventos de cuentas y movimientos justo antes de
+ * confirmar la transacción que los produjo: se publican solo si el cambio se confirma
+ * y la contabilización no espera a Kafka.
+ *
+ * <p>El formato se elige con {@code accounting.eventos.formato}: {@code json} mientras
+ * haya consumidores que solo lean JSON, {@code binario} (ver {@link EventoCodec}) cuando
+ * todos usen un deserializador que acepte ambos.
+ */
+@Component
+@Slf4j
+public class OutboxWriter {
+
+    public static final String TOPICO_CUENTAS = "cuenta-events";
+    public static final String TOPICO_MOVIMIENTOS = "movimiento-events";
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final EventoCodec eventoCodec;
+    private final boolean binario;
+
+    public OutboxWriter(EventoOutboxRepository eventoOutboxRepository,
+                        ObjectMapper objectMapper,
+                        EventoCodec eventoCodec,
+                        @Value("${accounting.eventos.formato:json}") String formato) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.eventoCodec = eventoCodec;
+        this.binario = "binario".equalsIgnoreCase(formato);
+        log.info("Eventos de cuentas y movimientos en formato {}", binario ? "binario" : "JSON");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCuenta(CuentaEvent evento) {
+        guardar(TOPICO_CUENTAS, evento.getCuentaId(), evento.getEventType(), evento,
+            () -> eventoCodec.codificar(evento));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onMovimiento(MovimientoEvent evento) {
+        guardar(TOPICO_MOVIMIENTOS, evento.getCuentaId(), evento.getEventType(), evento,
+            () -> eventoCodec.codificar(evento));
+    }
+
+    private void guardar(String topico, Long cuentaId, String tipoEvento, Object evento,
+                         Supplier<byte[]> codificacionBinaria) {
+        try {
+            byte[] contenido = binario ? codificacionBinaria.get() : objectMapper.writeValueAsBytes(evento);
+            eventoOutboxRepository.save(new EventoOutbox(topico, String.valueOf(cuentaId), tipoEvento, contenido));
+        } catch (JsonProcessingException e) {
+            // Falla la transacción: un cambio sin su evento dejaría a los consumidores desfasados
+            throw new IllegalStateException("No se pudo serializar el evento " + tipoEvento + " de la cuenta " + cuentaId, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.microservices.accountingservice.application.posting;
+
+import com.microservices.accountingservice.domain.exception.ConflictoConcurrenciaException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Reintenta operaciones transaccionales que fallan por conflicto de versión de la
+ * cuenta. Cada intento debe abrir su propia transacción, por lo que el ejecutor
+ * no puede usarse dentro de una transacción activa. Entre intentos espera un
+ * backoff exponencial con jitter completo.
+ */
+@Component
+@Slf4j
+public class OptimisticRetryExecutor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxIntentos;
+    private final long backoffBaseMillis;
+    private final long backoffMaximoMillis;
+
+    public OptimisticRetryExecutor(MeterRegistry meterRegistry,
+                                   @Value("${accounting.concurrencia.max-intentos:5}") int maxIntentos,
+                                   @Value("${accounting.concurrencia.backoff-base-ms:5}") long backoffBaseMillis,
+                                   @Value("${accounting.concurrencia.backoff-maximo-ms:200}") long backoffMaximoMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxIntentos = Math.max(maxIntentos, 1);
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaximoMillis = backoffMaximoMillis;
+    }
+
+    public <T> T ejecutar(String operacion, Supplier<T> accion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Los reintentos optimistas deben iniciarse fuera de una transacción");
+        }
+
+        meterRegistry.counter("accounting.cuenta.version.operaciones", "operacion", operacion).increment();
+        for (int intento = 1; ; intento++) {
+            try {
+                T resultado = accion.get();
+                meterRegistry.summary("accounting.cuenta.version.intentos", "operacion", operacion).record(intento);
+                return resultado;
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("accounting.cuenta.version.conflictos", "operacion", operacion).increment();
+                if (intento >= maxIntentos) {
+                    meterRegistry.counter("accounting.cuenta.version.agotados", "operacion", operacion).increment();
+                    log.warn("Conflicto de versión persistente en {} tras {} intentos", operacion, intento);
+                    throw new ConflictoConcurrenciaException(
+                        "La cuenta fue modificada concurrentemente, intente nuevamente", e);
+                }
+                meterRegistry.counter("accounting.cuenta.version.reintentos", "operacion", operacion).increment();
+                log.debug("Conflicto de versión en {}, reintento {} de {}", operacion, intento, maxIntentos - 1);
+                esperar(operacion, intento);
+            }
+        }
+    }
+
+    private void esperar(String operacion, int intento) {
+        long techo = Math.min(backoffMaximoMillis, backoffBaseMillis << Math.min(intento - 1, 20));
+        long espera = ThreadLocalRandom.current().nextLong(techo + 1);
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        try {
+            TimeUnit.MILLISECONDS.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoConcurrenciaException("Reintento interrumpido", e);
+        } finally {
+            muestra.stop(meterRegistry.timer("accounting.cuenta.version.backoff", "operacion", operacion));
+        }
+    }
+}
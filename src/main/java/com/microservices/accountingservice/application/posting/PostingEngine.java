@@ -0,0 +1,151 @@
+package com.microservices.accountingservice.application.posting;
+
+import com.microservices.accountingservice.domain.exception.CuentaOcupadaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializa la contabilización de movimientos por cuenta. Cada cuenta se asigna a un
+ * carril (lock) de un conjunto fijo, de modo que los movimientos de una misma cuenta
+ * se aplican de a uno mientras que cuentas en carriles distintos avanzan en paralelo.
+ *
+ * <p>El carril debe tomarse fuera de la transacción y liberarse después del commit;
+ * por eso {@link #ejecutar} rechaza ser invocado con una transacción activa.</p>
+ */
+@Component
+@Slf4j
+public class PostingEngine {
+
+    private final ReentrantLock[] carriles;
+    private final int mascara;
+    private final long timeoutMillis;
+    private final Timer tiempoEspera;
+    private final Timer tiempoEjecucion;
+    private final Counter rechazos;
+
+    public PostingEngine(MeterRegistry meterRegistry,
+                         @Value("${accounting.posting.carriles:0}") int carriles,
+                         @Value("${accounting.posting.timeout-ms:5000}") long timeoutMillis) {
+        int cantidad = potenciaDeDos(carriles > 0 ? carriles : Runtime.getRuntime().availableProcessors() * 16);
+        this.carriles = new ReentrantLock[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.carriles[i] = new ReentrantLock();
+        }
+        this.mascara = cantidad - 1;
+        this.timeoutMillis = timeoutMillis;
+
+        this.tiempoEspera = Timer.builder("accounting.posting.espera")
+            .description("Tiempo de espera para obtener el carril de la cuenta")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.tiempoEjecucion = Timer.builder("accounting.posting.ejecucion")
+            .description("Tiempo durante el cual se retiene el carril de la cuenta")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rechazos = Counter.builder("accounting.posting.rechazos")
+            .description("Contabilizaciones rechazadas por agotar la espera del carril")
+            .register(meterRegistry);
+        Gauge.builder("accounting.posting.cola", this, PostingEngine::profundidadCola)
+            .description("Hilos esperando algún carril de contabilización")
+            .register(meterRegistry);
+        Gauge.builder("accounting.posting.cola.maxima", this, PostingEngine::profundidadMaximaCola)
+            .description("Hilos esperando el carril más congestionado")
+            .register(meterRegistry);
+        Gauge.builder("accounting.posting.carriles", this, engine -> engine.carriles.length)
+            .register(meterRegistry);
+    }
+
+    public <T> T ejecutar(Long cuentaId, Supplier<T> operacion) {
+        return ejecutarEnCarriles(new int[] { carril(cuentaId) }, operacion);
+    }
+
+    /**
+     * Toma los carriles de todas las cuentas indicadas, siempre en orden ascendente
+     * para evitar interbloqueos entre lotes que comparten cuentas.
+     */
+    public <T> T ejecutar(Collection<Long> cuentaIds, Supplier<T> operacion) {
+        int[] indices = cuentaIds.stream()
+            .mapToInt(this::carril)
+            .distinct()
+            .sorted()
+            .toArray();
+        return ejecutarEnCarriles(indices, operacion);
+    }
+
+    private <T> T ejecutarEnCarriles(int[] indices, Supplier<T> operacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Los carriles de contabilización deben tomarse fuera de una transacción");
+        }
+
+        long inicio = System.nanoTime();
+        int tomados = 0;
+        try {
+            for (int indice : indices) {
+                if (!carriles[indice].tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    rechazos.increment();
+                    throw new CuentaOcupadaException("La cuenta está procesando otros movimientos, intente nuevamente");
+                }
+                tomados++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            liberar(indices, tomados);
+            throw new CuentaOcupadaException("Contabilización interrumpida", e);
+        } catch (RuntimeException e) {
+            liberar(indices, tomados);
+            throw e;
+        }
+
+        long adquirido = System.nanoTime();
+        tiempoEspera.record(adquirido - inicio, TimeUnit.NANOSECONDS);
+        try {
+            return operacion.get();
+        } finally {
+            tiempoEjecucion.record(System.nanoTime() - adquirido, TimeUnit.NANOSECONDS);
+            liberar(indices, tomados);
+        }
+    }
+
+    private void liberar(int[] indices, int tomados) {
+        for (int i = tomados - 1; i >= 0; i--) {
+            carriles[indices[i]].unlock();
+        }
+    }
+
+    private int carril(Long cuentaId) {
+        int h = Long.hashCode(cuentaId);
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private double profundidadCola() {
+        int total = 0;
+        for (ReentrantLock carril : carriles) {
+            total += carril.getQueueLength();
+        }
+        return total;
+    }
+
+    private double profundidadMaximaCola() {
+        int maxima = 0;
+        for (ReentrantLock carril : carriles) {
+            maxima = Math.max(maxima, carril.getQueueLength());
+        }
+        return maxima;
+    }
+
+    private static int potenciaDeDos(int valor) {
+        int resultado = Integer.highestOneBit(Math.max(valor, 1));
+        return resultado < valor ? resultado << 1 : resultado;
+    }
+}
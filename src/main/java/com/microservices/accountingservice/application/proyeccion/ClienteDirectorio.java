@@ -0,0 +1,54 @@
+package com.microservices.accountingservice.application.proyeccion;
+
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import com.microservices.accountingservice.domain.repository.ClienteProyeccionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Proyección en memoria de los clientes, respaldada por la tabla clientes_proyeccion.
+ * Se carga completa al arrancar, antes de que empiecen a consumirse eventos, y luego
+ * la actualiza {@link com.microservices.accountingservice.application.service.ClienteProyeccionService}
+ * tras confirmar cada cambio en la tabla.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteDirectorio {
+
+    private final ClienteProyeccionRepository clienteProyeccionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, ClienteResumen> clientes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void cargar() {
+        long inicio = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ClienteResumen> resumenes = clienteProyeccionRepository.streamResumenes()) {
+                resumenes.forEach(resumen -> clientes.put(resumen.clienteId(), resumen));
+            }
+        });
+        meterRegistry.gaugeMapSize("accounting.clientes.proyeccion.tamano", Tags.empty(), clientes);
+        log.info("Proyección de clientes cargada: {} clientes en {} ms",
+                clientes.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public Optional<ClienteResumen> buscar(Long clienteId) {
+        return Optional.ofNullable(clientes.get(clienteId));
+    }
+
+    public void registrar(ClienteResumen resumen) {
+        clientes.put(resumen.clienteId(), resumen);
+    }
+}
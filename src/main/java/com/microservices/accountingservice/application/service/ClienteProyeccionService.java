@@ -0,0 +1,155 @@
+package com.microservices.accountingservice.application.service;
+
+import com.microservices.accountingservice.application.proyeccion.ClienteDirectorio;
+import com.microservices.accountingservice.domain.entity.ClienteProyeccion;
+import com.microservices.accountingservice.domain.entity.ProyeccionOffset;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import com.microservices.accountingservice.domain.repository.ClienteProyeccionRepository;
+import com.microservices.accountingservice.domain.repository.ProyeccionOffsetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica los eventos del servicio de clientes a la proyección local. Cada lote se
+ * guarda junto con sus offsets en una sola transacción, de modo que al reiniciar se
+ * retoma el tópico justo después del último evento aplicado y los eventos repetidos
+ * se descartan.
+ *
+ * <p>Cada instancia consume todas las particiones, pero la tabla y sus offsets son
+ * compartidos: la primera que confirma un lote lo aplica y las demás lo encuentran ya
+ * aplicado. Aun así, todas refrescan su {@link ClienteDirectorio} y sus reportes en
+ * caché con cada evento recibido, leyendo los clientes de la tabla.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteProyeccionService {
+
+    private final ClienteProyeccionRepository clienteProyeccionRepository;
+    private final ProyeccionOffsetRepository proyeccionOffsetRepository;
+    private final ClienteDirectorio clienteDirectorio;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Evento de cliente con su posición en el tópico.
+     */
+    public record EventoCliente(ClienteEvent evento, String topico, int particion, long offset) {
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Integer, Long> obtenerOffsets(String topico) {
+        return proyeccionOffsetRepository.findByTopico(topico).stream()
+            .collect(Collectors.toMap(ProyeccionOffset::getParticion, ProyeccionOffset::getUltimoOffset));
+    }
+
+    /**
+     * Aplica un lote de eventos con una lectura de los clientes afectados, una escritura
+     * en bloque y una sola transacción. Devuelve la cantidad de eventos aplicados.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int aplicarLote(List<EventoCliente> eventos) {
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, ClienteEvent> ultimosEventos = new LinkedHashMap<>();
+        List<EventoCliente> pendientes = new ArrayList<>(eventos.size());
+        List<ClienteResumen> resumenes;
+        try {
+            resumenes = transactionTemplate.execute(status -> proyectar(eventos, pendientes, ultimosEventos));
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // Otra instancia aplicó a la vez el primer lote de una partición: sin fila de offset
+            // que bloquear, las dos insertan (clave duplicada o, en MySQL, interbloqueo por los
+            // bloqueos de hueco). En el reintento la fila ya existe y el lote se ve aplicado
+            log.debug("Lote de cliente-events aplicado a la vez por otra instancia; se reintenta");
+            pendientes.clear();
+            ultimosEventos.clear();
+            resumenes = transactionTemplate.execute(status -> proyectar(eventos, pendientes, ultimosEventos));
+        }
+
+        resumenes.forEach(clienteDirectorio::registrar);
+        // Los reportes en caché muestran el nombre del cliente; basta el último evento de cada uno
+        ultimosEventos.values().forEach(eventPublisher::publishEvent);
+
+        log.debug("Lote de eventos de cliente aplicado: {} de {} eventos, {} clientes",
+            pendientes.size(), eventos.size(), resumenes.size());
+        return pendientes.size();
+    }
+
+    private List<ClienteResumen> proyectar(List<EventoCliente> eventos, List<EventoCliente> pendientes,
+                                           Map<Long, ClienteEvent> ultimosEventos) {
+        Set<String> claves = eventos.stream()
+            .map(evento -> ProyeccionOffset.clave(evento.topico(), evento.particion()))
+            .collect(Collectors.toSet());
+        Map<String, ProyeccionOffset> offsets = proyeccionOffsetRepository.bloquear(claves).stream()
+            .collect(Collectors.toMap(ProyeccionOffset::getId, Function.identity()));
+
+        // Descartar los eventos ya aplicados; dentro de una partición llegan en orden
+        Map<String, ProyeccionOffset> offsetsModificados = new LinkedHashMap<>();
+        for (EventoCliente evento : eventos) {
+            String clave = ProyeccionOffset.clave(evento.topico(), evento.particion());
+            ProyeccionOffset posicion = offsets.computeIfAbsent(clave,
+                k -> new ProyeccionOffset(k, evento.topico(), evento.particion(), -1L));
+            if (evento.offset() > posicion.getUltimoOffset()) {
+                posicion.setUltimoOffset(evento.offset());
+                offsetsModificados.put(clave, posicion);
+                pendientes.add(evento);
+            }
+            ultimosEventos.put(evento.evento().getClienteId(), evento.evento());
+        }
+
+        // También los clientes de eventos ya aplicados: el directorio de esta instancia no los vio
+        Map<Long, ClienteProyeccion> clientes = clienteProyeccionRepository.findAllById(ultimosEventos.keySet()).stream()
+            .collect(Collectors.toMap(ClienteProyeccion::getClienteId, Function.identity()));
+
+        Map<Long, ClienteProyeccion> modificados = new LinkedHashMap<>();
+        for (EventoCliente pendiente : pendientes) {
+            ClienteEvent evento = pendiente.evento();
+            ClienteProyeccion cliente = clientes.computeIfAbsent(evento.getClienteId(), ClienteProyeccion::new);
+            aplicarEvento(cliente, evento);
+            modificados.put(cliente.getClienteId(), cliente);
+        }
+
+        if (!modificados.isEmpty()) {
+            clienteProyeccionRepository.saveAll(modificados.values());
+            proyeccionOffsetRepository.saveAll(offsetsModificados.values());
+        }
+
+        return clientes.values().stream()
+            .map(cliente -> new ClienteResumen(cliente.getClienteId(), cliente.getNombre(),
+                cliente.getIdentificacion(), cliente.getEstado()))
+            .collect(Collectors.toList());
+    }
+
+    private void aplicarEvento(ClienteProyeccion cliente, ClienteEvent evento) {
+        // Los clientes eliminados se conservan inactivos para seguir mostrando su nombre
+        if ("DELETED".equals(evento.getEventType()) || "DEACTIVATED".equals(evento.getEventType())) {
+            cliente.setEstado(false);
+            return;
+        }
+        if (evento.getNombre() != null) {
+            cliente.setNombre(evento.getNombre());
+        }
+        if (evento.getIdentificacion() != null) {
+            cliente.setIdentificacion(evento.getIdentificacion());
+        }
+        cliente.setEstado(evento.getEstado() == null || evento.getEstado());
+    }
+}
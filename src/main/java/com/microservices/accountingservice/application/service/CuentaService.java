@@ -1,30 +1,77 @@
 package com.microservices.accountingservice.application.service;
 
+import com.microservices.accountingservice.application.archivo.ConsultaMovimientos;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.application.cache.CuentaCache;
+import com.microservices.accountingservice.application.importacion.LectorCuentas;
+import com.microservices.accountingservice.application.posting.OptimisticRetryExecutor;
+import com.microservices.accountingservice.application.proyeccion.ClienteDirectorio;
 import com.microservices.accountingservice.domain.dto.CuentaDto;
 import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.exception.ClienteNoDisponibleException;
 import com.microservices.accountingservice.domain.exception.CuentaAlreadyExistsException;
+import com.microservices.accountingservice.domain.exception.ConflictoConcurrenciaException;
 import com.microservices.accountingservice.domain.exception.CuentaNotFoundException;
 import com.microservices.accountingservice.domain.mapper.CuentaMapper;
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import com.microservices.accountingservice.domain.projection.CuentaMetadatos;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.SaldoCuenta;
 import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "accounting.servicio", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class CuentaService {
 
     private final CuentaRepository cuentaRepository;
+    private final ConsultaMovimientos consultaMovimientos;
     private final CuentaMapper cuentaMapper;
+    private final CuentaCache cuentaCache;
+    private final ClienteDirectorio clienteDirectorio;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${accounting.cuentas.importacion.tamano-bloque:1000}")
+    private int tamanoBloque;
 
     public CuentaDto crearCuenta(CuentaDto cuentaDto) {
         log.info("Creando cuenta con número: {}", cuentaDto.getNumeroCuenta());
+
+        validarCliente(cuentaDto.getClienteId());
         
         if (cuentaRepository.existsByNumeroCuenta(cuentaDto.getNumeroCuenta())) {
             throw new CuentaAlreadyExistsException(
@@ -34,54 +81,262 @@ public class CuentaService {
 
         Cuenta cuenta = cuentaMapper.toEntity(cuentaDto);
         Cuenta cuentaGuardada = cuentaRepository.save(cuenta);
+        eventPublisher.publishEvent(cuentaMapper.toEvent(cuentaGuardada, "CREATED"));
         
         log.info("Cuenta creada exitosamente con ID: {}", cuentaGuardada.getId());
         return cuentaMapper.toDto(cuentaGuardada);
     }
 
+    /**
+     * Valida el cliente contra la proyección local. Un cliente que aún no llegó por
+     * eventos se acepta, porque la proyección puede ir por detrás del servicio de clientes.
+     */
+    private void validarCliente(Long clienteId) {
+        Optional<ClienteResumen> cliente = clienteDirectorio.buscar(clienteId);
+        if (cliente.isEmpty()) {
+            log.warn("Cliente {} aún no está en la proyección local, se acepta la cuenta", clienteId);
+            return;
+        }
+        if (!cliente.get().estado()) {
+            throw new ClienteNoDisponibleException("El cliente está inactivo: " + clienteId);
+        }
+    }
+
+    /**
+     * Importa las cuentas de un archivo y escribe el avance como NDJSON mientras lee: una
+     * línea {@code ERROR} por cada línea rechazada, una {@code PROGRESO} al confirmar cada
+     * bloque y una {@code RESUMEN} al final. Las líneas se validan y se guardan en bloques
+     * de {@code tamano-bloque}, cada uno en su propia transacción, así que la memoria
+     * depende del bloque y no del tamaño del archivo.
+     *
+     * <p>Si un bloque falla, los anteriores quedan confirmados y el resumen indica la
+     * última línea importada. Volver a enviar el archivo es seguro: las cuentas que ya
+     * existen se rechazan con {@code CUENTA_ALREADY_EXISTS}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void importarCuentas(LectorCuentas lector, OutputStream salida) throws IOException {
+        log.info("Importando cuentas en bloques de {}", tamanoBloque);
+
+        long ultimaLinea = 0;
+        long creadas = 0;
+        long rechazadas = 0;
+        String fallo = null;
+        try (JsonGenerator generador = objectMapper.createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generador.setRootValueSeparator(new SerializedString("\n"));
+
+            List<LectorCuentas.Fila> bloque = new ArrayList<>(tamanoBloque);
+            try {
+                LectorCuentas.Fila fila = lector.siguiente();
+                while (fila != null || !bloque.isEmpty()) {
+                    if (fila != null) {
+                        bloque.add(fila);
+                        fila = lector.siguiente();
+                    }
+                    // El bloque se procesa cuando se llena o al llegar al final del archivo
+                    if (bloque.size() < tamanoBloque && fila != null) {
+                        continue;
+                    }
+
+                    List<RechazoImportacion> rechazos = new ArrayList<>();
+                    creadas += importarBloque(bloque, rechazos);
+                    rechazadas += rechazos.size();
+                    ultimaLinea = bloque.get(bloque.size() - 1).linea();
+                    bloque.clear();
+
+                    rechazos.sort(Comparator.comparingLong(RechazoImportacion::linea));
+                    for (RechazoImportacion rechazo : rechazos) {
+                        escribirRechazo(generador, rechazo);
+                        meterRegistry.counter("accounting.cuentas.importacion.rechazos", "codigo", rechazo.codigo()).increment();
+                    }
+                    generador.writeStartObject();
+                    generador.writeStringField("registro", "PROGRESO");
+                    generador.writeNumberField("ultimaLinea", ultimaLinea);
+                    generador.writeNumberField("creadas", creadas);
+                    generador.writeNumberField("rechazadas", rechazadas);
+                    generador.writeEndObject();
+                    generador.flush();
+                }
+            } catch (RuntimeException e) {
+                log.error("Importación de cuentas interrumpida después de la línea {}", ultimaLinea, e);
+                fallo = e.getMessage();
+            }
+
+            generador.writeStartObject();
+            generador.writeStringField("registro", "RESUMEN");
+            generador.writeNumberField("ultimaLinea", ultimaLinea);
+            generador.writeNumberField("creadas", creadas);
+            generador.writeNumberField("rechazadas", rechazadas);
+            generador.writeBooleanField("completa", fallo == null);
+            if (fallo != null) {
+                generador.writeStringField("mensaje", fallo);
+            }
+            generador.writeEndObject();
+            generador.writeRaw('\n');
+        }
+        meterRegistry.counter("accounting.cuentas.importacion.creadas").increment(creadas);
+
+        log.info("Importación de cuentas {}: {} creadas, {} rechazadas hasta la línea {}",
+            fallo == null ? "terminada" : "interrumpida", creadas, rechazadas, ultimaLinea);
+    }
+
+    /**
+     * Valida las filas del bloque en memoria y guarda las válidas; agrega los rechazos a
+     * la lista y devuelve la cantidad de cuentas creadas.
+     */
+    private int importarBloque(List<LectorCuentas.Fila> bloque, List<RechazoImportacion> rechazos) {
+        Map<String, LectorCuentas.Fila> candidatas = new LinkedHashMap<>();
+        for (LectorCuentas.Fila fila : bloque) {
+            if (fila.error() != null) {
+                rechazos.add(new RechazoImportacion(fila.linea(), null, "FORMATO_INVALIDO", fila.error()));
+                continue;
+            }
+
+            CuentaDto cuenta = fila.cuenta();
+            Set<ConstraintViolation<CuentaDto>> violaciones = validator.validate(cuenta);
+            if (!violaciones.isEmpty()) {
+                String mensaje = violaciones.stream()
+                    .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+                rechazos.add(new RechazoImportacion(fila.linea(), cuenta.getNumeroCuenta(), "VALIDATION_ERROR", mensaje));
+                continue;
+            }
+
+            // Igual que validarCliente, sin registrar un aviso por cada línea de un cliente que aún no llegó
+            boolean clienteInactivo = clienteDirectorio.buscar(cuenta.getClienteId())
+                .map(cliente -> !cliente.estado())
+                .orElse(false);
+            if (clienteInactivo) {
+                rechazos.add(new RechazoImportacion(fila.linea(), cuenta.getNumeroCuenta(), "CLIENTE_NO_DISPONIBLE",
+                    "El cliente está inactivo: " + cuenta.getClienteId()));
+                continue;
+            }
+
+            LectorCuentas.Fila anterior = candidatas.putIfAbsent(cuenta.getNumeroCuenta(), fila);
+            if (anterior != null) {
+                rechazos.add(new RechazoImportacion(fila.linea(), cuenta.getNumeroCuenta(), "CUENTA_ALREADY_EXISTS",
+                    "El número de cuenta se repite en la línea " + anterior.linea()));
+            }
+        }
+
+        if (candidatas.isEmpty()) {
+            return 0;
+        }
+        List<RechazoImportacion> existentes;
+        try {
+            existentes = transactionTemplate.execute(status -> guardarBloque(candidatas));
+        } catch (DataIntegrityViolationException e) {
+            // Otra operación creó uno de los números entre la consulta y el insert: al repetir
+            // el bloque la consulta lo encuentra y se rechaza solo esa línea
+            log.warn("Conflicto de unicidad al importar un bloque de cuentas, se repite: {}", e.getMessage());
+            existentes = transactionTemplate.execute(status -> guardarBloque(candidatas));
+        }
+        rechazos.addAll(existentes);
+        return candidatas.size() - existentes.size();
+    }
+
+    // Una consulta para la unicidad de todo el bloque y los inserts en lotes JDBC
+    private List<RechazoImportacion> guardarBloque(Map<String, LectorCuentas.Fila> candidatas) {
+        Set<String> existentes = cuentaRepository.findNumerosCuentaExistentes(candidatas.keySet());
+        List<RechazoImportacion> rechazos = new ArrayList<>();
+        List<Cuenta> nuevas = new ArrayList<>(candidatas.size());
+        candidatas.forEach((numeroCuenta, fila) -> {
+            if (existentes.contains(numeroCuenta)) {
+                rechazos.add(new RechazoImportacion(fila.linea(), numeroCuenta, "CUENTA_ALREADY_EXISTS",
+                    "Ya existe una cuenta con el número: " + numeroCuenta));
+            } else {
+                nuevas.add(cuentaMapper.toEntity(fila.cuenta()));
+            }
+        });
+
+        for (Cuenta cuenta : cuentaRepository.saveAll(nuevas)) {
+            eventPublisher.publishEvent(cuentaMapper.toEvent(cuenta, "CREATED"));
+        }
+        return rechazos;
+    }
+
+    private static void escribirRechazo(JsonGenerator generador, RechazoImportacion rechazo) throws IOException {
+        generador.writeStartObject();
+        generador.writeStringField("registro", "ERROR");
+        generador.writeNumberField("linea", rechazo.linea());
+        if (rechazo.numeroCuenta() != null) {
+            generador.writeStringField("numeroCuenta", rechazo.numeroCuenta());
+        }
+        generador.writeStringField("codigoError", rechazo.codigo());
+        generador.writeStringField("mensaje", rechazo.mensaje());
+        generador.writeEndObject();
+    }
+
+    private record RechazoImportacion(long linea, String numeroCuenta, String codigo, String mensaje) {
+    }
+
     @Transactional(readOnly = true)
     public List<CuentaDto> obtenerTodasLasCuentas() {
         log.info("Obteniendo todas las cuentas");
-        List<Cuenta> cuentas = cuentaRepository.findAll();
-        return cuentaMapper.toDtoList(cuentas);
+        List<CuentaVista> cuentas = cuentaRepository.findAllVistas();
+        return cuentaMapper.vistasToDtoList(cuentas);
     }
 
     @Transactional(readOnly = true)
     public List<CuentaDto> obtenerCuentasActivas() {
         log.info("Obteniendo cuentas activas");
-        List<Cuenta> cuentas = cuentaRepository.findAllActiveAccounts();
-        return cuentaMapper.toDtoList(cuentas);
+        List<CuentaVista> cuentas = cuentaRepository.findVistasActivas();
+        return cuentaMapper.vistasToDtoList(cuentas);
     }
 
     @Transactional(readOnly = true)
     public List<CuentaDto> obtenerCuentasPorCliente(Long clienteId) {
         log.info("Obteniendo cuentas del cliente: {}", clienteId);
-        List<Cuenta> cuentas = cuentaRepository.findByClienteIdAndEstadoTrue(clienteId);
-        return cuentaMapper.toDtoList(cuentas);
+        List<CuentaVista> cuentas = cuentaRepository.findVistasByClienteIdAndEstadoTrue(clienteId);
+        return cuentaMapper.vistasToDtoList(cuentas);
     }
 
     @Transactional(readOnly = true)
     public CuentaDto obtenerCuentaPorId(Long id) {
         log.info("Obteniendo cuenta por ID: {}", id);
-        Cuenta cuenta = cuentaRepository.findById(id)
+        CuentaMetadatos cuenta = cuentaCache.obtener(id)
             .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + id));
-        return cuentaMapper.toDto(cuenta);
+        return conSaldo(cuenta);
     }
 
     @Transactional(readOnly = true)
     public CuentaDto obtenerCuentaPorNumero(String numeroCuenta) {
         log.info("Obteniendo cuenta por número: {}", numeroCuenta);
-        Cuenta cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta)
+        CuentaMetadatos cuenta = cuentaCache.obtenerPorNumero(numeroCuenta)
             .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con número: " + numeroCuenta));
-        return cuentaMapper.toDto(cuenta);
+        return conSaldo(cuenta);
+    }
+
+    // Los metadatos pueden venir de caché; el saldo y la versión siempre se leen de la base
+    private CuentaDto conSaldo(CuentaMetadatos cuenta) {
+        SaldoCuenta saldo = cuentaRepository.findSaldoById(cuenta.id())
+            .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + cuenta.id()));
+        return cuentaMapper.toDto(cuenta, saldo);
     }
 
+    /**
+     * La escritura es un compare-and-set sobre la versión de la cuenta: si otro proceso
+     * la modificó entre la lectura y el commit se reintenta con la versión vigente. Si el
+     * cliente envía la versión que leyó y ya no es la vigente se rechaza sin reintentar.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CuentaDto actualizarCuenta(Long id, CuentaDto cuentaDto) {
         log.info("Actualizando cuenta con ID: {}", id);
-        
+        return retryExecutor.ejecutar("actualizarCuenta",
+            () -> transactionTemplate.execute(status -> aplicarActualizacion(id, cuentaDto)));
+    }
+
+    private CuentaDto aplicarActualizacion(Long id, CuentaDto cuentaDto) {
         Cuenta cuentaExistente = cuentaRepository.findById(id)
             .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + id));
 
+        if (cuentaDto.getVersion() != null && !cuentaDto.getVersion().equals(cuentaExistente.getVersion())) {
+            throw new ConflictoConcurrenciaException(
+                "La cuenta fue modificada por otra operación, versión vigente: " + cuentaExistente.getVersion()
+            );
+        }
+
         // Verificar si el número de cuenta ya existe en otra cuenta
         if (!cuentaExistente.getNumeroCuenta().equals(cuentaDto.getNumeroCuenta()) &&
             cuentaRepository.existsByNumeroCuenta(cuentaDto.getNumeroCuenta())) {
@@ -90,21 +345,39 @@ public class CuentaService {
             );
         }
 
+        Long clienteAnterior = cuentaExistente.getClienteId();
         cuentaMapper.updateEntity(cuentaDto, cuentaExistente);
-        Cuenta cuentaActualizada = cuentaRepository.save(cuentaExistente);
+        Cuenta cuentaActualizada = cuentaRepository.saveAndFlush(cuentaExistente);
+
+        CuentaEvent evento = cuentaMapper.toEvent(cuentaActualizada, "UPDATED");
+        if (!clienteAnterior.equals(cuentaActualizada.getClienteId())) {
+            evento.setClienteIdAnterior(clienteAnterior);
+            // Después del flush: la fila de la cuenta queda bloqueada y ninguna contabilización
+            // concurrente puede insertar un movimiento con el cliente anterior
+            int reasignados = consultaMovimientos.reasignarCliente(id, cuentaActualizada.getClienteId());
+            log.info("Cuenta {} pasó del cliente {} al {}, {} movimientos reasignados",
+                id, clienteAnterior, cuentaActualizada.getClienteId(), reasignados);
+        }
+        eventPublisher.publishEvent(evento);
         
         log.info("Cuenta actualizada exitosamente con ID: {}", id);
         return cuentaMapper.toDto(cuentaActualizada);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CuentaDto desactivarCuenta(Long id) {
         log.info("Desactivando cuenta con ID: {}", id);
-        
+        return retryExecutor.ejecutar("desactivarCuenta",
+            () -> transactionTemplate.execute(status -> aplicarDesactivacion(id)));
+    }
+
+    private CuentaDto aplicarDesactivacion(Long id) {
         Cuenta cuenta = cuentaRepository.findById(id)
             .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + id));
         
         cuenta.setEstado(false);
-        Cuenta cuentaActualizada = cuentaRepository.save(cuenta);
+        Cuenta cuentaActualizada = cuentaRepository.saveAndFlush(cuenta);
+        eventPublisher.publishEvent(cuentaMapper.toEvent(cuentaActualizada, "DEACTIVATED"));
         
         log.info("Cuenta desactivada exitosamente con ID: {}", id);
         return cuentaMapper.toDto(cuentaActualizada);
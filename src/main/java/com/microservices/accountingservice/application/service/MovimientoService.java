@@ -1,108 +1,375 @@
 package com.microservices.accountingservice.application.service;
 
+import com.microservices.accountingservice.application.archivo.ConsultaMovimientos;
+import com.microservices.accountingservice.application.cache.CuentaCache;
+import com.microservices.accountingservice.application.idempotencia.RegistroIdempotencia;
+import com.microservices.accountingservice.application.posting.OptimisticRetryExecutor;
+import com.microservices.accountingservice.application.posting.PostingEngine;
+import com.microservices.accountingservice.domain.dto.CursorMovimiento;
+import com.microservices.accountingservice.domain.dto.LoteMovimientosResultadoDto;
+import com.microservices.accountingservice.domain.dto.LoteMovimientosResultadoDto.ItemResultadoDto;
 import com.microservices.accountingservice.domain.dto.MovimientoDto;
+import com.microservices.accountingservice.domain.dto.PaginaMovimientosDto;
 import com.microservices.accountingservice.domain.entity.Cuenta;
 import com.microservices.accountingservice.domain.entity.Movimiento;
 import com.microservices.accountingservice.domain.exception.CuentaNotFoundException;
+import com.microservices.accountingservice.domain.exception.LoteInvalidoException;
+import com.microservices.accountingservice.domain.exception.MovimientoArchivadoException;
+import com.microservices.accountingservice.domain.exception.MovimientoInmutableException;
 import com.microservices.accountingservice.domain.exception.MovimientoNotFoundException;
 import com.microservices.accountingservice.domain.exception.SaldoNoDisponibleException;
 import com.microservices.accountingservice.domain.mapper.MovimientoMapper;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.CuentaMetadatos;
+import com.microservices.accountingservice.domain.projection.MovimientoVista;
 import com.microservices.accountingservice.domain.repository.CuentaRepository;
 import com.microservices.accountingservice.domain.repository.MovimientoRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "accounting.servicio", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class MovimientoService {
 
     private final MovimientoRepository movimientoRepository;
+    private final ConsultaMovimientos consultaMovimientos;
     private final CuentaRepository cuentaRepository;
     private final MovimientoMapper movimientoMapper;
+    private final SaldoService saldoService;
+    private final SaldoDiarioService saldoDiarioService;
+    private final PostingEngine postingEngine;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CuentaCache cuentaCache;
+    private final RegistroIdempotencia registroIdempotencia;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
+    @Value("${accounting.movimientos.lote.max-items:5000}")
+    private int maxItemsLote;
+
+    @Value("${accounting.movimientos.paginacion.limite-defecto:50}")
+    private int limiteDefecto;
+
+    @Value("${accounting.movimientos.paginacion.limite-maximo:500}")
+    private int limiteMaximo;
+
+    /**
+     * Contabiliza el movimiento en el carril de su cuenta: la transacción se abre
+     * después de tomar el carril y se confirma antes de liberarlo, de modo que dos
+     * movimientos de la misma cuenta nunca leen el mismo saldo. La escritura del saldo
+     * es además un compare-and-set sobre la versión de la cuenta, que protege frente a
+     * escrituras de otras instancias y se reintenta ante conflicto.
+     *
+     * <p>Las cuentas inexistentes o inactivas se rechazan con los metadatos en caché, sin
+     * tomar el carril ni abrir transacción; la transacción vuelve a validar el estado.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MovimientoDto crearMovimiento(MovimientoDto movimientoDto) {
+        return crearMovimiento(movimientoDto, null);
+    }
+
+    /**
+     * Igual que {@link #crearMovimiento(MovimientoDto)}, pero con una clave de
+     * idempotencia: si ya se contabilizó un movimiento con la misma clave se devuelve ese
+     * movimiento sin tomar el carril ni tocar el saldo. La clave se guarda en la misma
+     * transacción que el movimiento; si dos solicitudes con la misma clave llegan a la
+     * vez, la segunda falla al confirmar y responde con el movimiento de la primera.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MovimientoDto crearMovimiento(MovimientoDto movimientoDto, String claveIdempotencia) {
         log.info("Creando movimiento de tipo: {} por valor: {}", 
                 movimientoDto.getTipoMovimiento(), movimientoDto.getValor());
-        
+
+        String huella = null;
+        if (claveIdempotencia != null) {
+            huella = registroIdempotencia.huella(claveIdempotencia, movimientoDto);
+            Optional<MovimientoDto> previo = registroIdempotencia.buscar(claveIdempotencia, huella);
+            if (previo.isPresent()) {
+                log.info("Movimiento ya contabilizado con la clave de idempotencia: {}", claveIdempotencia);
+                return previo.get();
+            }
+        }
+
+        CuentaMetadatos cuenta = cuentaCache.obtener(movimientoDto.getCuentaId())
+            .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + movimientoDto.getCuentaId()));
+        if (!cuenta.estado()) {
+            throw new CuentaNotFoundException("La cuenta está inactiva");
+        }
+
+        String huellaSolicitud = huella;
+        MovimientoDto creado;
+        try {
+            creado = postingEngine.ejecutar(movimientoDto.getCuentaId(),
+                () -> retryExecutor.ejecutar("crearMovimiento",
+                    () -> transactionTemplate.execute(status -> contabilizar(movimientoDto, claveIdempotencia, huellaSolicitud))));
+        } catch (DataIntegrityViolationException e) {
+            if (claveIdempotencia == null) {
+                throw e;
+            }
+            // La misma clave se confirmó en otra solicitud mientras esta esperaba
+            return registroIdempotencia.buscar(claveIdempotencia, huella).orElseThrow(() -> e);
+        }
+        if (claveIdempotencia != null) {
+            registroIdempotencia.recordar(claveIdempotencia, huella, creado);
+        }
+        return creado;
+    }
+
+    private MovimientoDto contabilizar(MovimientoDto movimientoDto, String claveIdempotencia, String huella) {
         Cuenta cuenta = cuentaRepository.findById(movimientoDto.getCuentaId())
             .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + movimientoDto.getCuentaId()));
 
+        Movimiento movimiento = aplicarMovimiento(cuenta, movimientoDto);
+        Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
+        cuentaRepository.save(cuenta);
+        if (claveIdempotencia != null) {
+            registroIdempotencia.registrar(claveIdempotencia, huella, movimientoGuardado);
+        }
+        saldoService.registrarCheckpointSiCorresponde(cuenta);
+        saldoDiarioService.registrar(List.of(movimientoGuardado));
+        eventPublisher.publishEvent(movimientoMapper.toEvent(movimientoGuardado, "CREATED"));
+        
+        log.info("Movimiento creado exitosamente con ID: {}, nuevo saldo: {}", 
+                movimientoGuardado.getId(), movimientoGuardado.getSaldo());
+        
+        return movimientoMapper.toDto(movimientoGuardado);
+    }
+
+    /**
+     * Contabiliza un lote de movimientos en una sola transacción. Los ítems se validan
+     * de forma individual y los que no pueden aplicarse se informan como rechazados sin
+     * abortar el resto. Las cuentas involucradas se cargan con una sola consulta y los
+     * inserts se envían en lotes JDBC.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LoteMovimientosResultadoDto crearMovimientosEnLote(List<MovimientoDto> movimientosDto) {
+        log.info("Creando lote de {} movimientos", movimientosDto.size());
+
+        if (movimientosDto.isEmpty() || movimientosDto.size() > maxItemsLote) {
+            throw new LoteInvalidoException("El lote debe contener entre 1 y " + maxItemsLote + " movimientos");
+        }
+
+        ItemResultadoDto[] resultados = new ItemResultadoDto[movimientosDto.size()];
+        List<Integer> indicesValidos = new ArrayList<>();
+        for (int i = 0; i < movimientosDto.size(); i++) {
+            MovimientoDto movimientoDto = movimientosDto.get(i);
+            if (movimientoDto == null) {
+                resultados[i] = ItemResultadoDto.rechazado(i, "VALIDATION_ERROR", "El movimiento es obligatorio");
+                continue;
+            }
+
+            Set<ConstraintViolation<MovimientoDto>> violaciones = validator.validate(movimientoDto);
+            if (!violaciones.isEmpty()) {
+                String mensaje = violaciones.stream()
+                    .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+                resultados[i] = ItemResultadoDto.rechazado(i, "VALIDATION_ERROR", mensaje);
+            } else {
+                indicesValidos.add(i);
+            }
+        }
+
+        if (!indicesValidos.isEmpty()) {
+            Set<Long> cuentaIds = indicesValidos.stream()
+                .map(i -> movimientosDto.get(i).getCuentaId())
+                .collect(Collectors.toCollection(TreeSet::new));
+
+            Map<Integer, ItemResultadoDto> contabilizados = postingEngine.ejecutar(cuentaIds,
+                () -> retryExecutor.ejecutar("crearMovimientosEnLote",
+                    () -> transactionTemplate.execute(status -> contabilizarLote(movimientosDto, indicesValidos, cuentaIds))));
+            contabilizados.forEach((indice, resultado) -> resultados[indice] = resultado);
+        }
+
+        // Los rechazos de un lote no pasan por el manejador global, que cuenta los del resto de la API;
+        // se cuentan sobre el resultado final para no repetir los de intentos reintentados
+        Arrays.stream(resultados)
+            .filter(r -> !"CREADO".equals(r.getEstado()))
+            .forEach(r -> meterRegistry.counter("accounting.movimientos.lote.rechazos", "codigo", r.getCodigoError()).increment());
+
+        int creados = (int) Arrays.stream(resultados).filter(r -> "CREADO".equals(r.getEstado())).count();
+        log.info("Lote procesado: {} movimientos creados, {} rechazados", creados, resultados.length - creados);
+
+        return new LoteMovimientosResultadoDto(resultados.length, creados, resultados.length - creados, Arrays.asList(resultados));
+    }
+
+    private Map<Integer, ItemResultadoDto> contabilizarLote(List<MovimientoDto> movimientosDto,
+                                                           List<Integer> indices,
+                                                           Set<Long> cuentaIds) {
+        Map<Long, Cuenta> cuentas = cuentaRepository.findAllById(cuentaIds).stream()
+            .collect(Collectors.toMap(Cuenta::getId, Function.identity()));
+
+        Map<Integer, ItemResultadoDto> resultados = new HashMap<>();
+        List<Movimiento> nuevos = new ArrayList<>();
+        List<Integer> indicesNuevos = new ArrayList<>();
+
+        // Los movimientos de cada cuenta se aplican en el orden en que llegaron en el lote
+        for (Integer indice : indices) {
+            MovimientoDto movimientoDto = movimientosDto.get(indice);
+            Cuenta cuenta = cuentas.get(movimientoDto.getCuentaId());
+            try {
+                if (cuenta == null) {
+                    throw new CuentaNotFoundException("Cuenta no encontrada con ID: " + movimientoDto.getCuentaId());
+                }
+                nuevos.add(aplicarMovimiento(cuenta, movimientoDto));
+                indicesNuevos.add(indice);
+                saldoService.registrarCheckpointSiCorresponde(cuenta);
+            } catch (CuentaNotFoundException e) {
+                resultados.put(indice, ItemResultadoDto.rechazado(indice, "CUENTA_NOT_FOUND", e.getMessage()));
+            } catch (SaldoNoDisponibleException e) {
+                resultados.put(indice, ItemResultadoDto.rechazado(indice, "SALDO_NO_DISPONIBLE", e.getMessage()));
+            }
+        }
+
+        List<Movimiento> guardados = movimientoRepository.saveAll(nuevos);
+        saldoDiarioService.registrar(guardados);
+        for (int i = 0; i < guardados.size(); i++) {
+            int indice = indicesNuevos.get(i);
+            eventPublisher.publishEvent(movimientoMapper.toEvent(guardados.get(i), "CREATED"));
+            resultados.put(indice, ItemResultadoDto.creado(indice, movimientoMapper.toDto(guardados.get(i))));
+        }
+        return resultados;
+    }
+
+    /**
+     * Valida el movimiento contra el estado y saldo de la cuenta, actualiza la cuenta en
+     * memoria y devuelve el movimiento listo para persistir.
+     */
+    private Movimiento aplicarMovimiento(Cuenta cuenta, MovimientoDto movimientoDto) {
         if (!cuenta.getEstado()) {
             throw new CuentaNotFoundException("La cuenta está inactiva");
         }
 
-        BigDecimal saldoActual = cuenta.getSaldoActual();
-        BigDecimal valorMovimiento = movimientoDto.getValor();
-        BigDecimal nuevoSaldo;
+        Dinero saldoActual = cuenta.getSaldoActual();
+        Dinero valorMovimiento = Dinero.de(movimientoDto.getValor());
+        Dinero nuevoSaldo;
 
         // Validar saldo disponible para retiros
         if ("Retiro".equals(movimientoDto.getTipoMovimiento())) {
-            if (saldoActual.compareTo(valorMovimiento) < 0) {
+            if (saldoActual.esMenorQue(valorMovimiento)) {
                 throw new SaldoNoDisponibleException("Saldo no disponible");
             }
-            nuevoSaldo = saldoActual.subtract(valorMovimiento);
+            nuevoSaldo = saldoActual.menos(valorMovimiento);
         } else { // Depósito
-            nuevoSaldo = saldoActual.add(valorMovimiento);
+            nuevoSaldo = saldoActual.mas(valorMovimiento);
         }
 
+        long secuencia = cuenta.getUltimaSecuencia() + 1;
+
         Movimiento movimiento = movimientoMapper.toEntity(movimientoDto);
         movimiento.setCuenta(cuenta);
         movimiento.setSaldo(nuevoSaldo);
+        movimiento.setSecuencia(secuencia);
         movimiento.setFecha(LocalDateTime.now());
-        movimiento.setClienteId(movimientoDto.getClienteId());
+        // Del cliente de la cuenta y no del DTO: las consultas por cliente filtran por esta columna
+        movimiento.setClienteId(cuenta.getClienteId());
 
-        Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
-        
-        // Actualizar saldo de la cuenta
+        // Actualizar saldo de la cuenta de forma incremental
         cuenta.setSaldoActual(nuevoSaldo);
-        cuentaRepository.save(cuenta);
-        
-        log.info("Movimiento creado exitosamente con ID: {}, nuevo saldo: {}", 
-                movimientoGuardado.getId(), nuevoSaldo);
-        
-        return movimientoMapper.toDto(movimientoGuardado);
+        cuenta.setUltimaSecuencia(secuencia);
+        return movimiento;
     }
 
     @Transactional(readOnly = true)
-    public List<MovimientoDto> obtenerTodosLosMovimientos() {
-        log.info("Obteniendo todos los movimientos");
-        List<Movimiento> movimientos = movimientoRepository.findAll();
-        return movimientoMapper.toDtoList(movimientos);
+    public PaginaMovimientosDto obtenerMovimientos(String cursor, Integer limite) {
+        log.info("Obteniendo página de movimientos");
+        CursorMovimiento posicion = CursorMovimiento.decodificar(cursor);
+        int tamano = tamanoPagina(limite);
+        List<MovimientoVista> movimientos = consultaMovimientos.findPaginaDespuesDe(
+            posicion.fecha(), posicion.id(), Limit.of(tamano + 1));
+        return paginar(movimientos, tamano);
     }
 
     @Transactional(readOnly = true)
-    public List<MovimientoDto> obtenerMovimientosPorCuenta(Long cuentaId) {
-        log.info("Obteniendo movimientos de la cuenta: {}", cuentaId);
-        List<Movimiento> movimientos = movimientoRepository.findByCuentaIdOrderByFechaDesc(cuentaId);
-        return movimientoMapper.toDtoList(movimientos);
+    public PaginaMovimientosDto obtenerMovimientosPorCuenta(Long cuentaId, String cursor, Integer limite) {
+        log.info("Obteniendo página de movimientos de la cuenta: {}", cuentaId);
+        CursorMovimiento posicion = CursorMovimiento.decodificar(cursor);
+        int tamano = tamanoPagina(limite);
+        List<MovimientoVista> movimientos = consultaMovimientos.findPaginaPorCuentaDespuesDe(
+            cuentaId, posicion.fecha(), posicion.id(), Limit.of(tamano + 1));
+        return paginar(movimientos, tamano);
     }
 
     @Transactional(readOnly = true)
-    public List<MovimientoDto> obtenerMovimientosPorCliente(Long clienteId) {
-        log.info("Obteniendo movimientos del cliente: {}", clienteId);
-        List<Movimiento> movimientos = movimientoRepository.findByClienteIdOrderByFechaDesc(clienteId);
-        return movimientoMapper.toDtoList(movimientos);
+    public PaginaMovimientosDto obtenerMovimientosPorCliente(Long clienteId, String cursor, Integer limite) {
+        log.info("Obteniendo página de movimientos del cliente: {}", clienteId);
+        CursorMovimiento posicion = CursorMovimiento.decodificar(cursor);
+        int tamano = tamanoPagina(limite);
+        List<MovimientoVista> movimientos = consultaMovimientos.findPaginaPorClienteDespuesDe(
+            clienteId, posicion.fecha(), posicion.id(), Limit.of(tamano + 1));
+        return paginar(movimientos, tamano);
     }
 
     @Transactional(readOnly = true)
-    public List<MovimientoDto> obtenerMovimientosPorClienteYFecha(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        log.info("Obteniendo movimientos del cliente: {} entre {} y {}", clienteId, fechaInicio, fechaFin);
-        List<Movimiento> movimientos = movimientoRepository.findByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin);
-        return movimientoMapper.toDtoList(movimientos);
+    public PaginaMovimientosDto obtenerMovimientosPorClienteYFecha(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                                    String cursor, Integer limite) {
+        log.info("Obteniendo página de movimientos del cliente: {} entre {} y {}", clienteId, fechaInicio, fechaFin);
+        // Sin cursor se parte del extremo superior del rango, que es inclusivo
+        CursorMovimiento posicion = cursor == null || cursor.isBlank()
+            ? new CursorMovimiento(fechaFin, Long.MAX_VALUE)
+            : CursorMovimiento.decodificar(cursor);
+        int tamano = tamanoPagina(limite);
+        List<MovimientoVista> movimientos = consultaMovimientos.findPaginaPorClienteYFechaDespuesDe(
+            clienteId, fechaInicio, posicion.fecha(), posicion.id(), Limit.of(tamano + 1));
+        return paginar(movimientos, tamano);
+    }
+
+    private int tamanoPagina(Integer limite) {
+        if (limite == null || limite <= 0) {
+            return limiteDefecto;
+        }
+        return Math.min(limite, limiteMaximo);
+    }
+
+    /**
+     * Las consultas piden un elemento más que el tamaño de página para saber si hay
+     * una página siguiente sin ejecutar un COUNT.
+     */
+    private PaginaMovimientosDto paginar(List<MovimientoVista> movimientos, int tamano) {
+        boolean hayMas = movimientos.size() > tamano;
+        List<MovimientoVista> pagina = hayMas ? movimientos.subList(0, tamano) : movimientos;
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            MovimientoVista ultimo = pagina.get(pagina.size() - 1);
+            siguienteCursor = new CursorMovimiento(ultimo.fecha(), ultimo.id()).codificar();
+        }
+        return new PaginaMovimientosDto(movimientoMapper.vistasToDtoList(pagina), tamano, hayMas, siguienteCursor);
     }
 
     @Transactional(readOnly = true)
     public MovimientoDto obtenerMovimientoPorId(Long id) {
         log.info("Obteniendo movimiento por ID: {}", id);
-        Movimiento movimiento = movimientoRepository.findById(id)
+        MovimientoVista movimiento = consultaMovimientos.findVistaById(id)
             .orElseThrow(() -> new MovimientoNotFoundException("Movimiento no encontrado con ID: " + id));
         return movimientoMapper.toDto(movimiento);
     }
@@ -111,16 +378,20 @@ public class MovimientoService {
         log.info("Actualizando movimiento con ID: {}", id);
         
         Movimiento movimientoExistente = movimientoRepository.findById(id)
-            .orElseThrow(() -> new MovimientoNotFoundException("Movimiento no encontrado con ID: " + id));
+            .orElseThrow(() -> consultaMovimientos.estaArchivado(id)
+                ? new MovimientoArchivadoException("El movimiento " + id + " está archivado y no se puede modificar")
+                : new MovimientoNotFoundException("Movimiento no encontrado con ID: " + id));
 
-        // Para actualizaciones, solo permitimos cambiar el tipo de movimiento
-        // El valor y saldo no se pueden modificar por integridad
-        movimientoExistente.setTipoMovimiento(movimientoDto.getTipoMovimiento());
-        
-        Movimiento movimientoActualizado = movimientoRepository.save(movimientoExistente);
+        // El tipo y el valor ya están en el saldo de la cuenta, en su saldo diario y en los
+        // checkpoints posteriores: un asiento se corrige con otro movimiento en sentido contrario
+        if (!movimientoExistente.getTipoMovimiento().equals(movimientoDto.getTipoMovimiento())
+                || !movimientoExistente.getValor().equals(Dinero.de(movimientoDto.getValor()))) {
+            throw new MovimientoInmutableException("El tipo y el valor del movimiento " + id
+                + " no se pueden modificar; registre un movimiento de reverso");
+        }
         
-        log.info("Movimiento actualizado exitosamente con ID: {}", id);
-        return movimientoMapper.toDto(movimientoActualizado);
+        log.info("Movimiento sin cambios con ID: {}", id);
+        return movimientoMapper.toDto(movimientoExistente);
     }
 
 }
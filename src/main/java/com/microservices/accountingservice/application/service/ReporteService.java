@@ -1,47 +1,135 @@
 package com.microservices.accountingservice.application.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.application.archivo.ConsultaMovimientos;
+import com.microservices.accountingservice.application.cache.ReporteCache;
+import com.microservices.accountingservice.application.proyeccion.ClienteDirectorio;
 import com.microservices.accountingservice.domain.dto.ReporteEstadoCuentaDto;
-import com.microservices.accountingservice.domain.entity.Cuenta;
-import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.MovimientoReporteFila;
 import com.microservices.accountingservice.domain.repository.CuentaRepository;
-import com.microservices.accountingservice.domain.repository.MovimientoRepository;
-import lombok.RequiredArgsConstructor;
+import com.microservices.accountingservice.infrastructure.datasource.ContextoRuteo;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
+@Timed(value = "accounting.servicio", histogram = true)
 @Slf4j
 @Transactional(readOnly = true)
 public class ReporteService {
 
     private final CuentaRepository cuentaRepository;
-    private final MovimientoRepository movimientoRepository;
+    private final ConsultaMovimientos consultaMovimientos;
+    private final SaldoDiarioService saldoDiarioService;
+    private final ObjectMapper objectMapper;
+    private final ReporteCache reporteCache;
+    private final ClienteDirectorio clienteDirectorio;
+    private final TransactionTemplate lecturaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer tiempoEnsamblado;
 
-    public ReporteEstadoCuentaDto generarReporteEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+    // Cantidad de líneas tras la cual se envía lo acumulado al cliente
+    private static final int LINEAS_POR_FLUSH = 500;
+
+    public ReporteService(CuentaRepository cuentaRepository,
+                          ConsultaMovimientos consultaMovimientos,
+                          SaldoDiarioService saldoDiarioService,
+                          ObjectMapper objectMapper,
+                          ReporteCache reporteCache,
+                          ClienteDirectorio clienteDirectorio,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.cuentaRepository = cuentaRepository;
+        this.consultaMovimientos = consultaMovimientos;
+        this.saldoDiarioService = saldoDiarioService;
+        this.objectMapper = objectMapper;
+        this.reporteCache = reporteCache;
+        this.clienteDirectorio = clienteDirectorio;
+        this.lecturaTemplate = new TransactionTemplate(transactionManager);
+        this.lecturaTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.tiempoEnsamblado = Timer.builder("accounting.reportes.ensamblado")
+            .description("Armado del DTO del reporte una vez leídas las filas, sin consultas")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Genera el reporte con los saldos de apertura y cierre y los totales del período por
+     * cuenta. El detalle de movimientos es opcional: sin él, el costo del reporte depende
+     * de la cantidad de días del rango y no de la cantidad de movimientos.
+     *
+     * <p>El reporte se sirve desde caché mientras no cambien las cuentas ni los
+     * movimientos del cliente; la consulta a la caché no abre transacción ni toma
+     * conexión. Al generarlo se lee de una réplica, salvo si el cliente se invalidó hace
+     * poco: entonces se lee de la primaria para no guardar en caché un reporte armado
+     * con una réplica que todavía no tiene el cambio.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReporteEstadoCuentaDto generarReporteEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                             boolean incluirMovimientos) {
+        return reporteCache.obtener(clienteId, fechaInicio, fechaFin, incluirMovimientos, () -> {
+            Supplier<ReporteEstadoCuentaDto> lectura = () -> lecturaTemplate.execute(
+                status -> construirReporte(clienteId, fechaInicio, fechaFin, incluirMovimientos));
+            return reporteCache.invalidadoRecientemente(clienteId)
+                ? lectura.get()
+                : ContextoRuteo.enLecturaReplica(lectura);
+        });
+    }
+
+    private ReporteEstadoCuentaDto construirReporte(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                    boolean incluirMovimientos) {
         log.info("Generando reporte de estado de cuenta para cliente: {} entre {} y {}", 
                 clienteId, fechaInicio, fechaFin);
 
         // Obtener cuentas del cliente
-        List<Cuenta> cuentas = cuentaRepository.findByClienteIdAndEstadoTrue(clienteId);
+        List<CuentaVista> cuentas = cuentaRepository.findVistasByClienteIdAndEstadoTrue(clienteId);
+        registrarFilas("cuentas", "json", cuentas.size());
         
         if (cuentas.isEmpty()) {
             log.warn("No se encontraron cuentas activas para el cliente: {}", clienteId);
             return new ReporteEstadoCuentaDto();
         }
 
+        Map<Long, SaldoDiarioService.ResumenPeriodo> resumenes =
+            saldoDiarioService.resumirPeriodo(clienteId, cuentas, fechaInicio, fechaFin);
+
         // Obtener movimientos del cliente en el rango de fechas
-        List<Movimiento> movimientos = movimientoRepository.findByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin);
+        List<MovimientoReporteFila> movimientos = incluirMovimientos
+            ? consultaMovimientos.findReporteByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin)
+            : List.of();
+        registrarFilas("movimientos", "json", movimientos.size());
+
+        Timer.Sample ensamblado = Timer.start(meterRegistry);
+        Map<Long, List<MovimientoReporteFila>> movimientosPorCuenta = movimientos.stream()
+            .collect(Collectors.groupingBy(MovimientoReporteFila::cuentaId));
 
         // Construir el reporte
         ReporteEstadoCuentaDto reporte = new ReporteEstadoCuentaDto();
         reporte.setClienteId(clienteId);
+        reporte.setNombreCliente(nombreCliente(clienteId));
         reporte.setFechaInicio(fechaInicio);
         reporte.setFechaFin(fechaFin);
 
@@ -49,23 +137,28 @@ public class ReporteService {
         List<ReporteEstadoCuentaDto.CuentaReporteDto> cuentasReporte = cuentas.stream()
             .map(cuenta -> {
                 ReporteEstadoCuentaDto.CuentaReporteDto cuentaReporte = new ReporteEstadoCuentaDto.CuentaReporteDto();
-                cuentaReporte.setCuentaId(cuenta.getId());
-                cuentaReporte.setNumeroCuenta(cuenta.getNumeroCuenta());
-                cuentaReporte.setTipoCuenta(cuenta.getTipoCuenta());
-                cuentaReporte.setSaldoInicial(cuenta.getSaldoInicial());
-                cuentaReporte.setSaldoActual(cuenta.getSaldoActual());
-                cuentaReporte.setEstado(cuenta.getEstado());
-
-                // Filtrar movimientos de esta cuenta en el rango de fechas
-                List<ReporteEstadoCuentaDto.MovimientoReporteDto> movimientosCuenta = movimientos.stream()
-                    .filter(mov -> mov.getCuenta().getId().equals(cuenta.getId()))
+                cuentaReporte.setCuentaId(cuenta.id());
+                cuentaReporte.setNumeroCuenta(cuenta.numeroCuenta());
+                cuentaReporte.setTipoCuenta(cuenta.tipoCuenta());
+                cuentaReporte.setSaldoInicial(cuenta.saldoInicial().aBigDecimal());
+                cuentaReporte.setSaldoActual(cuenta.saldoActual().aBigDecimal());
+                cuentaReporte.setEstado(cuenta.estado());
+                aplicarResumen(cuentaReporte, resumenes.get(cuenta.id()));
+
+                if (!incluirMovimientos) {
+                    return cuentaReporte;
+                }
+
+                // Movimientos de esta cuenta en el rango de fechas
+                List<ReporteEstadoCuentaDto.MovimientoReporteDto> movimientosCuenta = movimientosPorCuenta
+                    .getOrDefault(cuenta.id(), List.of()).stream()
                     .map(mov -> {
                         ReporteEstadoCuentaDto.MovimientoReporteDto movReporte = new ReporteEstadoCuentaDto.MovimientoReporteDto();
-                        movReporte.setMovimientoId(mov.getId());
-                        movReporte.setFecha(mov.getFecha());
-                        movReporte.setTipoMovimiento(mov.getTipoMovimiento());
-                        movReporte.setValor(mov.getValor());
-                        movReporte.setSaldo(mov.getSaldo());
+                        movReporte.setMovimientoId(mov.movimientoId());
+                        movReporte.setFecha(mov.fecha());
+                        movReporte.setTipoMovimiento(mov.tipoMovimiento());
+                        movReporte.setValor(mov.valor().aBigDecimal());
+                        movReporte.setSaldo(mov.saldo().aBigDecimal());
                         return movReporte;
                     })
                     .collect(Collectors.toList());
@@ -77,16 +170,159 @@ public class ReporteService {
 
         reporte.setCuentas(cuentasReporte);
 
-        // Calcular saldo total
-        BigDecimal saldoTotal = cuentas.stream()
-            .map(Cuenta::getSaldoActual)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        reporte.setSaldoTotal(saldoTotal);
+        reporte.setSaldoTotal(saldoTotal(cuentas).aBigDecimal());
+        ensamblado.stop(tiempoEnsamblado);
 
         log.info("Reporte generado exitosamente para cliente: {} con {} cuentas y {} movimientos", 
                 clienteId, cuentas.size(), movimientos.size());
 
         return reporte;
     }
-}
 
+    /**
+     * Filas devueltas por cada consulta de un reporte. Es un resumen y no un gauge: con
+     * reportes concurrentes un gauge solo mostraría el valor del último.
+     */
+    private void registrarFilas(String consulta, String formato, long filas) {
+        DistributionSummary.builder("accounting.reportes.filas")
+            .tags("consulta", consulta, "formato", formato)
+            .register(meterRegistry)
+            .record(filas);
+    }
+
+    /**
+     * Suma los centavos en un {@code long}; no crea objetos por cuenta.
+     */
+    private Dinero saldoTotal(List<CuentaVista> cuentas) {
+        long total = 0;
+        for (CuentaVista cuenta : cuentas) {
+            total = Math.addExact(total, cuenta.saldoActual().centavos());
+        }
+        return Dinero.deCentavos(total);
+    }
+
+    private String nombreCliente(Long clienteId) {
+        return clienteDirectorio.buscar(clienteId).map(ClienteResumen::nombre).orElse(null);
+    }
+
+    private void aplicarResumen(ReporteEstadoCuentaDto.CuentaReporteDto cuentaReporte,
+                                SaldoDiarioService.ResumenPeriodo resumen) {
+        cuentaReporte.setSaldoApertura(resumen.saldoApertura().aBigDecimal());
+        cuentaReporte.setSaldoCierre(resumen.saldoCierre().aBigDecimal());
+        cuentaReporte.setTotalDepositos(resumen.totalDepositos().aBigDecimal());
+        cuentaReporte.setTotalRetiros(resumen.totalRetiros().aBigDecimal());
+        cuentaReporte.setCantidadMovimientos(resumen.cantidadMovimientos());
+    }
+
+    /**
+     * Escribe el reporte como NDJSON a medida que se leen las filas: una línea de
+     * cabecera, una por cuenta seguida de sus movimientos y una de resumen. Los
+     * movimientos se recorren con un cursor de solo avance, así que la memoria usada
+     * no depende del rango de fechas.
+     */
+    public void escribirReporteEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                            boolean incluirMovimientos, OutputStream salida) throws IOException {
+        log.info("Generando reporte NDJSON de estado de cuenta para cliente: {} entre {} y {}",
+                clienteId, fechaInicio, fechaFin);
+
+        // Vienen ordenadas por ID, igual que las filas de movimientos
+        List<CuentaVista> cuentas = cuentaRepository.findVistasByClienteIdAndEstadoTrue(clienteId);
+        Map<Long, SaldoDiarioService.ResumenPeriodo> resumenes =
+            saldoDiarioService.resumirPeriodo(clienteId, cuentas, fechaInicio, fechaFin);
+
+        long cantidadMovimientos = 0;
+        try (JsonGenerator generador = objectMapper.createGenerator(salida);
+             Stream<MovimientoReporteFila> filas = incluirMovimientos
+                 ? consultaMovimientos.streamReporteByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin)
+                 : Stream.empty()) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generador.setRootValueSeparator(new SerializedString("\n"));
+
+            generador.writeStartObject();
+            generador.writeStringField("registro", "CABECERA");
+            generador.writeNumberField("clienteId", clienteId);
+            generador.writeStringField("nombreCliente", nombreCliente(clienteId));
+            generador.writeObjectField("fechaInicio", fechaInicio);
+            generador.writeObjectField("fechaFin", fechaFin);
+            generador.writeEndObject();
+
+            // Filas y cuentas vienen ordenadas por ID de cuenta: se intercalan en una sola pasada
+            int siguienteCuenta = 0;
+            Long cuentaActual = null;
+            Iterator<MovimientoReporteFila> iterador = filas.iterator();
+            while (iterador.hasNext()) {
+                MovimientoReporteFila fila = iterador.next();
+                while (siguienteCuenta < cuentas.size() && cuentas.get(siguienteCuenta).id() <= fila.cuentaId()) {
+                    CuentaVista cuenta = cuentas.get(siguienteCuenta++);
+                    escribirCuenta(generador, cuenta, resumenes.get(cuenta.id()));
+                    cuentaActual = cuenta.id();
+                }
+                if (!fila.cuentaId().equals(cuentaActual)) {
+                    continue; // Movimiento de una cuenta inactiva
+                }
+
+                escribirMovimiento(generador, fila);
+                if (++cantidadMovimientos % LINEAS_POR_FLUSH == 0) {
+                    generador.flush();
+                }
+            }
+            while (siguienteCuenta < cuentas.size()) {
+                CuentaVista cuenta = cuentas.get(siguienteCuenta++);
+                escribirCuenta(generador, cuenta, resumenes.get(cuenta.id()));
+            }
+
+            generador.writeStartObject();
+            generador.writeStringField("registro", "RESUMEN");
+            generador.writeNumberField("cantidadCuentas", cuentas.size());
+            generador.writeNumberField("cantidadMovimientos", cantidadMovimientos);
+            escribirMonto(generador, "saldoTotal", saldoTotal(cuentas));
+            generador.writeEndObject();
+            generador.writeRaw('\n');
+        }
+
+        registrarFilas("cuentas", "ndjson", cuentas.size());
+        registrarFilas("movimientos", "ndjson", cantidadMovimientos);
+
+        log.info("Reporte NDJSON generado para cliente: {} con {} cuentas y {} movimientos",
+                clienteId, cuentas.size(), cantidadMovimientos);
+    }
+
+    private void escribirCuenta(JsonGenerator generador, CuentaVista cuenta,
+                                SaldoDiarioService.ResumenPeriodo resumen) throws IOException {
+        generador.writeStartObject();
+        generador.writeStringField("registro", "CUENTA");
+        generador.writeNumberField("cuentaId", cuenta.id());
+        generador.writeStringField("numeroCuenta", cuenta.numeroCuenta());
+        generador.writeStringField("tipoCuenta", cuenta.tipoCuenta());
+        escribirMonto(generador, "saldoInicial", cuenta.saldoInicial());
+        escribirMonto(generador, "saldoActual", cuenta.saldoActual());
+        generador.writeBooleanField("estado", cuenta.estado());
+        escribirMonto(generador, "saldoApertura", resumen.saldoApertura());
+        escribirMonto(generador, "saldoCierre", resumen.saldoCierre());
+        escribirMonto(generador, "totalDepositos", resumen.totalDepositos());
+        escribirMonto(generador, "totalRetiros", resumen.totalRetiros());
+        generador.writeNumberField("cantidadMovimientos", resumen.cantidadMovimientos());
+        generador.writeEndObject();
+    }
+
+    private void escribirMovimiento(JsonGenerator generador, MovimientoReporteFila fila) throws IOException {
+        generador.writeStartObject();
+        generador.writeStringField("registro", "MOVIMIENTO");
+        generador.writeNumberField("cuentaId", fila.cuentaId());
+        generador.writeNumberField("movimientoId", fila.movimientoId());
+        generador.writeObjectField("fecha", fila.fecha());
+        generador.writeStringField("tipoMovimiento", fila.tipoMovimiento());
+        escribirMonto(generador, "valor", fila.valor());
+        escribirMonto(generador, "saldo", fila.saldo());
+        generador.writeEndObject();
+    }
+
+    /**
+     * Escribe el monto como número JSON directamente desde los centavos, sin pasar por
+     * {@code BigDecimal}.
+     */
+    private static void escribirMonto(JsonGenerator generador, String campo, Dinero monto) throws IOException {
+        generador.writeFieldName(campo);
+        generador.writeNumber(monto.toString());
+    }
+}
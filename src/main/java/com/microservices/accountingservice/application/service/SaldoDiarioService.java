@@ -0,0 +1,255 @@
+package com.microservices.accountingservice.application.service;
+
+import com.microservices.accountingservice.application.archivo.ConsultaMovimientos;
+import com.microservices.accountingservice.application.posting.PostingEngine;
+import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.entity.SaldoDiario;
+import com.microservices.accountingservice.domain.exception.CuentaNotFoundException;
+import com.microservices.accountingservice.domain.mapper.CuentaMapper;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.MovimientoReporteFila;
+import com.microservices.accountingservice.domain.projection.TotalesMovimientos;
+import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import com.microservices.accountingservice.domain.repository.SaldoDiarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene los agregados diarios de movimientos por cuenta y los usa para resumir un
+ * período sin recorrer todos sus movimientos: los días completos se leen de los
+ * agregados y solo los días de los extremos se calculan sobre los movimientos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SaldoDiarioService {
+
+    private final SaldoDiarioRepository saldoDiarioRepository;
+    private final ConsultaMovimientos consultaMovimientos;
+    private final CuentaRepository cuentaRepository;
+    private final PostingEngine postingEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final CuentaMapper cuentaMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Resumen de una cuenta en un período: saldo antes del primer movimiento del
+     * período, saldo después del último y totales de los movimientos incluidos.
+     */
+    public record ResumenPeriodo(
+        Dinero saldoApertura,
+        Dinero saldoCierre,
+        Dinero totalDepositos,
+        Dinero totalRetiros,
+        long cantidadMovimientos
+    ) {
+    }
+
+    private record ClaveDia(Long cuentaId, LocalDate fecha) {
+    }
+
+    /**
+     * Acumula los movimientos en los agregados de su día. Debe invocarse dentro de la
+     * transacción que contabiliza los movimientos, con estos en orden de secuencia.
+     */
+    public void registrar(List<Movimiento> movimientos) {
+        if (movimientos.isEmpty()) {
+            return;
+        }
+
+        Set<Long> cuentaIds = new HashSet<>();
+        Set<LocalDate> fechas = new HashSet<>();
+        for (Movimiento movimiento : movimientos) {
+            cuentaIds.add(movimiento.getCuenta().getId());
+            fechas.add(movimiento.getFecha().toLocalDate());
+        }
+
+        Map<ClaveDia, SaldoDiario> dias = saldoDiarioRepository.findByCuentaIdInAndFechaIn(cuentaIds, fechas).stream()
+            .collect(Collectors.toMap(dia -> new ClaveDia(dia.getCuentaId(), dia.getFecha()), Function.identity()));
+
+        Map<ClaveDia, SaldoDiario> modificados = new LinkedHashMap<>();
+        for (Movimiento movimiento : movimientos) {
+            ClaveDia clave = new ClaveDia(movimiento.getCuenta().getId(), movimiento.getFecha().toLocalDate());
+            SaldoDiario dia = dias.computeIfAbsent(clave, this::nuevoDia);
+            acumular(dia, movimiento.getTipoMovimiento(), movimiento.getValor(), movimiento.getSaldo());
+            modificados.put(clave, dia);
+        }
+        saldoDiarioRepository.saveAll(modificados.values());
+    }
+
+    /**
+     * Resume el período [fechaInicio, fechaFin] para cada una de las cuentas del cliente.
+     * Usa un número fijo de consultas: los agregados diarios cubren los días intermedios
+     * y los movimientos solo se agregan para el día inicial y el final.
+     *
+     * <p>Una cuenta con movimientos anteriores a su primer agregado (nunca reconstruida
+     * desde que existen los agregados) no puede usarlos: su apertura y sus totales se
+     * calculan sobre los movimientos hasta que se {@link #reconstruir reconstruya}.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ResumenPeriodo> resumirPeriodo(Long clienteId, Collection<CuentaVista> cuentas,
+                                                    LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (cuentas.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> cuentaIds = cuentas.stream().map(CuentaVista::id).collect(Collectors.toList());
+        LocalDate diaInicio = fechaInicio.toLocalDate();
+        LocalDate diaFin = fechaFin.toLocalDate();
+        LocalDateTime finExclusivo = fechaFin.plusNanos(1);
+
+        // Saldo al cierre del día anterior al período y neto del día inicial hasta fechaInicio
+        Map<Long, Dinero> cierresAnteriores = saldoDiarioRepository.findUltimosAnterioresA(cuentaIds, diaInicio).stream()
+            .collect(Collectors.toMap(SaldoDiario::getCuentaId, SaldoDiario::getSaldoCierre));
+        Map<Long, TotalesMovimientos> previos = porCuenta(
+            consultaMovimientos.sumarPorCuentaEntre(clienteId, diaInicio.atStartOfDay(), fechaInicio));
+
+        // Totales del período: extremos desde los movimientos, días intermedios desde los agregados
+        List<TotalesMovimientos> tramos = new ArrayList<>();
+        if (diaInicio.equals(diaFin)) {
+            tramos.addAll(consultaMovimientos.sumarPorCuentaEntre(clienteId, fechaInicio, finExclusivo));
+        } else if (diaInicio.isBefore(diaFin)) {
+            tramos.addAll(consultaMovimientos.sumarPorCuentaEntre(clienteId, fechaInicio, diaInicio.plusDays(1).atStartOfDay()));
+            tramos.addAll(saldoDiarioRepository.sumarEntreFechasExclusivas(cuentaIds, diaInicio, diaFin));
+            tramos.addAll(consultaMovimientos.sumarPorCuentaEntre(clienteId, diaFin.atStartOfDay(), finExclusivo));
+        }
+        Map<Long, TotalesMovimientos> totales = porCuenta(tramos);
+
+        // Cuentas sin agregados completos: apertura y totales salen de los movimientos. Una
+        // cuenta con un agregado anterior al período tiene completos todos los posteriores
+        List<Long> sinCierreAnterior = cuentaIds.stream()
+            .filter(cuentaId -> !cierresAnteriores.containsKey(cuentaId))
+            .toList();
+        Map<Long, LocalDateTime> sinAgregados = sinCierreAnterior.isEmpty()
+            ? Map.of()
+            : sinAgregadosCompletos(sinCierreAnterior);
+        Map<Long, TotalesMovimientos> historicos = Map.of();
+        Map<Long, TotalesMovimientos> delPeriodo = Map.of();
+        if (!sinAgregados.isEmpty()) {
+            log.debug("Resumen desde movimientos para cuentas sin agregados completos: {}", sinAgregados.keySet());
+            LocalDateTime primerMovimiento = Collections.min(sinAgregados.values());
+            if (primerMovimiento.isBefore(fechaInicio)) {
+                historicos = porCuenta(consultaMovimientos.sumarPorCuentaEntre(clienteId, primerMovimiento, fechaInicio));
+            }
+            delPeriodo = porCuenta(consultaMovimientos.sumarPorCuentaEntre(clienteId, fechaInicio, finExclusivo));
+        }
+
+        Map<Long, ResumenPeriodo> resumenes = new LinkedHashMap<>();
+        for (CuentaVista cuenta : cuentas) {
+            boolean desdeMovimientos = sinAgregados.containsKey(cuenta.id());
+            Dinero saldoApertura = desdeMovimientos
+                ? cuenta.saldoInicial()
+                : cierresAnteriores.getOrDefault(cuenta.id(), cuenta.saldoInicial());
+            TotalesMovimientos previo = (desdeMovimientos ? historicos : previos).get(cuenta.id());
+            if (previo != null) {
+                saldoApertura = saldoApertura.mas(previo.totalDepositos()).menos(previo.totalRetiros());
+            }
+
+            TotalesMovimientos total = (desdeMovimientos ? delPeriodo : totales).getOrDefault(cuenta.id(),
+                new TotalesMovimientos(cuenta.id(), Dinero.CERO, Dinero.CERO, 0L));
+            Dinero saldoCierre = saldoApertura.mas(total.totalDepositos()).menos(total.totalRetiros());
+
+            resumenes.put(cuenta.id(), new ResumenPeriodo(saldoApertura, saldoCierre,
+                total.totalDepositos(), total.totalRetiros(), total.cantidadMovimientos()));
+        }
+        return resumenes;
+    }
+
+    // Cuentas cuyo primer movimiento es de un día anterior a su primer agregado, con la
+    // fecha de ese movimiento. Ambas consultas van por índice: son una lectura por cuenta
+    private Map<Long, LocalDateTime> sinAgregadosCompletos(List<Long> cuentaIds) {
+        Map<Long, LocalDate> primerosAgregados = saldoDiarioRepository.findPrimerosByCuentaIdIn(cuentaIds).stream()
+            .collect(Collectors.toMap(SaldoDiario::getCuentaId, SaldoDiario::getFecha));
+        Map<Long, LocalDateTime> sinAgregados = new HashMap<>();
+        consultaMovimientos.findPrimerasFechas(cuentaIds).forEach((cuentaId, fecha) -> {
+            LocalDate primerAgregado = primerosAgregados.get(cuentaId);
+            if (primerAgregado == null || fecha.toLocalDate().isBefore(primerAgregado)) {
+                sinAgregados.put(cuentaId, fecha);
+            }
+        });
+        return sinAgregados;
+    }
+
+    /**
+     * Recalcula los agregados diarios de la cuenta a partir de sus movimientos. Sirve
+     * para cuentas con movimientos anteriores a la existencia de los agregados.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reconstruir(Long cuentaId) {
+        log.info("Reconstruyendo saldos diarios de la cuenta: {}", cuentaId);
+        Integer dias = postingEngine.ejecutar(cuentaId,
+            () -> transactionTemplate.execute(status -> reconstruirDias(cuentaId)));
+        log.info("Saldos diarios reconstruidos para cuenta: {}, días: {}", cuentaId, dias);
+        return dias;
+    }
+
+    private int reconstruirDias(Long cuentaId) {
+        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+            .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + cuentaId));
+        saldoDiarioRepository.deleteByCuentaId(cuentaId);
+
+        Map<LocalDate, SaldoDiario> dias = new LinkedHashMap<>();
+        try (Stream<MovimientoReporteFila> filas = consultaMovimientos.streamByCuentaId(cuentaId)) {
+            filas.forEach(fila -> {
+                SaldoDiario dia = dias.computeIfAbsent(fila.fecha().toLocalDate(),
+                    fecha -> nuevoDia(new ClaveDia(cuentaId, fecha)));
+                acumular(dia, fila.tipoMovimiento(), fila.valor(), fila.saldo());
+            });
+        }
+        saldoDiarioRepository.saveAll(dias.values());
+
+        // Los resúmenes de período de la cuenta pueden cambiar
+        eventPublisher.publishEvent(cuentaMapper.toEvent(cuenta, "UPDATED"));
+        return dias.size();
+    }
+
+    private SaldoDiario nuevoDia(ClaveDia clave) {
+        SaldoDiario dia = new SaldoDiario();
+        dia.setCuentaId(clave.cuentaId());
+        dia.setFecha(clave.fecha());
+        return dia;
+    }
+
+    private void acumular(SaldoDiario dia, String tipoMovimiento, Dinero valor, Dinero saldo) {
+        if ("Retiro".equals(tipoMovimiento)) {
+            dia.setTotalRetiros(dia.getTotalRetiros().mas(valor));
+        } else {
+            dia.setTotalDepositos(dia.getTotalDepositos().mas(valor));
+        }
+        dia.setCantidadMovimientos(dia.getCantidadMovimientos() + 1);
+        dia.setSaldoCierre(saldo);
+    }
+
+    private Map<Long, TotalesMovimientos> porCuenta(List<TotalesMovimientos> tramos) {
+        Map<Long, TotalesMovimientos> totales = new HashMap<>();
+        for (TotalesMovimientos tramo : tramos) {
+            totales.merge(tramo.cuentaId(), tramo, (a, b) -> new TotalesMovimientos(a.cuentaId(),
+                a.totalDepositos().mas(b.totalDepositos()),
+                a.totalRetiros().mas(b.totalRetiros()),
+                a.cantidadMovimientos() + b.cantidadMovimientos()));
+        }
+        return totales;
+    }
+}
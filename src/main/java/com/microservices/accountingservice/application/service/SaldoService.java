@@ -0,0 +1,140 @@
+package com.microservices.accountingservice.application.service;
+
+import com.microservices.accountingservice.application.archivo.ConsultaMovimientos;
+import com.microservices.accountingservice.application.posting.OptimisticRetryExecutor;
+import com.microservices.accountingservice.application.posting.PostingEngine;
+import com.microservices.accountingservice.domain.dto.VerificacionSaldoDto;
+import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.entity.SaldoCheckpoint;
+import com.microservices.accountingservice.domain.exception.CuentaNotFoundException;
+import com.microservices.accountingservice.domain.mapper.CuentaMapper;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import com.microservices.accountingservice.domain.repository.SaldoCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Mantiene los checkpoints de saldo de las cuentas. El saldo persistido en la cuenta
+ * es el autoritativo; los checkpoints permiten verificarlo o reconstruirlo aplicando
+ * solo los movimientos posteriores al último checkpoint.
+ */
+@Service
+@Slf4j
+@Transactional
+public class SaldoService {
+
+    private final CuentaRepository cuentaRepository;
+    private final ConsultaMovimientos consultaMovimientos;
+    private final SaldoCheckpointRepository saldoCheckpointRepository;
+    private final PostingEngine postingEngine;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final CuentaMapper cuentaMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long intervaloCheckpoint;
+
+    public SaldoService(CuentaRepository cuentaRepository,
+                        ConsultaMovimientos consultaMovimientos,
+                        SaldoCheckpointRepository saldoCheckpointRepository,
+                        PostingEngine postingEngine,
+                        OptimisticRetryExecutor retryExecutor,
+                        TransactionTemplate transactionTemplate,
+                        CuentaMapper cuentaMapper,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${accounting.saldo.checkpoint-intervalo:1000}") long intervaloCheckpoint) {
+        this.cuentaRepository = cuentaRepository;
+        this.consultaMovimientos = consultaMovimientos;
+        this.saldoCheckpointRepository = saldoCheckpointRepository;
+        this.postingEngine = postingEngine;
+        this.retryExecutor = retryExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.cuentaMapper = cuentaMapper;
+        this.eventPublisher = eventPublisher;
+        this.intervaloCheckpoint = intervaloCheckpoint;
+    }
+
+    /**
+     * Registra un checkpoint cada {@code intervaloCheckpoint} movimientos de la cuenta.
+     * Debe invocarse dentro de la transacción que contabiliza el movimiento.
+     */
+    public void registrarCheckpointSiCorresponde(Cuenta cuenta) {
+        Long secuencia = cuenta.getUltimaSecuencia();
+        if (secuencia == null || secuencia % intervaloCheckpoint != 0) {
+            return;
+        }
+
+        SaldoCheckpoint checkpoint = new SaldoCheckpoint();
+        checkpoint.setCuentaId(cuenta.getId());
+        checkpoint.setSecuencia(secuencia);
+        checkpoint.setSaldo(cuenta.getSaldoActual());
+        saldoCheckpointRepository.save(checkpoint);
+
+        log.debug("Checkpoint de saldo registrado para cuenta: {} en secuencia: {}", cuenta.getId(), secuencia);
+    }
+
+    @Transactional(readOnly = true)
+    public VerificacionSaldoDto verificarSaldo(Long cuentaId) {
+        log.info("Verificando saldo de la cuenta: {}", cuentaId);
+        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+            .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + cuentaId));
+        return verificar(cuenta);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public VerificacionSaldoDto reconstruirSaldo(Long cuentaId) {
+        log.info("Reconstruyendo saldo de la cuenta: {}", cuentaId);
+        return postingEngine.ejecutar(cuentaId,
+            () -> retryExecutor.ejecutar("reconstruirSaldo",
+                () -> transactionTemplate.execute(status -> reconstruir(cuentaId))));
+    }
+
+    private VerificacionSaldoDto reconstruir(Long cuentaId) {
+        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+            .orElseThrow(() -> new CuentaNotFoundException("Cuenta no encontrada con ID: " + cuentaId));
+
+        VerificacionSaldoDto verificacion = verificar(cuenta);
+        if (!verificacion.getConsistente()) {
+            log.warn("Saldo inconsistente en cuenta: {}, registrado: {}, calculado: {}",
+                    cuentaId, verificacion.getSaldoRegistrado(), verificacion.getSaldoCalculado());
+            cuenta.setSaldoActual(Dinero.de(verificacion.getSaldoCalculado()));
+            cuentaRepository.save(cuenta);
+            eventPublisher.publishEvent(cuentaMapper.toEvent(cuenta, "UPDATED"));
+        }
+        return verificacion;
+    }
+
+    private VerificacionSaldoDto verificar(Cuenta cuenta) {
+        Optional<SaldoCheckpoint> checkpoint = saldoCheckpointRepository.findFirstByCuentaIdOrderBySecuenciaDesc(cuenta.getId());
+
+        Dinero base;
+        BigDecimal cola;
+        if (checkpoint.isPresent()) {
+            base = checkpoint.get().getSaldo();
+            cola = consultaMovimientos.sumarValoresPorCuentaDesdeSecuencia(cuenta.getId(), checkpoint.get().getSecuencia());
+        } else {
+            base = cuenta.getSaldoInicial();
+            cola = consultaMovimientos.sumarValoresPorCuenta(cuenta.getId());
+        }
+
+        Dinero saldoCalculado = cola != null ? base.mas(Dinero.de(cola)) : base;
+        Dinero saldoRegistrado = cuenta.getSaldoActual();
+
+        return new VerificacionSaldoDto(
+            cuenta.getId(),
+            saldoRegistrado.aBigDecimal(),
+            saldoCalculado.aBigDecimal(),
+            saldoRegistrado.equals(saldoCalculado),
+            checkpoint.map(SaldoCheckpoint::getSecuencia).orElse(null),
+            cuenta.getUltimaSecuencia()
+        );
+    }
+}
@@ -23,8 +23,10 @@ public class CuentaDto {
     @Pattern(regexp = "^(Ahorros|Corriente)$", message = "El tipo de cuenta debe ser Ahorros o Corriente")
     private String tipoCuenta;
 
+    // Se fija en el alta; una actualización no lo modifica
     @NotNull(message = "El saldo inicial es obligatorio")
     @DecimalMin(value = "0.0", message = "El saldo inicial no puede ser negativo")
+    @Digits(integer = 13, fraction = 2, message = "El saldo inicial admite hasta 13 enteros y 2 decimales")
     private BigDecimal saldoInicial;
 
     @NotNull(message = "El estado es obligatorio")
@@ -33,7 +35,12 @@ public class CuentaDto {
     @NotNull(message = "El ID del cliente es obligatorio")
     private Long clienteId;
 
+    // Solo de salida: el saldo cambia con movimientos, nunca con el alta o la edición de la cuenta
+    @Digits(integer = 13, fraction = 2, message = "El saldo actual admite hasta 13 enteros y 2 decimales")
     private BigDecimal saldoActual;
+
+    // Versión leída por el cliente; si se envía en una actualización debe coincidir con la vigente
+    private Long version;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
 }
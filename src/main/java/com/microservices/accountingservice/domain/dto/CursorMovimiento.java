@@ -0,0 +1,38 @@
+package com.microservices.accountingservice.domain.dto;
+
+import com.microservices.accountingservice.domain.exception.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posición de continuación en un listado de movimientos ordenado por {@code (fecha, id)}
+ * descendente. Se expone al cliente como un token opaco.
+ */
+public record CursorMovimiento(LocalDateTime fecha, Long id) {
+
+    // Posición anterior a cualquier movimiento: la primera página usa la misma consulta que las siguientes
+    public static final CursorMovimiento INICIO = new CursorMovimiento(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public String codificar() {
+        String valor = fecha + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorMovimiento decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('_');
+            return new CursorMovimiento(
+                LocalDateTime.parse(valor.substring(0, separador)),
+                Long.parseLong(valor.substring(separador + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new CursorInvalidoException("El cursor de paginación no es válido", e);
+        }
+    }
+}
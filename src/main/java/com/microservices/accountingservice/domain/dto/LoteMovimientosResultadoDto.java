@@ -0,0 +1,37 @@
+package com.microservices.accountingservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteMovimientosResultadoDto {
+
+    private Integer total;
+    private Integer creados;
+    private Integer rechazados;
+    private List<ItemResultadoDto> resultados;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResultadoDto {
+        private Integer indice;
+        private String estado; // CREADO, RECHAZADO
+        private MovimientoDto movimiento;
+        private String codigoError;
+        private String mensaje;
+
+        public static ItemResultadoDto creado(int indice, MovimientoDto movimiento) {
+            return new ItemResultadoDto(indice, "CREADO", movimiento, null, null);
+        }
+
+        public static ItemResultadoDto rechazado(int indice, String codigoError, String mensaje) {
+            return new ItemResultadoDto(indice, "RECHAZADO", null, codigoError, mensaje);
+        }
+    }
+}
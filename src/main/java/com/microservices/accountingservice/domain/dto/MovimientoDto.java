@@ -24,9 +24,11 @@ public class MovimientoDto {
 
     @NotNull(message = "El valor es obligatorio")
     @DecimalMin(value = "0.01", message = "El valor debe ser mayor a 0")
+    @Digits(integer = 13, fraction = 2, message = "El valor admite hasta 13 enteros y 2 decimales")
     private BigDecimal valor;
 
     @NotNull(message = "El saldo es obligatorio")
+    @Digits(integer = 13, fraction = 2, message = "El saldo admite hasta 13 enteros y 2 decimales")
     private BigDecimal saldo;
 
     @NotNull(message = "El ID de la cuenta es obligatorio")
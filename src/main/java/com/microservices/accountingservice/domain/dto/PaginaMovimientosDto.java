@@ -0,0 +1,19 @@
+package com.microservices.accountingservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaMovimientosDto {
+
+    private List<MovimientoDto> movimientos;
+    private Integer limite;
+    private Boolean hayMas;
+    // Token a enviar como cursor para obtener la página siguiente; nulo en la última página
+    private String siguienteCursor;
+}
@@ -0,0 +1,14 @@
+package com.microservices.accountingservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconstruccionSaldosDiariosDto {
+
+    private Long cuentaId;
+    private Integer diasReconstruidos;
+}
@@ -30,6 +30,12 @@ public class ReporteEstadoCuentaDto {
         private BigDecimal saldoInicial;
         private BigDecimal saldoActual;
         private Boolean estado;
+        // Saldos antes y después del período y totales de sus movimientos
+        private BigDecimal saldoApertura;
+        private BigDecimal saldoCierre;
+        private BigDecimal totalDepositos;
+        private BigDecimal totalRetiros;
+        private Long cantidadMovimientos;
         private List<MovimientoReporteDto> movimientos;
     }
 
@@ -0,0 +1,20 @@
+package com.microservices.accountingservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificacionSaldoDto {
+
+    private Long cuentaId;
+    private BigDecimal saldoRegistrado;
+    private BigDecimal saldoCalculado;
+    private Boolean consistente;
+    private Long secuenciaCheckpoint;
+    private Long ultimaSecuencia;
+}
@@ -0,0 +1,72 @@
+package com.microservices.accountingservice.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave {@code Idempotency-Key} de un movimiento ya contabilizado. Se guarda en la misma
+ * transacción que el movimiento, así que existe si y solo si el movimiento existe.
+ */
+@Entity
+@Table(name = "claves_idempotencia", indexes = {
+    @Index(name = "idx_claves_idempotencia_expiracion", columnList = "fecha_expiracion")
+})
+@Data
+@NoArgsConstructor
+public class ClaveIdempotencia implements Persistable<String> {
+
+    @Id
+    @Column(name = "clave", length = 100)
+    private String clave;
+
+    // SHA-256 de la solicitud, para rechazar la misma clave con otro movimiento
+    @NotNull(message = "La huella es obligatoria")
+    @Column(name = "huella", nullable = false, length = 64)
+    private String huella;
+
+    @NotNull(message = "El movimiento es obligatorio")
+    @Column(name = "movimiento_id", nullable = false)
+    private Long movimientoId;
+
+    @NotNull(message = "La fecha de expiración es obligatoria")
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    // El ID es asignado: sin esta marca save() haría un SELECT previo por cada clave nueva
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean nueva = true;
+
+    public ClaveIdempotencia(String clave) {
+        this.clave = clave;
+    }
+
+    @Override
+    public String getId() {
+        return clave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void marcarExistente() {
+        nueva = false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.microservices.accountingservice.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia local de los datos de clientes que necesita este servicio, mantenida a partir
+ * de los eventos del servicio de clientes.
+ */
+@Entity
+@Table(name = "clientes_proyeccion")
+@Data
+@NoArgsConstructor
+public class ClienteProyeccion implements Persistable<Long> {
+
+    // Mismo ID que en el servicio de clientes
+    @Id
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    @Column(name = "identificacion", length = 20)
+    private String identificacion;
+
+    @Column(name = "nombre", length = 100)
+    private String nombre;
+
+    @NotNull(message = "El estado es obligatorio")
+    @Column(name = "estado", nullable = false)
+    private Boolean estado = true;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    // El ID es asignado: sin esta marca save() haría un SELECT previo por cada cliente nuevo
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean nuevo = true;
+
+    public ClienteProyeccion(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    @Override
+    public Long getId() {
+        return clienteId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void marcarExistente() {
+        nuevo = false;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        fechaActualizacion = LocalDateTime.now();
+    }
+}
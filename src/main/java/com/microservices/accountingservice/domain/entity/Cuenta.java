@@ -1,12 +1,14 @@
 package com.microservices.accountingservice.domain.entity;
 
+import com.microservices.accountingservice.domain.model.Dinero;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,7 +20,8 @@ import java.util.List;
 public class Cuenta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cuentas_seq")
+    @SequenceGenerator(name = "cuentas_seq", sequenceName = "cuentas_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El número de cuenta es obligatorio")
@@ -34,12 +37,12 @@ public class Cuenta {
     @NotNull(message = "El saldo inicial es obligatorio")
     @DecimalMin(value = "0.0", message = "El saldo inicial no puede ser negativo")
     @Column(name = "saldo_inicial", nullable = false, precision = 15, scale = 2)
-    private BigDecimal saldoInicial;
+    private Dinero saldoInicial;
 
     @NotNull(message = "El saldo actual es obligatorio")
     @DecimalMin(value = "0.0", message = "El saldo actual no puede ser negativo")
     @Column(name = "saldo_actual", nullable = false, precision = 15, scale = 2)
-    private BigDecimal saldoActual;
+    private Dinero saldoActual;
 
     @NotNull(message = "El estado es obligatorio")
     @Column(name = "estado", nullable = false)
@@ -49,6 +52,13 @@ public class Cuenta {
     @Column(name = "cliente_id", nullable = false)
     private Long clienteId;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "ultima_secuencia", nullable = false)
+    private Long ultimaSecuencia = 0L;
+
     @Column(name = "fecha_creacion", nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
 
@@ -56,6 +66,8 @@ public class Cuenta {
     private LocalDateTime fechaActualizacion;
 
     @OneToMany(mappedBy = "cuenta", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Movimiento> movimientos;
 
     @PrePersist
@@ -72,16 +84,13 @@ public class Cuenta {
         fechaActualizacion = LocalDateTime.now();
     }
 
-    public BigDecimal getSaldoActual() {
-        if (movimientos == null || movimientos.isEmpty()) {
-            return saldoInicial;
-        }
-        
-        BigDecimal totalMovimientos = movimientos.stream()
-            .map(Movimiento::getValor)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-        return saldoInicial.add(totalMovimientos);
+    /**
+     * El saldo persistido es la fuente de verdad y se mantiene de forma incremental
+     * en cada movimiento; nunca se recalcula desde el historial. Antes de persistir
+     * la cuenta el saldo actual coincide con el inicial.
+     */
+    public Dinero getSaldoActual() {
+        return saldoActual != null ? saldoActual : saldoInicial;
     }
 }
 
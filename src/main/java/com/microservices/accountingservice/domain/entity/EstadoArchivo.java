@@ -0,0 +1,41 @@
+package com.microservices.accountingservice.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado del archivo de movimientos; la tabla tiene una sola fila con {@link #UNICO}.
+ * La frontera es exclusiva: solo los movimientos con fecha anterior pueden estar
+ * archivados. {@code ultimaCuenta} es la posición de la pasada del archivador para esa
+ * frontera y {@code completo} indica que la pasada terminó.
+ */
+@Entity
+@Table(name = "archivo_movimientos_estado")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoArchivo {
+
+    public static final int UNICO = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "frontera")
+    private LocalDateTime frontera;
+
+    @Column(name = "ultima_cuenta_id", nullable = false)
+    private Long ultimaCuenta;
+
+    @Column(name = "completo", nullable = false)
+    private Boolean completo;
+
+    // Momento en que se publicó la frontera; el archivador no mueve filas hasta que todas
+    // las instancias la hayan leído
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+}
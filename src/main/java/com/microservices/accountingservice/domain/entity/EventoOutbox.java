@@ -0,0 +1,63 @@
+package com.microservices.accountingservice.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento pendiente de publicar en Kafka. Se escribe en la misma transacción que el
+ * cambio que lo origina y un proceso en segundo plano lo publica y lo elimina.
+ */
+@Entity
+@Table(name = "eventos_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoOutbox {
+
+    // El relay publica en orden de ID. Sin pool: con bloques de 50 por instancia, un evento
+    // posterior de la misma cuenta escrito en otra instancia podría tener un ID menor
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_outbox_seq")
+    @SequenceGenerator(name = "eventos_outbox_seq", sequenceName = "eventos_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    @NotNull(message = "El tópico es obligatorio")
+    @Column(name = "topico", nullable = false, length = 100)
+    private String topico;
+
+    // Clave del mensaje: el ID de la cuenta, para conservar el orden por cuenta
+    @NotNull(message = "La clave es obligatoria")
+    @Column(name = "clave", nullable = false, length = 50)
+    private String clave;
+
+    @NotNull(message = "El tipo de evento es obligatorio")
+    @Column(name = "tipo_evento", nullable = false, length = 20)
+    private String tipoEvento;
+
+    // Evento serializado en JSON o en el formato binario de EventoCodec
+    @NotNull(message = "El contenido es obligatorio")
+    // Con el largo por defecto (255) MySQL usaría TINYBLOB, corto para un evento en JSON
+    @Lob
+    @Column(name = "contenido", nullable = false, length = 65535)
+    private byte[] contenido;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    public EventoOutbox(String topico, String clave, String tipoEvento, byte[] contenido) {
+        this.topico = topico;
+        this.clave = clave;
+        this.tipoEvento = tipoEvento;
+        this.contenido = contenido;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+    }
+}
@@ -1,23 +1,32 @@
 package com.microservices.accountingservice.domain.entity;
 
+import com.microservices.accountingservice.domain.model.Dinero;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "movimientos")
+@Table(name = "movimientos", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_movimientos_cuenta_secuencia", columnNames = {"cuenta_id", "secuencia"})
+}, indexes = {
+    // Reportes y listados por cliente y por cuenta: rango de fechas y orden (fecha, id) sin ordenar
+    @Index(name = "idx_movimientos_cliente_fecha", columnList = "cliente_id, fecha, id"),
+    @Index(name = "idx_movimientos_cuenta_fecha", columnList = "cuenta_id, fecha, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Movimiento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_seq")
+    @SequenceGenerator(name = "movimientos_seq", sequenceName = "movimientos_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "La fecha es obligatoria")
@@ -32,18 +41,24 @@ public class Movimiento {
     @NotNull(message = "El valor es obligatorio")
     @DecimalMin(value = "0.01", message = "El valor debe ser mayor a 0")
     @Column(name = "valor", nullable = false, precision = 15, scale = 2)
-    private BigDecimal valor;
+    private Dinero valor;
 
     @NotNull(message = "El saldo es obligatorio")
     @Column(name = "saldo", nullable = false, precision = 15, scale = 2)
-    private BigDecimal saldo;
+    private Dinero saldo;
 
     @NotNull(message = "El ID del cliente es obligatorio")
     @Column(name = "cliente_id", nullable = false)
     private Long clienteId;
 
+    // Posición del movimiento dentro de su cuenta; nula en movimientos anteriores a los checkpoints
+    @Column(name = "secuencia")
+    private Long secuencia;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cuenta_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Cuenta cuenta;
 
     @Column(name = "fecha_creacion", nullable = false, updatable = false)
@@ -0,0 +1,54 @@
+package com.microservices.accountingservice.domain.entity;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento en el nivel frío ({@code movimientos_archivo}). Conserva el ID y los datos
+ * que tenía en {@code movimientos}. Las filas solo las escribe el archivador con
+ * {@link com.microservices.accountingservice.domain.repository.MovimientoArchivadoRepository#copiarDesdeMovimientos};
+ * la aplicación no las modifica salvo para reasignar el cliente de la cuenta.
+ */
+@Entity
+@Table(name = "movimientos_archivo", indexes = {
+    @Index(name = "idx_movimientos_archivo_cliente_fecha", columnList = "cliente_id, fecha, id"),
+    @Index(name = "idx_movimientos_archivo_cuenta_fecha", columnList = "cuenta_id, fecha, id")
+})
+@Getter
+@NoArgsConstructor
+public class MovimientoArchivado {
+
+    @Id
+    private Long id;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    @Column(name = "tipo_movimiento", nullable = false, length = 20)
+    private String tipoMovimiento;
+
+    @Column(name = "valor", nullable = false, precision = 15, scale = 2)
+    private Dinero valor;
+
+    @Column(name = "saldo", nullable = false, precision = 15, scale = 2)
+    private Dinero saldo;
+
+    @Column(name = "secuencia")
+    private Long secuencia;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+}
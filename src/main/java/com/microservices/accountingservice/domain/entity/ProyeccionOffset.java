@@ -0,0 +1,40 @@
+package com.microservices.accountingservice.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Último offset aplicado a una proyección por partición del tópico. Se guarda en la
+ * misma transacción que los datos proyectados para retomar el consumo desde ahí.
+ */
+@Entity
+@Table(name = "proyeccion_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProyeccionOffset {
+
+    // Tópico y partición, p. ej. "cliente-events-0"
+    @Id
+    @Column(name = "id", length = 255)
+    private String id;
+
+    @NotNull(message = "El tópico es obligatorio")
+    @Column(name = "topico", nullable = false)
+    private String topico;
+
+    @NotNull(message = "La partición es obligatoria")
+    @Column(name = "particion", nullable = false)
+    private Integer particion;
+
+    @NotNull(message = "El offset es obligatorio")
+    @Column(name = "ultimo_offset", nullable = false)
+    private Long ultimoOffset;
+
+    public static String clave(String topico, int particion) {
+        return topico + "-" + particion;
+    }
+}
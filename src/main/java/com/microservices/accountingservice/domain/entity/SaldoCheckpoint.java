@@ -0,0 +1,46 @@
+package com.microservices.accountingservice.domain.entity;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "saldo_checkpoints", indexes = {
+    @Index(name = "idx_saldo_checkpoints_cuenta_secuencia", columnList = "cuenta_id, secuencia")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saldo_checkpoints_seq")
+    @SequenceGenerator(name = "saldo_checkpoints_seq", sequenceName = "saldo_checkpoints_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "El ID de la cuenta es obligatorio")
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    // Secuencia del último movimiento incluido en el saldo del checkpoint
+    @NotNull(message = "La secuencia es obligatoria")
+    @Column(name = "secuencia", nullable = false)
+    private Long secuencia;
+
+    @NotNull(message = "El saldo es obligatorio")
+    @Column(name = "saldo", nullable = false, precision = 15, scale = 2)
+    private Dinero saldo;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,50 @@
+package com.microservices.accountingservice.domain.entity;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Agregado diario de movimientos de una cuenta, mantenido en cada contabilización.
+ */
+@Entity
+@Table(name = "saldos_diarios", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_saldos_diarios_cuenta_fecha", columnNames = {"cuenta_id", "fecha"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoDiario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saldos_diarios_seq")
+    @SequenceGenerator(name = "saldos_diarios_seq", sequenceName = "saldos_diarios_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "El ID de la cuenta es obligatorio")
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    @NotNull(message = "La fecha es obligatoria")
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "total_depositos", nullable = false, precision = 15, scale = 2)
+    private Dinero totalDepositos = Dinero.CERO;
+
+    @Column(name = "total_retiros", nullable = false, precision = 15, scale = 2)
+    private Dinero totalRetiros = Dinero.CERO;
+
+    @Column(name = "cantidad_movimientos", nullable = false)
+    private Long cantidadMovimientos = 0L;
+
+    // Saldo de la cuenta después del último movimiento del día
+    @NotNull(message = "El saldo de cierre es obligatorio")
+    @Column(name = "saldo_cierre", nullable = false, precision = 15, scale = 2)
+    private Dinero saldoCierre;
+}
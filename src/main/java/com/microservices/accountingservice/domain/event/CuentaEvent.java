@@ -20,6 +20,8 @@ public class CuentaEvent {
     private BigDecimal saldoInicial;
     private BigDecimal saldoActual;
     private Long clienteId;
+    // Cliente al que pertenecía la cuenta antes de una actualización que lo cambió
+    private Long clienteIdAnterior;
     private Boolean estado;
     private LocalDateTime timestamp;
 }
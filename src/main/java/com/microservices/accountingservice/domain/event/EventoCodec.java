@@ -0,0 +1,328 @@
+package com.microservices.accountingservice.domain.event;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formato binario compacto de {@link CuentaEvent} y {@link MovimientoEvent}.
+ *
+ * <p>Versión 1 del esquema:
+ * <pre>
+ * cabecera  : MAGICO (1 byte), VERSION (1 byte), tipo de evento (1 = cuenta, 2 = movimiento)
+ * presencia : varint con un bit por campo no nulo, en el orden de declaración del evento
+ * campos    : solo los presentes, en el mismo orden
+ *   IDs               varint
+ *   montos            centavos (escala 2) como varint zigzag
+ *   fechas            microsegundos desde epoch en UTC como varint zigzag
+ *   tipos y eventType índice en la lista de valores conocidos (1 byte)
+ *   booleanos         1 byte
+ *   textos            longitud varint + UTF-8
+ * </pre>
+ *
+ * <p>Un evento nuevo solo puede agregar campos al final; si cambia el significado de
+ * uno existente se sube la versión. {@link #decodificar(byte[])} rechaza versiones que
+ * no conoce. El primer byte nunca coincide con el de un JSON, así que un consumidor
+ * puede aceptar ambos formatos durante la migración.
+ */
+@Component
+public class EventoCodec {
+
+    public static final byte MAGICO = (byte) 0xAE;
+    public static final byte VERSION = 1;
+
+    private static final byte TIPO_CUENTA = 1;
+    private static final byte TIPO_MOVIMIENTO = 2;
+
+    private static final List<String> TIPOS_EVENTO = List.of("CREATED", "UPDATED", "DELETED", "DEACTIVATED");
+    private static final List<String> TIPOS_CUENTA = List.of("Ahorros", "Corriente");
+    private static final List<String> TIPOS_MOVIMIENTO = List.of("Deposito", "Retiro");
+
+    private static final int ESCALA_MONTOS = 2;
+
+    public static boolean esBinario(byte[] datos) {
+        return datos != null && datos.length > 0 && datos[0] == MAGICO;
+    }
+
+    public byte[] codificar(CuentaEvent evento) {
+        Escritor escritor = new Escritor(TIPO_CUENTA);
+        escritor.presencia(evento.getEventType(), evento.getCuentaId(), evento.getNumeroCuenta(),
+            evento.getTipoCuenta(), evento.getSaldoInicial(), evento.getSaldoActual(), evento.getClienteId(),
+            evento.getClienteIdAnterior(), evento.getEstado(), evento.getTimestamp());
+        escritor.tipo(TIPOS_EVENTO, evento.getEventType());
+        escritor.id(evento.getCuentaId());
+        escritor.texto(evento.getNumeroCuenta());
+        escritor.tipo(TIPOS_CUENTA, evento.getTipoCuenta());
+        escritor.monto(evento.getSaldoInicial());
+        escritor.monto(evento.getSaldoActual());
+        escritor.id(evento.getClienteId());
+        escritor.id(evento.getClienteIdAnterior());
+        escritor.booleano(evento.getEstado());
+        escritor.fecha(evento.getTimestamp());
+        return escritor.bytes();
+    }
+
+    public byte[] codificar(MovimientoEvent evento) {
+        Escritor escritor = new Escritor(TIPO_MOVIMIENTO);
+        escritor.presencia(evento.getEventType(), evento.getMovimientoId(), evento.getCuentaId(),
+            evento.getNumeroCuenta(), evento.getClienteId(), evento.getTipoMovimiento(), evento.getValor(),
+            evento.getSaldo(), evento.getFecha(), evento.getTimestamp());
+        escritor.tipo(TIPOS_EVENTO, evento.getEventType());
+        escritor.id(evento.getMovimientoId());
+        escritor.id(evento.getCuentaId());
+        escritor.texto(evento.getNumeroCuenta());
+        escritor.id(evento.getClienteId());
+        escritor.tipo(TIPOS_MOVIMIENTO, evento.getTipoMovimiento());
+        escritor.monto(evento.getValor());
+        escritor.monto(evento.getSaldo());
+        escritor.fecha(evento.getFecha());
+        escritor.fecha(evento.getTimestamp());
+        return escritor.bytes();
+    }
+
+    /**
+     * Decodifica un evento binario; devuelve un {@link CuentaEvent} o un {@link MovimientoEvent}.
+     */
+    public Object decodificar(byte[] datos) {
+        Lector lector = new Lector(datos);
+        if (lector.byteCrudo() != MAGICO) {
+            throw new IllegalArgumentException("El mensaje no está en formato binario de eventos");
+        }
+        byte version = lector.byteCrudo();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de formato de evento no soportada: " + version);
+        }
+
+        byte tipo = lector.byteCrudo();
+        lector.presencia();
+        switch (tipo) {
+            case TIPO_CUENTA:
+                return CuentaEvent.builder()
+                    .eventType(lector.tipo(TIPOS_EVENTO))
+                    .cuentaId(lector.id())
+                    .numeroCuenta(lector.texto())
+                    .tipoCuenta(lector.tipo(TIPOS_CUENTA))
+                    .saldoInicial(lector.monto())
+                    .saldoActual(lector.monto())
+                    .clienteId(lector.id())
+                    .clienteIdAnterior(lector.id())
+                    .estado(lector.booleano())
+                    .timestamp(lector.fecha())
+                    .build();
+            case TIPO_MOVIMIENTO:
+                return MovimientoEvent.builder()
+                    .eventType(lector.tipo(TIPOS_EVENTO))
+                    .movimientoId(lector.id())
+                    .cuentaId(lector.id())
+                    .numeroCuenta(lector.texto())
+                    .clienteId(lector.id())
+                    .tipoMovimiento(lector.tipo(TIPOS_MOVIMIENTO))
+                    .valor(lector.monto())
+                    .saldo(lector.monto())
+                    .fecha(lector.fecha())
+                    .timestamp(lector.fecha())
+                    .build();
+            default:
+                throw new IllegalArgumentException("Tipo de evento desconocido: " + tipo);
+        }
+    }
+
+    private static final class Escritor {
+
+        private byte[] buffer = new byte[64];
+        private int posicion;
+        private long presentes;
+        private int campo;
+
+        Escritor(byte tipo) {
+            escribir(MAGICO);
+            escribir(VERSION);
+            escribir(tipo);
+        }
+
+        void presencia(Object... campos) {
+            for (int i = 0; i < campos.length; i++) {
+                if (campos[i] != null) {
+                    presentes |= 1L << i;
+                }
+            }
+            varint(presentes);
+        }
+
+        // Cada método consume un campo; los nulos no escriben nada
+        private boolean siguiente() {
+            return (presentes & (1L << campo++)) != 0;
+        }
+
+        void id(Long valor) {
+            if (siguiente()) {
+                varint(valor);
+            }
+        }
+
+        void monto(BigDecimal valor) {
+            if (siguiente()) {
+                // Los montos se guardan con escala 2: un valor con más decimales es un error
+                varint(zigzag(valor.setScale(ESCALA_MONTOS, RoundingMode.UNNECESSARY).unscaledValue().longValueExact()));
+            }
+        }
+
+        void fecha(LocalDateTime valor) {
+            if (siguiente()) {
+                long micros = Math.addExact(Math.multiplyExact(valor.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                    valor.getNano() / 1_000);
+                varint(zigzag(micros));
+            }
+        }
+
+        void tipo(List<String> valores, String valor) {
+            if (siguiente()) {
+                int indice = valores.indexOf(valor);
+                if (indice < 0) {
+                    throw new IllegalArgumentException("Valor no soportado por el formato binario: " + valor);
+                }
+                escribir((byte) indice);
+            }
+        }
+
+        void booleano(Boolean valor) {
+            if (siguiente()) {
+                escribir((byte) (valor ? 1 : 0));
+            }
+        }
+
+        void texto(String valor) {
+            if (siguiente()) {
+                byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+                varint(utf8.length);
+                asegurar(utf8.length);
+                System.arraycopy(utf8, 0, buffer, posicion, utf8.length);
+                posicion += utf8.length;
+            }
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(buffer, posicion);
+        }
+
+        private static long zigzag(long valor) {
+            return (valor << 1) ^ (valor >> 63);
+        }
+
+        private void varint(long valor) {
+            asegurar(10);
+            while ((valor & ~0x7FL) != 0) {
+                buffer[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            buffer[posicion++] = (byte) valor;
+        }
+
+        private void escribir(byte valor) {
+            asegurar(1);
+            buffer[posicion++] = valor;
+        }
+
+        private void asegurar(int adicionales) {
+            if (posicion + adicionales > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, posicion + adicionales));
+            }
+        }
+    }
+
+    private static final class Lector {
+
+        private final byte[] datos;
+        private int posicion;
+        private long presentes;
+        private int campo;
+
+        Lector(byte[] datos) {
+            this.datos = datos;
+        }
+
+        void presencia() {
+            presentes = varint();
+        }
+
+        private boolean siguiente() {
+            return (presentes & (1L << campo++)) != 0;
+        }
+
+        Long id() {
+            return siguiente() ? varint() : null;
+        }
+
+        BigDecimal monto() {
+            return siguiente() ? BigDecimal.valueOf(dezigzag(varint()), ESCALA_MONTOS) : null;
+        }
+
+        LocalDateTime fecha() {
+            if (!siguiente()) {
+                return null;
+            }
+            long micros = dezigzag(varint());
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+        }
+
+        String tipo(List<String> valores) {
+            if (!siguiente()) {
+                return null;
+            }
+            int indice = byteCrudo();
+            if (indice < 0 || indice >= valores.size()) {
+                throw new IllegalArgumentException("Código de tipo desconocido: " + indice);
+            }
+            return valores.get(indice);
+        }
+
+        Boolean booleano() {
+            return siguiente() ? byteCrudo() != 0 : null;
+        }
+
+        String texto() {
+            if (!siguiente()) {
+                return null;
+            }
+            int longitud = Math.toIntExact(varint());
+            verificar(longitud);
+            String valor = new String(datos, posicion, longitud, StandardCharsets.UTF_8);
+            posicion += longitud;
+            return valor;
+        }
+
+        byte byteCrudo() {
+            verificar(1);
+            return datos[posicion++];
+        }
+
+        private static long dezigzag(long valor) {
+            return (valor >>> 1) ^ -(valor & 1);
+        }
+
+        private long varint() {
+            long valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+                byte b = byteCrudo();
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("Varint mal formado en el evento");
+        }
+
+        private void verificar(int bytes) {
+            if (posicion + bytes > datos.length) {
+                throw new IllegalArgumentException("Evento binario truncado");
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class ClaveIdempotenciaInvalidaException extends RuntimeException {
+    
+    public ClaveIdempotenciaInvalidaException(String message) {
+        super(message);
+    }
+    
+    public ClaveIdempotenciaInvalidaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class ClienteNoDisponibleException extends RuntimeException {
+    
+    public ClienteNoDisponibleException(String message) {
+        super(message);
+    }
+    
+    public ClienteNoDisponibleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
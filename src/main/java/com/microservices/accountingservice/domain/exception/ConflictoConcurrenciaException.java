@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class ConflictoConcurrenciaException extends RuntimeException {
+    
+    public ConflictoConcurrenciaException(String message) {
+        super(message);
+    }
+    
+    public ConflictoConcurrenciaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class CuentaOcupadaException extends RuntimeException {
+    
+    public CuentaOcupadaException(String message) {
+        super(message);
+    }
+    
+    public CuentaOcupadaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
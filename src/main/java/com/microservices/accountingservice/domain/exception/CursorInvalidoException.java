@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class CursorInvalidoException extends RuntimeException {
+    
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+    
+    public CursorInvalidoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
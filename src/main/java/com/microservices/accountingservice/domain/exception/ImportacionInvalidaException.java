@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class ImportacionInvalidaException extends RuntimeException {
+    
+    public ImportacionInvalidaException(String message) {
+        super(message);
+    }
+    
+    public ImportacionInvalidaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class LoteInvalidoException extends RuntimeException {
+    
+    public LoteInvalidoException(String message) {
+        super(message);
+    }
+    
+    public LoteInvalidoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
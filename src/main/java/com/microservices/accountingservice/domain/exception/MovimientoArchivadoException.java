@@ -0,0 +1,13 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class MovimientoArchivadoException extends RuntimeException {
+    
+    public MovimientoArchivadoException(String message) {
+        super(message);
+    }
+    
+    public MovimientoArchivadoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
+
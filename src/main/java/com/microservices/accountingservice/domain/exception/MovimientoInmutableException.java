@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.exception;
+
+public class MovimientoInmutableException extends RuntimeException {
+    
+    public MovimientoInmutableException(String message) {
+        super(message);
+    }
+    
+    public MovimientoInmutableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
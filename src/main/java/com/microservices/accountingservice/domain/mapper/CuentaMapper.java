@@ -2,8 +2,14 @@ package com.microservices.accountingservice.domain.mapper;
 
 import com.microservices.accountingservice.domain.dto.CuentaDto;
 import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.CuentaMetadatos;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.SaldoCuenta;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,8 +25,8 @@ public class CuentaMapper {
         cuenta.setId(cuentaDto.getId());
         cuenta.setNumeroCuenta(cuentaDto.getNumeroCuenta());
         cuenta.setTipoCuenta(cuentaDto.getTipoCuenta());
-        cuenta.setSaldoInicial(cuentaDto.getSaldoInicial());
-        cuenta.setSaldoActual(cuentaDto.getSaldoActual());
+        cuenta.setSaldoInicial(Dinero.de(cuentaDto.getSaldoInicial()));
+        // El saldo actual arranca en el inicial (Cuenta#onCreate); el del DTO no se usa
         cuenta.setClienteId(cuentaDto.getClienteId());
         cuenta.setEstado(cuentaDto.getEstado());
         return cuenta;
@@ -35,15 +41,63 @@ public class CuentaMapper {
         dto.setId(cuenta.getId());
         dto.setNumeroCuenta(cuenta.getNumeroCuenta());
         dto.setTipoCuenta(cuenta.getTipoCuenta());
-        dto.setSaldoInicial(cuenta.getSaldoInicial());
-        dto.setSaldoActual(cuenta.getSaldoActual());
+        dto.setSaldoInicial(Dinero.aBigDecimal(cuenta.getSaldoInicial()));
+        dto.setSaldoActual(Dinero.aBigDecimal(cuenta.getSaldoActual()));
         dto.setClienteId(cuenta.getClienteId());
         dto.setEstado(cuenta.getEstado());
+        dto.setVersion(cuenta.getVersion());
         dto.setFechaCreacion(cuenta.getFechaCreacion());
         dto.setFechaActualizacion(cuenta.getFechaActualizacion());
         return dto;
     }
 
+    public CuentaDto toDto(CuentaVista vista) {
+        if (vista == null) {
+            return null;
+        }
+
+        CuentaDto dto = new CuentaDto();
+        dto.setId(vista.id());
+        dto.setNumeroCuenta(vista.numeroCuenta());
+        dto.setTipoCuenta(vista.tipoCuenta());
+        dto.setSaldoInicial(Dinero.aBigDecimal(vista.saldoInicial()));
+        dto.setSaldoActual(Dinero.aBigDecimal(vista.saldoActual()));
+        dto.setClienteId(vista.clienteId());
+        dto.setEstado(vista.estado());
+        dto.setVersion(vista.version());
+        dto.setFechaCreacion(vista.fechaCreacion());
+        dto.setFechaActualizacion(vista.fechaActualizacion());
+        return dto;
+    }
+
+    public CuentaDto toDto(CuentaMetadatos metadatos, SaldoCuenta saldo) {
+        if (metadatos == null || saldo == null) {
+            return null;
+        }
+
+        CuentaDto dto = new CuentaDto();
+        dto.setId(metadatos.id());
+        dto.setNumeroCuenta(metadatos.numeroCuenta());
+        dto.setTipoCuenta(metadatos.tipoCuenta());
+        dto.setSaldoInicial(Dinero.aBigDecimal(metadatos.saldoInicial()));
+        dto.setSaldoActual(Dinero.aBigDecimal(saldo.saldoActual()));
+        dto.setClienteId(metadatos.clienteId());
+        dto.setEstado(metadatos.estado());
+        dto.setVersion(saldo.version());
+        dto.setFechaCreacion(metadatos.fechaCreacion());
+        dto.setFechaActualizacion(saldo.fechaActualizacion());
+        return dto;
+    }
+
+    public List<CuentaDto> vistasToDtoList(List<CuentaVista> vistas) {
+        if (vistas == null) {
+            return null;
+        }
+        return vistas.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
     public List<CuentaDto> toDtoList(List<Cuenta> cuentas) {
         if (cuentas == null) {
             return null;
@@ -53,6 +107,26 @@ public class CuentaMapper {
                 .collect(Collectors.toList());
     }
 
+    public CuentaEvent toEvent(Cuenta cuenta, String eventType) {
+        return CuentaEvent.builder()
+                .eventType(eventType)
+                .cuentaId(cuenta.getId())
+                .numeroCuenta(cuenta.getNumeroCuenta())
+                .tipoCuenta(cuenta.getTipoCuenta())
+                .saldoInicial(Dinero.aBigDecimal(cuenta.getSaldoInicial()))
+                .saldoActual(Dinero.aBigDecimal(cuenta.getSaldoActual()))
+                .clienteId(cuenta.getClienteId())
+                .estado(cuenta.getEstado())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Copia los datos editables de la cuenta. El saldo actual no se copia: solo cambia con
+     * movimientos, dentro del carril de la cuenta y con su secuencia y checkpoints. El saldo
+     * inicial tampoco: la verificación y la reconstrucción sin checkpoint parten de él, y
+     * cambiarlo sin mover el saldo actual haría ver una inconsistencia que no existe.
+     */
     public void updateEntity(CuentaDto cuentaDto, Cuenta cuenta) {
         if (cuentaDto == null || cuenta == null) {
             return;
@@ -60,8 +134,6 @@ public class CuentaMapper {
         
         cuenta.setNumeroCuenta(cuentaDto.getNumeroCuenta());
         cuenta.setTipoCuenta(cuentaDto.getTipoCuenta());
-        cuenta.setSaldoInicial(cuentaDto.getSaldoInicial());
-        cuenta.setSaldoActual(cuentaDto.getSaldoActual());
         cuenta.setClienteId(cuentaDto.getClienteId());
         cuenta.setEstado(cuentaDto.getEstado());
     }
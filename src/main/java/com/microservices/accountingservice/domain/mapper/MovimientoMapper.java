@@ -2,8 +2,12 @@ package com.microservices.accountingservice.domain.mapper;
 
 import com.microservices.accountingservice.domain.dto.MovimientoDto;
 import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.MovimientoVista;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,8 +23,8 @@ public class MovimientoMapper {
         movimiento.setId(movimientoDto.getId());
         movimiento.setFecha(movimientoDto.getFecha());
         movimiento.setTipoMovimiento(movimientoDto.getTipoMovimiento());
-        movimiento.setValor(movimientoDto.getValor());
-        movimiento.setSaldo(movimientoDto.getSaldo());
+        movimiento.setValor(Dinero.de(movimientoDto.getValor()));
+        movimiento.setSaldo(Dinero.de(movimientoDto.getSaldo()));
         movimiento.setClienteId(movimientoDto.getClienteId());
         return movimiento;
     }
@@ -34,8 +38,8 @@ public class MovimientoMapper {
         dto.setId(movimiento.getId());
         dto.setFecha(movimiento.getFecha());
         dto.setTipoMovimiento(movimiento.getTipoMovimiento());
-        dto.setValor(movimiento.getValor());
-        dto.setSaldo(movimiento.getSaldo());
+        dto.setValor(Dinero.aBigDecimal(movimiento.getValor()));
+        dto.setSaldo(Dinero.aBigDecimal(movimiento.getSaldo()));
         dto.setCuentaId(movimiento.getCuenta() != null ? movimiento.getCuenta().getId() : null);
         dto.setClienteId(movimiento.getClienteId());
         dto.setNumeroCuenta(movimiento.getCuenta() != null ? movimiento.getCuenta().getNumeroCuenta() : null);
@@ -45,6 +49,35 @@ public class MovimientoMapper {
         return dto;
     }
 
+    public MovimientoDto toDto(MovimientoVista vista) {
+        if (vista == null) {
+            return null;
+        }
+
+        MovimientoDto dto = new MovimientoDto();
+        dto.setId(vista.id());
+        dto.setFecha(vista.fecha());
+        dto.setTipoMovimiento(vista.tipoMovimiento());
+        dto.setValor(Dinero.aBigDecimal(vista.valor()));
+        dto.setSaldo(Dinero.aBigDecimal(vista.saldo()));
+        dto.setCuentaId(vista.cuentaId());
+        dto.setClienteId(vista.clienteId());
+        dto.setNumeroCuenta(vista.numeroCuenta());
+        dto.setTipoCuenta(vista.tipoCuenta());
+        dto.setFechaCreacion(vista.fechaCreacion());
+        dto.setFechaActualizacion(vista.fechaActualizacion());
+        return dto;
+    }
+
+    public List<MovimientoDto> vistasToDtoList(List<MovimientoVista> vistas) {
+        if (vistas == null) {
+            return null;
+        }
+        return vistas.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
     public List<MovimientoDto> toDtoList(List<Movimiento> movimientos) {
         if (movimientos == null) {
             return null;
@@ -54,6 +87,21 @@ public class MovimientoMapper {
                 .collect(Collectors.toList());
     }
 
+    public MovimientoEvent toEvent(Movimiento movimiento, String eventType) {
+        return MovimientoEvent.builder()
+                .eventType(eventType)
+                .movimientoId(movimiento.getId())
+                .cuentaId(movimiento.getCuenta().getId())
+                .numeroCuenta(movimiento.getCuenta().getNumeroCuenta())
+                .clienteId(movimiento.getCuenta().getClienteId())
+                .tipoMovimiento(movimiento.getTipoMovimiento())
+                .valor(Dinero.aBigDecimal(movimiento.getValor()))
+                .saldo(Dinero.aBigDecimal(movimiento.getSaldo()))
+                .fecha(movimiento.getFecha())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     public void updateEntity(MovimientoDto movimientoDto, Movimiento movimiento) {
         if (movimientoDto == null || movimiento == null) {
             return;
@@ -0,0 +1,75 @@
+package com.microservices.accountingservice.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Monto en centavos sobre un {@code long}. Todas las columnas de dinero son
+ * {@code DECIMAL(15,2)}, que caben en un long de centavos, así que los saldos y totales
+ * se calculan sin crear un {@link BigDecimal} por operación. La conversión a BigDecimal
+ * queda en los bordes: los DTOs de la API y {@link DineroConverter} para JPA.
+ *
+ * <p>Las operaciones fallan con {@link ArithmeticException} si el resultado desborda el
+ * long, igual que {@link Math#addExact(long, long)}.
+ */
+public record Dinero(long centavos) implements Comparable<Dinero> {
+
+    public static final Dinero CERO = new Dinero(0);
+
+    private static final int ESCALA = 2;
+
+    public static Dinero deCentavos(long centavos) {
+        return centavos == 0 ? CERO : new Dinero(centavos);
+    }
+
+    /**
+     * @throws ArithmeticException si el valor tiene más de dos decimales o no cabe en un
+     *                             long de centavos
+     */
+    public static Dinero de(BigDecimal valor) {
+        if (valor == null) {
+            return null;
+        }
+        return deCentavos(valor.movePointRight(ESCALA).longValueExact());
+    }
+
+    public static BigDecimal aBigDecimal(Dinero dinero) {
+        return dinero == null ? null : dinero.aBigDecimal();
+    }
+
+    public Dinero mas(Dinero otro) {
+        return deCentavos(Math.addExact(centavos, otro.centavos));
+    }
+
+    public Dinero menos(Dinero otro) {
+        return deCentavos(Math.subtractExact(centavos, otro.centavos));
+    }
+
+    public Dinero negado() {
+        return deCentavos(Math.negateExact(centavos));
+    }
+
+    public boolean esMenorQue(Dinero otro) {
+        return centavos < otro.centavos;
+    }
+
+    public boolean esNegativo() {
+        return centavos < 0;
+    }
+
+    public BigDecimal aBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(centavos, otro.centavos);
+    }
+
+    /** Representación decimal con dos decimales, p. ej. {@code -12.05}. */
+    @Override
+    public String toString() {
+        long absoluto = Math.abs(centavos);
+        long decimales = absoluto % 100;
+        return (centavos < 0 ? "-" : "") + absoluto / 100 + (decimales < 10 ? ".0" : ".") + decimales;
+    }
+}
@@ -0,0 +1,33 @@
+package com.microservices.accountingservice.domain.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Mapea {@link Dinero} a las columnas {@code DECIMAL(15,2)}. Se aplica a todos los
+ * atributos de tipo Dinero, también en las proyecciones de las consultas JPQL.
+ */
+@Converter(autoApply = true)
+public class DineroConverter implements AttributeConverter<Dinero, BigDecimal> {
+
+    // DECIMAL(15,2): 13 dígitos enteros y 2 decimales
+    static final long MAXIMO_CENTAVOS = 999_999_999_999_999L;
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Dinero dinero) {
+        if (dinero == null) {
+            return null;
+        }
+        if (Math.abs(dinero.centavos()) > MAXIMO_CENTAVOS) {
+            throw new ArithmeticException("El monto " + dinero + " no cabe en DECIMAL(15,2)");
+        }
+        return dinero.aBigDecimal();
+    }
+
+    @Override
+    public Dinero convertToEntityAttribute(BigDecimal valor) {
+        return Dinero.de(valor);
+    }
+}
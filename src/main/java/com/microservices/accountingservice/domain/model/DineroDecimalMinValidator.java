@@ -0,0 +1,32 @@
+package com.microservices.accountingservice.domain.model;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMin;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link DecimalMin} sobre atributos {@link Dinero} de las entidades. Se registra en
+ * META-INF/services/jakarta.validation.ConstraintValidator.
+ */
+public class DineroDecimalMinValidator implements ConstraintValidator<DecimalMin, Dinero> {
+
+    private Dinero minimo;
+    private boolean inclusivo;
+
+    @Override
+    public void initialize(DecimalMin anotacion) {
+        minimo = Dinero.de(new BigDecimal(anotacion.value()));
+        inclusivo = anotacion.inclusive();
+    }
+
+    @Override
+    public boolean isValid(Dinero valor, ConstraintValidatorContext contexto) {
+        if (valor == null) {
+            return true;
+        }
+        int comparacion = valor.compareTo(minimo);
+        return inclusivo ? comparacion >= 0 : comparacion > 0;
+    }
+}
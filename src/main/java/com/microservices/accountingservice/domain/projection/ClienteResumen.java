@@ -0,0 +1,13 @@
+package com.microservices.accountingservice.domain.projection;
+
+/**
+ * Datos de un cliente que se mantienen en memoria para los reportes y la apertura de
+ * cuentas.
+ */
+public record ClienteResumen(
+    Long clienteId,
+    String nombre,
+    String identificacion,
+    boolean estado
+) {
+}
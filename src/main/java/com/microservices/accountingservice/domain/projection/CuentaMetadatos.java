@@ -0,0 +1,25 @@
+package com.microservices.accountingservice.domain.projection;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos de una cuenta que solo cambian al actualizarla o desactivarla. No incluye el
+ * saldo actual ni la versión, que cambian con cada movimiento.
+ */
+public record CuentaMetadatos(
+    Long id,
+    String numeroCuenta,
+    String tipoCuenta,
+    Dinero saldoInicial,
+    Boolean estado,
+    Long clienteId,
+    LocalDateTime fechaCreacion
+) {
+
+    public static CuentaMetadatos de(CuentaVista vista) {
+        return new CuentaMetadatos(vista.id(), vista.numeroCuenta(), vista.tipoCuenta(), vista.saldoInicial(),
+            vista.estado(), vista.clienteId(), vista.fechaCreacion());
+    }
+}
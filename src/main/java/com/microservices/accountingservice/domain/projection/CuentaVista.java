@@ -0,0 +1,23 @@
+package com.microservices.accountingservice.domain.projection;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos de una cuenta para las lecturas, sin la colección de movimientos ni entidad
+ * administrada.
+ */
+public record CuentaVista(
+    Long id,
+    String numeroCuenta,
+    String tipoCuenta,
+    Dinero saldoInicial,
+    Dinero saldoActual,
+    Boolean estado,
+    Long clienteId,
+    Long version,
+    LocalDateTime fechaCreacion,
+    LocalDateTime fechaActualizacion
+) {
+}
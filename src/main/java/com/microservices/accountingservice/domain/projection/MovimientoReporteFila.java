@@ -0,0 +1,18 @@
+package com.microservices.accountingservice.domain.projection;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de movimiento para reportes leída por proyección, sin entidad administrada.
+ */
+public record MovimientoReporteFila(
+    Long cuentaId,
+    Long movimientoId,
+    LocalDateTime fecha,
+    String tipoMovimiento,
+    Dinero valor,
+    Dinero saldo
+) {
+}
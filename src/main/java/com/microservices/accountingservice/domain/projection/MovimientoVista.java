@@ -0,0 +1,24 @@
+package com.microservices.accountingservice.domain.projection;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento con los datos de su cuenta, leído con un join explícito y sin entidades
+ * administradas.
+ */
+public record MovimientoVista(
+    Long id,
+    LocalDateTime fecha,
+    String tipoMovimiento,
+    Dinero valor,
+    Dinero saldo,
+    Long cuentaId,
+    Long clienteId,
+    String numeroCuenta,
+    String tipoCuenta,
+    LocalDateTime fechaCreacion,
+    LocalDateTime fechaActualizacion
+) {
+}
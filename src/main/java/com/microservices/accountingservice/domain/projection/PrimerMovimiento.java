@@ -0,0 +1,12 @@
+package com.microservices.accountingservice.domain.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fecha del primer movimiento de una cuenta.
+ */
+public record PrimerMovimiento(
+    Long cuentaId,
+    LocalDateTime fecha
+) {
+}
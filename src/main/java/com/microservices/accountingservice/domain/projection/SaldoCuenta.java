@@ -0,0 +1,15 @@
+package com.microservices.accountingservice.domain.projection;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parte de la cuenta que cambia con cada movimiento; siempre se lee de la base de datos.
+ */
+public record SaldoCuenta(
+    Dinero saldoActual,
+    Long version,
+    LocalDateTime fechaActualizacion
+) {
+}
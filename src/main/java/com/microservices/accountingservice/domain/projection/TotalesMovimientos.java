@@ -0,0 +1,25 @@
+package com.microservices.accountingservice.domain.projection;
+
+import com.microservices.accountingservice.domain.model.Dinero;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de depósitos y retiros de una cuenta en un intervalo.
+ */
+public record TotalesMovimientos(
+    Long cuentaId,
+    Dinero totalDepositos,
+    Dinero totalRetiros,
+    Long cantidadMovimientos
+) {
+
+    /**
+     * Lo usan las consultas agregadas: {@code SUM} no se aplica sobre atributos con
+     * convertidor, así que suman el {@code CAST} a {@code BigDecimal} de la columna.
+     */
+    public TotalesMovimientos(Long cuentaId, BigDecimal totalDepositos, BigDecimal totalRetiros,
+                              Long cantidadMovimientos) {
+        this(cuentaId, Dinero.de(totalDepositos), Dinero.de(totalRetiros), cantidadMovimientos);
+    }
+}
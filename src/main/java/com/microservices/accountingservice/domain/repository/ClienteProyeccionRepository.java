@@ -0,0 +1,26 @@
+package com.microservices.accountingservice.domain.repository;
+
+import com.microservices.accountingservice.domain.entity.ClienteProyeccion;
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface ClienteProyeccionRepository extends JpaRepository<ClienteProyeccion, Long> {
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.ClienteResumen(" +
+           "c.clienteId, c.nombre, c.identificacion, c.estado) FROM ClienteProyeccion c")
+    Stream<ClienteResumen> streamResumenes();
+}
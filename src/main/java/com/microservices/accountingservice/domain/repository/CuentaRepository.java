@@ -1,17 +1,28 @@
 package com.microservices.accountingservice.domain.repository;
 
 import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.projection.SaldoCuenta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
 
+    // Proyección de lectura; el saldo actual cae al inicial igual que Cuenta#getSaldoActual
+    String SELECT_VISTA = "SELECT new com.microservices.accountingservice.domain.projection.CuentaVista(" +
+        "c.id, c.numeroCuenta, c.tipoCuenta, c.saldoInicial, COALESCE(c.saldoActual, c.saldoInicial), " +
+        "c.estado, c.clienteId, c.version, c.fechaCreacion, c.fechaActualizacion) FROM Cuenta c ";
+
     Optional<Cuenta> findByNumeroCuenta(String numeroCuenta);
 
     List<Cuenta> findByClienteId(Long clienteId);
@@ -23,7 +34,37 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
 
     boolean existsByNumeroCuenta(String numeroCuenta);
 
+    // Unicidad de un bloque de importación con una sola consulta
+    @Query("SELECT c.numeroCuenta FROM Cuenta c WHERE c.numeroCuenta IN :numeros")
+    Set<String> findNumerosCuentaExistentes(@Param("numeros") Collection<String> numeros);
+
     @Query("SELECT c FROM Cuenta c WHERE c.estado = true")
     List<Cuenta> findAllActiveAccounts();
-}
 
+    // CuentaCache las usa antes de tomar el carril, fuera de transacción: con una propia la
+    // conexión se devuelve al terminar la consulta y no queda retenida durante la espera
+    @Transactional(readOnly = true)
+    @Query(SELECT_VISTA + "WHERE c.id = :id")
+    Optional<CuentaVista> findVistaById(@Param("id") Long id);
+
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.SaldoCuenta(" +
+           "COALESCE(c.saldoActual, c.saldoInicial), c.version, c.fechaActualizacion) FROM Cuenta c WHERE c.id = :id")
+    Optional<SaldoCuenta> findSaldoById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_VISTA + "WHERE c.numeroCuenta = :numeroCuenta")
+    Optional<CuentaVista> findVistaByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
+
+    @Query(SELECT_VISTA + "ORDER BY c.id")
+    List<CuentaVista> findAllVistas();
+
+    @Query(SELECT_VISTA + "WHERE c.estado = true ORDER BY c.id")
+    List<CuentaVista> findVistasActivas();
+
+    @Query(SELECT_VISTA + "WHERE c.clienteId = :clienteId AND c.estado = true ORDER BY c.id")
+    List<CuentaVista> findVistasByClienteIdAndEstadoTrue(@Param("clienteId") Long clienteId);
+
+    // Recorrido de todas las cuentas por ID, por bloques
+    @Query("SELECT c.id FROM Cuenta c WHERE c.id > :id ORDER BY c.id")
+    List<Long> findIdsDespuesDe(@Param("id") Long id, Limit limite);
+}
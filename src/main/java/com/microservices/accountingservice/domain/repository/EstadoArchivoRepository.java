@@ -0,0 +1,20 @@
+package com.microservices.accountingservice.domain.repository;
+
+import com.microservices.accountingservice.domain.entity.EstadoArchivo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EstadoArchivoRepository extends JpaRepository<EstadoArchivo, Integer> {
+
+    // Las instancias se reparten las cuentas de la pasada avanzando la posición con la fila bloqueada
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EstadoArchivo e WHERE e.id = :id")
+    Optional<EstadoArchivo> bloquear(@Param("id") Integer id);
+}
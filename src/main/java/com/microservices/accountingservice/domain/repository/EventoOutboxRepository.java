@@ -0,0 +1,33 @@
+package com.microservices.accountingservice.domain.repository;
+
+import com.microservices.accountingservice.domain.entity.EventoOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // Tiempo de espera de bloqueo que Hibernate traduce a SKIP LOCKED (LockOptions.SKIP_LOCKED)
+    String SALTAR_BLOQUEADAS = "-2";
+
+    // Bloquea el lote hasta confirmar saltando las filas que ya bloqueó otra instancia
+    // (FOR UPDATE SKIP LOCKED): nadie espera a que Kafka confirme los envíos de otro relay
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = SALTAR_BLOQUEADAS))
+    @Query("SELECT e FROM EventoOutbox e ORDER BY e.id")
+    List<EventoOutbox> findPendientes(Pageable pageable);
+
+    // Lectura sin bloqueo: incluye las filas que otra instancia tiene bloqueadas
+    @Query("SELECT MIN(e.id) FROM EventoOutbox e")
+    Long findPrimerId();
+}
@@ -0,0 +1,124 @@
+package com.microservices.accountingservice.domain.repository;
+
+import com.microservices.accountingservice.domain.entity.MovimientoArchivado;
+import com.microservices.accountingservice.domain.projection.MovimientoReporteFila;
+import com.microservices.accountingservice.domain.projection.MovimientoVista;
+import com.microservices.accountingservice.domain.projection.PrimerMovimiento;
+import com.microservices.accountingservice.domain.projection.TotalesMovimientos;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Consultas sobre el nivel frío con la misma forma y el mismo orden que las de
+ * {@link MovimientoRepository}, para que sus resultados se puedan fusionar. La cuenta
+ * se une por ID porque el archivo no tiene relación con {@code cuentas}.
+ */
+@Repository
+public interface MovimientoArchivadoRepository extends JpaRepository<MovimientoArchivado, Long> {
+
+    String SELECT_VISTA = "SELECT new com.microservices.accountingservice.domain.projection.MovimientoVista(" +
+        "m.id, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.id, m.clienteId, c.numeroCuenta, c.tipoCuenta, " +
+        "m.fechaCreacion, m.fechaActualizacion) FROM MovimientoArchivado m JOIN Cuenta c ON c.id = m.cuentaId ";
+
+    String SELECT_FILA = "SELECT new com.microservices.accountingservice.domain.projection.MovimientoReporteFila(" +
+        "m.cuentaId, m.id, m.fecha, m.tipoMovimiento, m.valor, m.saldo) FROM MovimientoArchivado m ";
+
+    // Copia las filas tal cual; el archivador las elimina de movimientos en la misma transacción
+    @Modifying
+    @Query(value = "INSERT INTO movimientos_archivo (id, cuenta_id, cliente_id, fecha, tipo_movimiento, valor, saldo, " +
+                   "secuencia, fecha_creacion, fecha_actualizacion) " +
+                   "SELECT id, cuenta_id, cliente_id, fecha, tipo_movimiento, valor, saldo, secuencia, fecha_creacion, " +
+                   "fecha_actualizacion FROM movimientos WHERE id IN (:ids)", nativeQuery = true)
+    int copiarDesdeMovimientos(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_VISTA + "WHERE m.id = :id")
+    Optional<MovimientoVista> findVistaById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(SELECT_FILA + "WHERE m.clienteId = :clienteId AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoReporteFila> findReporteByClienteIdAndFechaBetween(@Param("clienteId") Long clienteId,
+                                                                      @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                                      @Param("fechaFin") LocalDateTime fechaFin);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_FILA + "WHERE m.clienteId = :clienteId AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY m.cuentaId, m.fecha, m.id")
+    Stream<MovimientoReporteFila> streamReporteByClienteIdAndFechaBetween(@Param("clienteId") Long clienteId,
+                                                                         @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                                         @Param("fechaFin") LocalDateTime fechaFin);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_FILA + "WHERE m.cuentaId = :cuentaId ORDER BY m.fecha, m.id")
+    Stream<MovimientoReporteFila> streamByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.TotalesMovimientos(m.cuentaId, " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN 0 ELSE CAST(m.valor AS BigDecimal) END), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN CAST(m.valor AS BigDecimal) ELSE 0 END), COUNT(m)) " +
+           "FROM MovimientoArchivado m WHERE m.clienteId = :clienteId AND m.fecha >= :desde AND m.fecha < :hasta " +
+           "GROUP BY m.cuentaId")
+    List<TotalesMovimientos> sumarPorCuentaEntre(@Param("clienteId") Long clienteId,
+                                                 @Param("desde") LocalDateTime desde,
+                                                 @Param("hasta") LocalDateTime hasta);
+
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.PrimerMovimiento(m.cuentaId, MIN(m.fecha)) " +
+           "FROM MovimientoArchivado m WHERE m.cuentaId IN :cuentaIds GROUP BY m.cuentaId")
+    List<PrimerMovimiento> findPrimerosByCuentaIdIn(@Param("cuentaIds") Collection<Long> cuentaIds);
+
+    @Query(SELECT_VISTA + "WHERE m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaDespuesDe(@Param("fecha") LocalDateTime fecha,
+                                              @Param("id") Long id,
+                                              Limit limite);
+
+    @Query(SELECT_VISTA + "WHERE m.clienteId = :clienteId AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id)) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaPorClienteDespuesDe(@Param("clienteId") Long clienteId,
+                                                        @Param("fecha") LocalDateTime fecha,
+                                                        @Param("id") Long id,
+                                                        Limit limite);
+
+    @Query(SELECT_VISTA + "WHERE m.cuentaId = :cuentaId AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id)) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaPorCuentaDespuesDe(@Param("cuentaId") Long cuentaId,
+                                                       @Param("fecha") LocalDateTime fecha,
+                                                       @Param("id") Long id,
+                                                       Limit limite);
+
+    @Query(SELECT_VISTA + "WHERE m.clienteId = :clienteId AND m.fecha >= :fechaInicio AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id)) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaPorClienteYFechaDespuesDe(@Param("clienteId") Long clienteId,
+                                                              @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                              @Param("fecha") LocalDateTime fecha,
+                                                              @Param("id") Long id,
+                                                              Limit limite);
+
+    @Modifying
+    @Query("UPDATE MovimientoArchivado m SET m.clienteId = :clienteId WHERE m.cuentaId = :cuentaId")
+    int reasignarCliente(@Param("cuentaId") Long cuentaId, @Param("clienteId") Long clienteId);
+
+    @Query("SELECT SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN -CAST(m.valor AS BigDecimal) ELSE CAST(m.valor AS BigDecimal) END) FROM MovimientoArchivado m WHERE m.cuentaId = :cuentaId")
+    BigDecimal sumarValoresPorCuenta(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN -CAST(m.valor AS BigDecimal) ELSE CAST(m.valor AS BigDecimal) END) FROM MovimientoArchivado m WHERE m.cuentaId = :cuentaId AND m.secuencia > :secuencia")
+    BigDecimal sumarValoresPorCuentaDesdeSecuencia(@Param("cuentaId") Long cuentaId,
+                                                   @Param("secuencia") Long secuencia);
+}
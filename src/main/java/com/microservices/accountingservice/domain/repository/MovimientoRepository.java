@@ -1,33 +1,144 @@
 package com.microservices.accountingservice.domain.repository;
 
 import com.microservices.accountingservice.domain.entity.Movimiento;
+import com.microservices.accountingservice.domain.projection.MovimientoReporteFila;
+import com.microservices.accountingservice.domain.projection.MovimientoVista;
+import com.microservices.accountingservice.domain.projection.PrimerMovimiento;
+import com.microservices.accountingservice.domain.projection.TotalesMovimientos;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
 
+    // Proyección de lectura: los datos de la cuenta llegan en la misma consulta
+    String SELECT_VISTA = "SELECT new com.microservices.accountingservice.domain.projection.MovimientoVista(" +
+        "m.id, m.fecha, m.tipoMovimiento, m.valor, m.saldo, c.id, m.clienteId, c.numeroCuenta, c.tipoCuenta, " +
+        "m.fechaCreacion, m.fechaActualizacion) FROM Movimiento m JOIN m.cuenta c ";
+
     List<Movimiento> findByCuentaId(Long cuentaId);
 
-    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.clienteId = :clienteId AND m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY m.fecha DESC")
+    @Query("SELECT m FROM Movimiento m WHERE m.clienteId = :clienteId AND m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY m.fecha DESC, m.id DESC")
     List<Movimiento> findByClienteIdAndFechaBetween(@Param("clienteId") Long clienteId, 
                                                    @Param("fechaInicio") LocalDateTime fechaInicio, 
                                                    @Param("fechaFin") LocalDateTime fechaFin);
 
+    @Query(SELECT_VISTA + "WHERE m.id = :id")
+    Optional<MovimientoVista> findVistaById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.MovimientoReporteFila(m.cuenta.id, m.id, m.fecha, m.tipoMovimiento, m.valor, m.saldo) " +
+           "FROM Movimiento m WHERE m.clienteId = :clienteId AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoReporteFila> findReporteByClienteIdAndFechaBetween(@Param("clienteId") Long clienteId,
+                                                                      @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                                      @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Recorre los movimientos del reporte con un cursor de solo avance. Con
+     * {@code useCursorFetch=true} MySQL entrega las filas por bloques del tamaño de
+     * fetch, por lo que la memoria no depende del rango de fechas. Debe consumirse
+     * dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.MovimientoReporteFila(m.cuenta.id, m.id, m.fecha, m.tipoMovimiento, m.valor, m.saldo) " +
+           "FROM Movimiento m WHERE m.clienteId = :clienteId AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "ORDER BY m.cuenta.id, m.fecha, m.id")
+    Stream<MovimientoReporteFila> streamReporteByClienteIdAndFechaBetween(@Param("clienteId") Long clienteId,
+                                                                         @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                                         @Param("fechaFin") LocalDateTime fechaFin);
+
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.MovimientoReporteFila(m.cuenta.id, m.id, m.fecha, m.tipoMovimiento, m.valor, m.saldo) " +
+           "FROM Movimiento m WHERE m.cuenta.id = :cuentaId ORDER BY m.fecha, m.id")
+    Stream<MovimientoReporteFila> streamByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    // Totales por cuenta en el intervalo semiabierto [desde, hasta)
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.TotalesMovimientos(m.cuenta.id, " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN 0 ELSE CAST(m.valor AS BigDecimal) END), " +
+           "SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN CAST(m.valor AS BigDecimal) ELSE 0 END), COUNT(m)) " +
+           "FROM Movimiento m WHERE m.clienteId = :clienteId AND m.fecha >= :desde AND m.fecha < :hasta " +
+           "GROUP BY m.cuenta.id")
+    List<TotalesMovimientos> sumarPorCuentaEntre(@Param("clienteId") Long clienteId,
+                                                 @Param("desde") LocalDateTime desde,
+                                                 @Param("hasta") LocalDateTime hasta);
+
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.PrimerMovimiento(m.cuenta.id, MIN(m.fecha)) " +
+           "FROM Movimiento m WHERE m.cuenta.id IN :cuentaIds GROUP BY m.cuenta.id")
+    List<PrimerMovimiento> findPrimerosByCuentaIdIn(@Param("cuentaIds") Collection<Long> cuentaIds);
+
     @Query("SELECT m FROM Movimiento m WHERE m.cuenta.numeroCuenta = :numeroCuenta AND m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY m.fecha DESC")
     List<Movimiento> findByNumeroCuentaAndFechaBetween(@Param("numeroCuenta") String numeroCuenta, 
                                                       @Param("fechaInicio") LocalDateTime fechaInicio, 
                                                       @Param("fechaFin") LocalDateTime fechaFin);
 
-    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.clienteId = :clienteId ORDER BY m.fecha DESC")
-    List<Movimiento> findByClienteIdOrderByFechaDesc(@Param("clienteId") Long clienteId);
+    // Consultas de paginación por cursor (seek) sobre (fecha, id) descendente:
+    // cada página parte de la última posición devuelta, sin OFFSET. Filtran por las
+    // columnas de movimientos para recorrer idx_movimientos_cliente_fecha o
+    // idx_movimientos_cuenta_fecha hacia atrás, sin ordenar
+
+    @Query(SELECT_VISTA + "WHERE m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaDespuesDe(@Param("fecha") LocalDateTime fecha,
+                                              @Param("id") Long id,
+                                              Limit limite);
+
+    @Query(SELECT_VISTA + "WHERE m.clienteId = :clienteId AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id)) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaPorClienteDespuesDe(@Param("clienteId") Long clienteId,
+                                                        @Param("fecha") LocalDateTime fecha,
+                                                        @Param("id") Long id,
+                                                        Limit limite);
+
+    @Query(SELECT_VISTA + "WHERE m.cuenta.id = :cuentaId AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id)) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaPorCuentaDespuesDe(@Param("cuentaId") Long cuentaId,
+                                                       @Param("fecha") LocalDateTime fecha,
+                                                       @Param("id") Long id,
+                                                       Limit limite);
+
+    @Query(SELECT_VISTA + "WHERE m.clienteId = :clienteId AND m.fecha >= :fechaInicio AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.id < :id)) ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoVista> findPaginaPorClienteYFechaDespuesDe(@Param("clienteId") Long clienteId,
+                                                              @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                              @Param("fecha") LocalDateTime fecha,
+                                                              @Param("id") Long id,
+                                                              Limit limite);
+
+    // Mantiene la copia de cliente_id en los movimientos cuando la cuenta cambia de cliente
+    @Modifying
+    @Query("UPDATE Movimiento m SET m.clienteId = :clienteId WHERE m.cuenta.id = :cuentaId")
+    int reasignarCliente(@Param("cuentaId") Long cuentaId, @Param("clienteId") Long clienteId);
+
+    // Movimientos de la cuenta que el archivador debe pasar a movimientos_archivo
+    @Query("SELECT m.id FROM Movimiento m WHERE m.cuenta.id = :cuentaId AND m.fecha < :corte ORDER BY m.fecha, m.id")
+    List<Long> findIdsArchivables(@Param("cuentaId") Long cuentaId,
+                                  @Param("corte") LocalDateTime corte,
+                                  Limit limite);
+
+    @Query("SELECT SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN -CAST(m.valor AS BigDecimal) ELSE CAST(m.valor AS BigDecimal) END) FROM Movimiento m WHERE m.cuenta.id = :cuentaId")
+    BigDecimal sumarValoresPorCuenta(@Param("cuentaId") Long cuentaId);
 
-    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.id = :cuentaId ORDER BY m.fecha DESC")
-    List<Movimiento> findByCuentaIdOrderByFechaDesc(@Param("cuentaId") Long cuentaId);
+    @Query("SELECT SUM(CASE WHEN m.tipoMovimiento = 'Retiro' THEN -CAST(m.valor AS BigDecimal) ELSE CAST(m.valor AS BigDecimal) END) FROM Movimiento m WHERE m.cuenta.id = :cuentaId AND m.secuencia > :secuencia")
+    BigDecimal sumarValoresPorCuentaDesdeSecuencia(@Param("cuentaId") Long cuentaId,
+                                                   @Param("secuencia") Long secuencia);
 }
 
@@ -0,0 +1,23 @@
+package com.microservices.accountingservice.domain.repository;
+
+import com.microservices.accountingservice.domain.entity.ProyeccionOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProyeccionOffsetRepository extends JpaRepository<ProyeccionOffset, String> {
+
+    List<ProyeccionOffset> findByTopico(String topico);
+
+    // Todas las instancias comparten los offsets: la que llega segunda espera y ve el lote ya aplicado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ProyeccionOffset o WHERE o.id IN :ids")
+    List<ProyeccionOffset> bloquear(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,13 @@
+package com.microservices.accountingservice.domain.repository;
+
+import com.microservices.accountingservice.domain.entity.SaldoCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SaldoCheckpointRepository extends JpaRepository<SaldoCheckpoint, Long> {
+
+    Optional<SaldoCheckpoint> findFirstByCuentaIdOrderBySecuenciaDesc(Long cuentaId);
+}
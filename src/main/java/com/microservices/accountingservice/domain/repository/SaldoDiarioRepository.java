@@ -0,0 +1,42 @@
+package com.microservices.accountingservice.domain.repository;
+
+import com.microservices.accountingservice.domain.entity.SaldoDiario;
+import com.microservices.accountingservice.domain.projection.TotalesMovimientos;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SaldoDiarioRepository extends JpaRepository<SaldoDiario, Long> {
+
+    List<SaldoDiario> findByCuentaIdInAndFechaIn(Collection<Long> cuentaIds, Collection<LocalDate> fechas);
+
+    // Último agregado de cada cuenta anterior a la fecha indicada
+    @Query("SELECT s FROM SaldoDiario s WHERE s.cuentaId IN :cuentaIds AND s.fecha = " +
+           "(SELECT MAX(s2.fecha) FROM SaldoDiario s2 WHERE s2.cuentaId = s.cuentaId AND s2.fecha < :fecha)")
+    List<SaldoDiario> findUltimosAnterioresA(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                             @Param("fecha") LocalDate fecha);
+
+    // Primer agregado de cada cuenta
+    @Query("SELECT s FROM SaldoDiario s WHERE s.cuentaId IN :cuentaIds AND s.fecha = " +
+           "(SELECT MIN(s2.fecha) FROM SaldoDiario s2 WHERE s2.cuentaId = s.cuentaId)")
+    List<SaldoDiario> findPrimerosByCuentaIdIn(@Param("cuentaIds") Collection<Long> cuentaIds);
+
+    @Query("SELECT new com.microservices.accountingservice.domain.projection.TotalesMovimientos(" +
+           "s.cuentaId, SUM(CAST(s.totalDepositos AS BigDecimal)), SUM(CAST(s.totalRetiros AS BigDecimal)), SUM(s.cantidadMovimientos)) " +
+           "FROM SaldoDiario s WHERE s.cuentaId IN :cuentaIds AND s.fecha > :desde AND s.fecha < :hasta " +
+           "GROUP BY s.cuentaId")
+    List<TotalesMovimientos> sumarEntreFechasExclusivas(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                                        @Param("desde") LocalDate desde,
+                                                        @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @Query("DELETE FROM SaldoDiario s WHERE s.cuentaId = :cuentaId")
+    int deleteByCuentaId(@Param("cuentaId") Long cuentaId);
+}
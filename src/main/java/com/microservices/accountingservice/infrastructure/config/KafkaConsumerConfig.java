@@ -0,0 +1,39 @@
+package com.microservices.accountingservice.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Contenedor para listeners por lotes: cada poll llega completo al listener y sus
+     * offsets se confirman al terminar el lote. Si el lote falla se reintenta entero con
+     * espera creciente en lugar de descartarlo; la proyección descarta lo ya aplicado.
+     * Usa la fábrica de consumidores de Spring Boot, que ya publica las métricas del
+     * cliente Kafka (incluido records-lag por partición).
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> loteKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${accounting.kafka.lote.backoff-inicial-ms:500}") long backoffInicialMs,
+            @Value("${accounting.kafka.lote.backoff-maximo-ms:30000}") long backoffMaximoMs) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(backoffInicialMs, 2.0);
+        backOff.setMaxInterval(backoffMaximoMs);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+}
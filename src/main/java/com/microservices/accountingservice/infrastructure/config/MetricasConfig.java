@@ -0,0 +1,33 @@
+package com.microservices.accountingservice.infrastructure.config;
+
+import com.microservices.accountingservice.infrastructure.sql.ContadorSentencias;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita {@code @Timed} en los servicios. Cada método público queda medido en
+ * {@code accounting.servicio} con las etiquetas {@code class}, {@code method} y
+ * {@code exception}; las consultas de los repositorios se miden aparte en
+ * {@code accounting.repositorio} (ver application.yml). La diferencia entre ambos es
+ * el tiempo de mapeo y lógica fuera de la base de datos.
+ *
+ * <p>También registra {@link ContadorSentencias} en Hibernate para contar las
+ * sentencias SQL de cada solicitud.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasCustomizer() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSentencias());
+    }
+}
@@ -1,14 +1,26 @@
 package com.microservices.accountingservice.infrastructure.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.application.importacion.LectorCuentas;
 import com.microservices.accountingservice.application.service.CuentaService;
+import com.microservices.accountingservice.application.service.SaldoDiarioService;
+import com.microservices.accountingservice.application.service.SaldoService;
 import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.dto.ReconstruccionSaldosDiariosDto;
+import com.microservices.accountingservice.domain.dto.VerificacionSaldoDto;
+import com.microservices.accountingservice.infrastructure.datasource.ContextoRuteo;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,6 +31,9 @@ import java.util.List;
 public class CuentaController {
 
     private final CuentaService cuentaService;
+    private final SaldoService saldoService;
+    private final SaldoDiarioService saldoDiarioService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<CuentaDto> crearCuenta(@Valid @RequestBody CuentaDto cuentaDto) {
@@ -27,6 +42,34 @@ public class CuentaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(cuentaCreada);
     }
 
+    /**
+     * Alta masiva desde un archivo CSV ({@code text/csv}) o NDJSON
+     * ({@code application/x-ndjson}). La cabecera CSV se valida antes de responder; el
+     * resto del archivo se lee mientras se escribe el avance.
+     */
+    @PostMapping(value = "/importacion", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importarCuentas(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipoContenido,
+            InputStream cuerpo) throws IOException {
+        log.info("POST /api/cuentas/importacion - Importando cuentas desde {}", tipoContenido);
+        LectorCuentas.Formato formato = MediaType.APPLICATION_NDJSON.isCompatibleWith(tipoContenido)
+            ? LectorCuentas.Formato.NDJSON
+            : LectorCuentas.Formato.CSV;
+        LectorCuentas lector = LectorCuentas.abrir(cuerpo, formato, objectMapper);
+
+        StreamingResponseBody respuesta = salida -> {
+            try {
+                cuentaService.importarCuentas(lector, salida);
+            } finally {
+                // Corre en un hilo del ejecutor asíncrono, fuera del filtro que limpia el contexto
+                ContextoRuteo.limpiar();
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(respuesta);
+    }
+
     @GetMapping
     public ResponseEntity<List<CuentaDto>> obtenerCuentas(
             @RequestParam(required = false) Long clienteId,
@@ -67,5 +110,26 @@ public class CuentaController {
         return ResponseEntity.ok(cuentaDesactivada);
     }
 
+    @GetMapping("/{id}/saldo/verificacion")
+    public ResponseEntity<VerificacionSaldoDto> verificarSaldo(@PathVariable Long id) {
+        log.info("GET /api/cuentas/{}/saldo/verificacion - Verificando saldo", id);
+        VerificacionSaldoDto verificacion = saldoService.verificarSaldo(id);
+        return ResponseEntity.ok(verificacion);
+    }
+
+    @PostMapping("/{id}/saldo/reconstruccion")
+    public ResponseEntity<VerificacionSaldoDto> reconstruirSaldo(@PathVariable Long id) {
+        log.info("POST /api/cuentas/{}/saldo/reconstruccion - Reconstruyendo saldo", id);
+        VerificacionSaldoDto verificacion = saldoService.reconstruirSaldo(id);
+        return ResponseEntity.ok(verificacion);
+    }
+
+    @PostMapping("/{id}/saldos-diarios/reconstruccion")
+    public ResponseEntity<ReconstruccionSaldosDiariosDto> reconstruirSaldosDiarios(@PathVariable Long id) {
+        log.info("POST /api/cuentas/{}/saldos-diarios/reconstruccion - Reconstruyendo saldos diarios", id);
+        int dias = saldoDiarioService.reconstruir(id);
+        return ResponseEntity.ok(new ReconstruccionSaldosDiariosDto(id, dias));
+    }
+
 }
 
@@ -1,7 +1,9 @@
 package com.microservices.accountingservice.infrastructure.controller;
 
 import com.microservices.accountingservice.application.service.MovimientoService;
+import com.microservices.accountingservice.domain.dto.LoteMovimientosResultadoDto;
 import com.microservices.accountingservice.domain.dto.MovimientoDto;
+import com.microservices.accountingservice.domain.dto.PaginaMovimientosDto;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,38 +25,51 @@ public class MovimientoController {
     private final MovimientoService movimientoService;
 
     @PostMapping
-    public ResponseEntity<MovimientoDto> crearMovimiento(@Valid @RequestBody MovimientoDto movimientoDto) {
+    public ResponseEntity<MovimientoDto> crearMovimiento(
+            @Valid @RequestBody MovimientoDto movimientoDto,
+            @RequestHeader(name = "Idempotency-Key", required = false) String claveIdempotencia) {
         log.info("POST /api/movimientos - Creando movimiento de tipo: {} por valor: {}", 
                 movimientoDto.getTipoMovimiento(), movimientoDto.getValor());
-        MovimientoDto movimientoCreado = movimientoService.crearMovimiento(movimientoDto);
+        MovimientoDto movimientoCreado = movimientoService.crearMovimiento(movimientoDto, claveIdempotencia);
         return ResponseEntity.status(HttpStatus.CREATED).body(movimientoCreado);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<LoteMovimientosResultadoDto> crearMovimientosEnLote(@RequestBody List<MovimientoDto> movimientos) {
+        log.info("POST /api/movimientos/batch - Creando lote de {} movimientos", movimientos.size());
+        LoteMovimientosResultadoDto resultado = movimientoService.crearMovimientosEnLote(movimientos);
+        return ResponseEntity.ok(resultado);
+    }
+
     @GetMapping
-    public ResponseEntity<List<MovimientoDto>> obtenerTodosLosMovimientos() {
-        log.info("GET /api/movimientos - Obteniendo todos los movimientos");
-        List<MovimientoDto> movimientos = movimientoService.obtenerTodosLosMovimientos();
-        return ResponseEntity.ok(movimientos);
+    public ResponseEntity<PaginaMovimientosDto> obtenerMovimientos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        log.info("GET /api/movimientos - Obteniendo página de movimientos");
+        PaginaMovimientosDto pagina = movimientoService.obtenerMovimientos(cursor, limite);
+        return ResponseEntity.ok(pagina);
     }
 
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<MovimientoDto>> obtenerMovimientosPorCliente(
+    public ResponseEntity<PaginaMovimientosDto> obtenerMovimientosPorCliente(
             @PathVariable Long clienteId,
             @RequestParam(required = false) Long cuentaId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
         log.info("GET /api/movimientos/cliente/{} - Obteniendo movimientos del cliente", clienteId);
-        List<MovimientoDto> movimientos;
+        PaginaMovimientosDto pagina;
         
         if (cuentaId != null) {
-            movimientos = movimientoService.obtenerMovimientosPorCuenta(cuentaId);
+            pagina = movimientoService.obtenerMovimientosPorCuenta(cuentaId, cursor, limite);
         } else if (fechaInicio != null && fechaFin != null) {
-            movimientos = movimientoService.obtenerMovimientosPorClienteYFecha(clienteId, fechaInicio, fechaFin);
+            pagina = movimientoService.obtenerMovimientosPorClienteYFecha(clienteId, fechaInicio, fechaFin, cursor, limite);
         } else {
-            movimientos = movimientoService.obtenerMovimientosPorCliente(clienteId);
+            pagina = movimientoService.obtenerMovimientosPorCliente(clienteId, cursor, limite);
         }
         
-        return ResponseEntity.ok(movimientos);
+        return ResponseEntity.ok(pagina);
     }
 
     @GetMapping("/{id}")
@@ -5,8 +5,10 @@ import com.microservices.accountingservice.domain.dto.ReporteEstadoCuentaDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 
@@ -23,13 +25,31 @@ public class ReporteController {
     public ResponseEntity<ReporteEstadoCuentaDto> generarReporteEstadoCuenta(
             @RequestParam Long cliente,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(defaultValue = "true") boolean incluirMovimientos) {
         
         log.info("GET /api/reportes/estado-cuenta - Generando reporte para cliente: {} entre {} y {}", 
                 cliente, fechaInicio, fechaFin);
         
-        ReporteEstadoCuentaDto reporte = reporteService.generarReporteEstadoCuenta(cliente, fechaInicio, fechaFin);
+        ReporteEstadoCuentaDto reporte = reporteService.generarReporteEstadoCuenta(cliente, fechaInicio, fechaFin, incluirMovimientos);
         return ResponseEntity.ok(reporte);
     }
+
+    @GetMapping(params = "formato=ndjson")
+    public ResponseEntity<StreamingResponseBody> generarReporteEstadoCuentaStream(
+            @RequestParam Long cliente,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(defaultValue = "true") boolean incluirMovimientos) {
+
+        log.info("GET /api/reportes?formato=ndjson - Generando reporte en streaming para cliente: {} entre {} y {}",
+                cliente, fechaInicio, fechaFin);
+
+        StreamingResponseBody cuerpo = salida ->
+            reporteService.escribirReporteEstadoCuenta(cliente, fechaInicio, fechaFin, incluirMovimientos, salida);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(cuerpo);
+    }
 }
 
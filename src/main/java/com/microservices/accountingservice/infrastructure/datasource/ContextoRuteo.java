@@ -0,0 +1,73 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Estado de ruteo del hilo actual. {@link LecturaReplicaAspect} marca las lecturas de
+ * los servicios que pueden ir a una réplica y {@link RuteoDataSource} marca el hilo en
+ * cuanto toma una conexión para escribir: desde ahí sus lecturas van a la primaria hasta
+ * que {@link ContextoRuteoFilter} limpia el estado al terminar la solicitud.
+ *
+ * <p>Leer lo propio escrito se garantiza solo dentro de una solicitud: la siguiente
+ * solicitud del mismo cliente empieza sin marca y puede leer de una réplica que todavía
+ * no tiene su escritura, hasta {@code accounting.datasource.retraso-maximo} atrasada.
+ *
+ * <p>Los hilos fuera de solicitudes HTTP (consumidores de Kafka, tareas programadas)
+ * no se limpian: después de su primera escritura leen siempre de la primaria.
+ */
+public final class ContextoRuteo {
+
+    private static final ThreadLocal<Boolean> LECTURA_REPLICA = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> ESCRITURA = new ThreadLocal<>();
+
+    private ContextoRuteo() {
+    }
+
+    /**
+     * Marca el hilo como dentro de una lectura que admite réplica. Devuelve el valor
+     * anterior para restaurarlo con {@link #restaurarLecturaReplica(Boolean)}.
+     */
+    static Boolean iniciarLecturaReplica() {
+        Boolean anterior = LECTURA_REPLICA.get();
+        LECTURA_REPLICA.set(Boolean.TRUE);
+        return anterior;
+    }
+
+    /**
+     * Ejecuta una lectura que admite réplica sin pasar por {@link LecturaReplicaAspect},
+     * p. ej. una transacción de solo lectura abierta con un {@code TransactionTemplate}.
+     */
+    public static <T> T enLecturaReplica(Supplier<T> lectura) {
+        Boolean anterior = iniciarLecturaReplica();
+        try {
+            return lectura.get();
+        } finally {
+            restaurarLecturaReplica(anterior);
+        }
+    }
+
+    static void restaurarLecturaReplica(Boolean anterior) {
+        if (anterior == null) {
+            LECTURA_REPLICA.remove();
+        } else {
+            LECTURA_REPLICA.set(anterior);
+        }
+    }
+
+    static boolean admiteReplica() {
+        return Boolean.TRUE.equals(LECTURA_REPLICA.get());
+    }
+
+    static void marcarEscritura() {
+        ESCRITURA.set(Boolean.TRUE);
+    }
+
+    static boolean huboEscritura() {
+        return Boolean.TRUE.equals(ESCRITURA.get());
+    }
+
+    public static void limpiar() {
+        LECTURA_REPLICA.remove();
+        ESCRITURA.remove();
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Limpia el {@link ContextoRuteo} de cada solicitud: una escritura fija la primaria
+ * solo para las lecturas posteriores de la misma solicitud.
+ */
+public class ContextoRuteoFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContextoRuteo.limpiar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoRuteo.limpiar();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+
+/**
+ * Permite ir a una réplica a los métodos {@code @Transactional(readOnly = true)} de los
+ * servicios de aplicación, declarados en el método o en la clase. El resto de lecturas
+ * de solo lectura (p. ej. los métodos heredados de los repositorios llamados fuera de
+ * una transacción de servicio, como la caché de cuentas o las claves de idempotencia
+ * antes de contabilizar) sigue en la primaria.
+ */
+@Aspect
+public class LecturaReplicaAspect {
+
+    @Around("execution(public * com.microservices.accountingservice.application.service..*(..)) && " +
+            "(@annotation(org.springframework.transaction.annotation.Transactional) || " +
+            "@within(org.springframework.transaction.annotation.Transactional))")
+    public Object marcarLectura(ProceedingJoinPoint punto) throws Throwable {
+        if (!esSoloLectura(punto)) {
+            return punto.proceed();
+        }
+        Boolean anterior = ContextoRuteo.iniciarLecturaReplica();
+        try {
+            return punto.proceed();
+        } finally {
+            ContextoRuteo.restaurarLecturaReplica(anterior);
+        }
+    }
+
+    private static boolean esSoloLectura(ProceedingJoinPoint punto) {
+        Method metodo = ((MethodSignature) punto.getSignature()).getMethod();
+        Transactional transaccional = AnnotatedElementUtils.findMergedAnnotation(metodo, Transactional.class);
+        if (transaccional == null) {
+            transaccional = AnnotatedElementUtils.findMergedAnnotation(punto.getTarget().getClass(), Transactional.class);
+        }
+        return transaccional != null && transaccional.readOnly();
+    }
+}
@@ -0,0 +1,113 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mide periódicamente el retraso de cada réplica. Una réplica está disponible si
+ * responde y su retraso no supera {@code accounting.datasource.retraso-maximo}; una
+ * réplica que no informa retraso (replicación detenida, consulta fallida) no lo está.
+ * Publica {@code accounting.datasource.replica.retraso} y
+ * {@code accounting.datasource.replica.disponible} por réplica.
+ */
+@Slf4j
+public class MonitorReplicas {
+
+    private static final class Estado {
+        final HikariDataSource dataSource;
+        volatile double retraso = Double.NaN;
+        volatile boolean disponible;
+
+        Estado(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Estado> estados = new ArrayList<>();
+    private final PropiedadesReplicas propiedades;
+    private final AtomicInteger turno = new AtomicInteger();
+
+    public MonitorReplicas(List<HikariDataSource> replicas, PropiedadesReplicas propiedades, MeterRegistry meterRegistry) {
+        this.propiedades = propiedades;
+        for (HikariDataSource replica : replicas) {
+            Estado estado = new Estado(replica);
+            estados.add(estado);
+            Gauge.builder("accounting.datasource.replica.retraso", estado, e -> e.retraso)
+                .description("Retraso de la réplica en segundos; NaN si no se pudo medir")
+                .baseUnit("seconds")
+                .tag("replica", replica.getPoolName())
+                .register(meterRegistry);
+            Gauge.builder("accounting.datasource.replica.disponible", estado, e -> e.disponible ? 1 : 0)
+                .description("1 si la réplica recibe lecturas")
+                .tag("replica", replica.getPoolName())
+                .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${accounting.datasource.verificacion-intervalo-ms:2000}")
+    public void verificar() {
+        for (Estado estado : estados) {
+            double retraso = medirRetraso(estado.dataSource);
+            boolean disponible = !Double.isNaN(retraso) && retraso <= propiedades.retrasoMaximo().toSeconds();
+            if (disponible != estado.disponible) {
+                log.warn("Réplica {} {} (retraso: {} s)", estado.dataSource.getPoolName(),
+                        disponible ? "disponible" : "fuera de servicio, lecturas a la primaria", retraso);
+            }
+            estado.retraso = retraso;
+            estado.disponible = disponible;
+        }
+    }
+
+    List<HikariDataSource> replicas() {
+        return estados.stream().map(estado -> estado.dataSource).toList();
+    }
+
+    /**
+     * Nombre de pool de la siguiente réplica disponible, por turnos, o {@code null} si
+     * no hay ninguna.
+     */
+    String siguienteDisponible() {
+        int cantidad = estados.size();
+        if (cantidad == 0) {
+            return null;
+        }
+        int inicio = Math.floorMod(turno.getAndIncrement(), cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Estado estado = estados.get((inicio + i) % cantidad);
+            if (estado.disponible) {
+                return estado.dataSource.getPoolName();
+            }
+        }
+        return null;
+    }
+
+    private double medirRetraso(HikariDataSource replica) {
+        try (Connection conexion = replica.getConnection()) {
+            if (propiedades.consultaRetraso().isBlank()) {
+                return conexion.isValid(1) ? 0 : Double.NaN;
+            }
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet filas = sentencia.executeQuery(propiedades.consultaRetraso())) {
+                if (!filas.next()) {
+                    return Double.NaN;
+                }
+                long segundos = filas.getLong(propiedades.columnaRetraso());
+                return filas.wasNull() ? Double.NaN : segundos;
+            }
+        } catch (SQLException e) {
+            log.debug("No se pudo medir el retraso de la réplica {}: {}", replica.getPoolName(), e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Réplicas de lectura ({@code accounting.datasource}). El retraso de cada réplica se
+ * lee con {@code consultaRetraso}, de la columna {@code columnaRetraso} de la primera
+ * fila, en segundos; sin consulta solo se comprueba la conexión.
+ */
+@ConfigurationProperties(prefix = "accounting.datasource")
+public record PropiedadesReplicas(
+    List<Replica> replicas,
+    Duration retrasoMaximo,
+    String consultaRetraso,
+    String columnaRetraso
+) {
+
+    public PropiedadesReplicas {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+        retrasoMaximo = retrasoMaximo == null ? Duration.ofSeconds(5) : retrasoMaximo;
+        consultaRetraso = consultaRetraso == null ? "SHOW REPLICA STATUS" : consultaRetraso;
+        columnaRetraso = columnaRetraso == null ? "Seconds_Behind_Source" : columnaRetraso;
+    }
+
+    // Los valores que falten se toman de spring.datasource
+    public record Replica(String url, String username, String password, Integer maximoConexiones) {
+    }
+}
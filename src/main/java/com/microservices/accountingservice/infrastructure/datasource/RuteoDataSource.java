@@ -0,0 +1,98 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elige el pool de cada conexión: las transacciones de solo lectura que
+ * {@link LecturaReplicaAspect} marcó van a una réplica disponible por turnos; todo lo
+ * demás va a la primaria. Una lectura vuelve a la primaria si el hilo ya escribió en la
+ * solicitud o si ninguna réplica está dentro del retraso máximo.
+ *
+ * <p>La decisión se toma al pedir la conexión, por lo que debe ir detrás de un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: así la
+ * conexión se pide en la primera sentencia, cuando la transacción ya está marcada como
+ * de solo lectura.
+ */
+public class RuteoDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARIA = "primaria";
+
+    private final HikariDataSource primaria;
+    private final List<HikariDataSource> replicas;
+    private final MonitorReplicas monitor;
+    private final Map<String, Counter> lecturasReplica = new HashMap<>();
+    private final Counter escrituras;
+    private final Counter lecturasPrimaria;
+    private final Counter lecturasTrasEscritura;
+    private final Counter lecturasSinReplica;
+
+    public RuteoDataSource(HikariDataSource primaria, List<HikariDataSource> replicas, MonitorReplicas monitor,
+                           MeterRegistry meterRegistry) {
+        this.primaria = primaria;
+        this.replicas = replicas;
+        this.monitor = monitor;
+
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIA, primaria);
+        for (HikariDataSource replica : replicas) {
+            destinos.put(replica.getPoolName(), replica);
+            lecturasReplica.put(replica.getPoolName(), conexiones(meterRegistry, replica.getPoolName(), "lectura"));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+
+        this.escrituras = conexiones(meterRegistry, PRIMARIA, "escritura");
+        this.lecturasPrimaria = conexiones(meterRegistry, PRIMARIA, "lectura");
+        this.lecturasTrasEscritura = conexiones(meterRegistry, PRIMARIA, "tras-escritura");
+        this.lecturasSinReplica = conexiones(meterRegistry, PRIMARIA, "sin-replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ContextoRuteo.marcarEscritura();
+            }
+            escrituras.increment();
+            return PRIMARIA;
+        }
+        if (!ContextoRuteo.admiteReplica()) {
+            lecturasPrimaria.increment();
+            return PRIMARIA;
+        }
+        if (ContextoRuteo.huboEscritura()) {
+            lecturasTrasEscritura.increment();
+            return PRIMARIA;
+        }
+        String replica = monitor.siguienteDisponible();
+        if (replica == null) {
+            lecturasSinReplica.increment();
+            return PRIMARIA;
+        }
+        lecturasReplica.get(replica).increment();
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primaria.close();
+    }
+
+    private static Counter conexiones(MeterRegistry meterRegistry, String destino, String motivo) {
+        return Counter.builder("accounting.datasource.conexiones")
+            .description("Conexiones entregadas por el ruteo, por pool de destino y motivo")
+            .tag("destino", destino)
+            .tag("motivo", motivo)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Con al menos una réplica en {@code accounting.datasource.replicas} reemplaza el
+ * DataSource de Spring Boot por un {@link RuteoDataSource}: la primaria se arma con
+ * {@code spring.datasource} y cada réplica hereda de ahí lo que no defina, incluida la
+ * configuración de {@code spring.datasource.hikari}. Los pools se llaman
+ * {@code primaria}, {@code replica-1}, {@code replica-2}, ... y publican sus métricas
+ * {@code hikaricp.connections.*} con la etiqueta {@code pool}.
+ *
+ * <p>Sin réplicas no se crea nada y todo va al DataSource de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "accounting.datasource.replicas[0].url")
+@EnableConfigurationProperties(PropiedadesReplicas.class)
+public class RuteoDataSourceConfig {
+
+    @Bean
+    public MonitorReplicas monitorReplicas(DataSourceProperties dataSourceProperties, PropiedadesReplicas propiedades,
+                                           Environment environment, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        int numero = 1;
+        for (PropiedadesReplicas.Replica replica : propiedades.replicas()) {
+            HikariDataSource pool = pool(dataSourceProperties, environment, meterRegistry, "replica-" + numero++);
+            pool.setJdbcUrl(replica.url());
+            if (replica.username() != null) {
+                pool.setUsername(replica.username());
+                pool.setPassword(replica.password());
+            }
+            if (replica.maximoConexiones() != null) {
+                pool.setMaximumPoolSize(replica.maximoConexiones());
+            }
+            // Una réplica solo recibe lecturas
+            pool.setReadOnly(true);
+            replicas.add(pool);
+        }
+        MonitorReplicas monitor = new MonitorReplicas(replicas, propiedades, meterRegistry);
+        monitor.verificar();
+        return monitor;
+    }
+
+    @Bean
+    public RuteoDataSource ruteoDataSource(DataSourceProperties dataSourceProperties, Environment environment,
+                                           MonitorReplicas monitorReplicas, MeterRegistry meterRegistry) {
+        HikariDataSource primaria = pool(dataSourceProperties, environment, meterRegistry, RuteoDataSource.PRIMARIA);
+        return new RuteoDataSource(primaria, monitorReplicas.replicas(), monitorReplicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RuteoDataSource ruteoDataSource) {
+        return new LazyConnectionDataSourceProxy(ruteoDataSource);
+    }
+
+    @Bean
+    public LecturaReplicaAspect lecturaReplicaAspect() {
+        return new LecturaReplicaAspect();
+    }
+
+    @Bean
+    public ContextoRuteoFilter contextoRuteoFilter() {
+        return new ContextoRuteoFilter();
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSourceProperties, Environment environment,
+                                         MeterRegistry meterRegistry, String nombre) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nombre);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
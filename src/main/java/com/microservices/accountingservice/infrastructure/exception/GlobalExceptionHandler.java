@@ -1,6 +1,8 @@
 package com.microservices.accountingservice.infrastructure.exception;
 
 import com.microservices.accountingservice.domain.exception.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,12 +16,16 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(CuentaNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleCuentaNotFoundException(CuentaNotFoundException ex) {
         log.error("Cuenta no encontrada: {}", ex.getMessage());
+        contar("CUENTA_NOT_FOUND");
         ErrorResponse error = new ErrorResponse(
             "CUENTA_NOT_FOUND",
             ex.getMessage(),
@@ -31,6 +37,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MovimientoNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleMovimientoNotFoundException(MovimientoNotFoundException ex) {
         log.error("Movimiento no encontrado: {}", ex.getMessage());
+        contar("MOVIMIENTO_NOT_FOUND");
         ErrorResponse error = new ErrorResponse(
             "MOVIMIENTO_NOT_FOUND",
             ex.getMessage(),
@@ -39,9 +46,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(MovimientoArchivadoException.class)
+    public ResponseEntity<ErrorResponse> handleMovimientoArchivadoException(MovimientoArchivadoException ex) {
+        log.warn("Movimiento archivado: {}", ex.getMessage());
+        contar("MOVIMIENTO_ARCHIVADO");
+        ErrorResponse error = new ErrorResponse(
+            "MOVIMIENTO_ARCHIVADO",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(MovimientoInmutableException.class)
+    public ResponseEntity<ErrorResponse> handleMovimientoInmutableException(MovimientoInmutableException ex) {
+        log.warn("Movimiento inmutable: {}", ex.getMessage());
+        contar("MOVIMIENTO_INMUTABLE");
+        ErrorResponse error = new ErrorResponse(
+            "MOVIMIENTO_INMUTABLE",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(SaldoNoDisponibleException.class)
     public ResponseEntity<ErrorResponse> handleSaldoNoDisponibleException(SaldoNoDisponibleException ex) {
         log.error("Saldo no disponible: {}", ex.getMessage());
+        contar("SALDO_NO_DISPONIBLE");
         ErrorResponse error = new ErrorResponse(
             "SALDO_NO_DISPONIBLE",
             ex.getMessage(),
@@ -53,6 +85,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(CuentaAlreadyExistsException.class)
     public ResponseEntity<ErrorResponse> handleCuentaAlreadyExistsException(CuentaAlreadyExistsException ex) {
         log.error("Cuenta ya existe: {}", ex.getMessage());
+        contar("CUENTA_ALREADY_EXISTS");
         ErrorResponse error = new ErrorResponse(
             "CUENTA_ALREADY_EXISTS",
             ex.getMessage(),
@@ -61,6 +94,90 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(CuentaOcupadaException.class)
+    public ResponseEntity<ErrorResponse> handleCuentaOcupadaException(CuentaOcupadaException ex) {
+        log.warn("Cuenta ocupada: {}", ex.getMessage());
+        contar("CUENTA_OCUPADA");
+        ErrorResponse error = new ErrorResponse(
+            "CUENTA_OCUPADA",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    @ExceptionHandler(ConflictoConcurrenciaException.class)
+    public ResponseEntity<ErrorResponse> handleConflictoConcurrenciaException(ConflictoConcurrenciaException ex) {
+        log.warn("Conflicto de concurrencia: {}", ex.getMessage());
+        contar("CONFLICTO_CONCURRENCIA");
+        ErrorResponse error = new ErrorResponse(
+            "CONFLICTO_CONCURRENCIA",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(LoteInvalidoException.class)
+    public ResponseEntity<ErrorResponse> handleLoteInvalidoException(LoteInvalidoException ex) {
+        log.error("Lote inválido: {}", ex.getMessage());
+        contar("LOTE_INVALIDO");
+        ErrorResponse error = new ErrorResponse(
+            "LOTE_INVALIDO",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ImportacionInvalidaException.class)
+    public ResponseEntity<ErrorResponse> handleImportacionInvalidaException(ImportacionInvalidaException ex) {
+        log.error("Importación inválida: {}", ex.getMessage());
+        contar("IMPORTACION_INVALIDA");
+        ErrorResponse error = new ErrorResponse(
+            "IMPORTACION_INVALIDA",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<ErrorResponse> handleCursorInvalidoException(CursorInvalidoException ex) {
+        log.error("Cursor inválido: {}", ex.getMessage());
+        contar("CURSOR_INVALIDO");
+        ErrorResponse error = new ErrorResponse(
+            "CURSOR_INVALIDO",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ClienteNoDisponibleException.class)
+    public ResponseEntity<ErrorResponse> handleClienteNoDisponibleException(ClienteNoDisponibleException ex) {
+        log.error("Cliente no disponible: {}", ex.getMessage());
+        contar("CLIENTE_NO_DISPONIBLE");
+        ErrorResponse error = new ErrorResponse(
+            "CLIENTE_NO_DISPONIBLE",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ClaveIdempotenciaInvalidaException.class)
+    public ResponseEntity<ErrorResponse> handleClaveIdempotenciaInvalidaException(ClaveIdempotenciaInvalidaException ex) {
+        log.error("Clave de idempotencia inválida: {}", ex.getMessage());
+        contar("CLAVE_IDEMPOTENCIA_INVALIDA");
+        ErrorResponse error = new ErrorResponse(
+            "CLAVE_IDEMPOTENCIA_INVALIDA",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         log.error("Error de validación: {}", ex.getMessage());
@@ -71,6 +188,7 @@ public class GlobalExceptionHandler {
             errors.put(fieldName, errorMessage);
         });
         
+        contar("VALIDATION_ERROR");
         ValidationErrorResponse error = new ValidationErrorResponse(
             "VALIDATION_ERROR",
             "Error de validación en los datos enviados",
@@ -83,6 +201,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         log.error("Error interno del servidor: {}", ex.getMessage(), ex);
+        contar("INTERNAL_SERVER_ERROR");
         ErrorResponse error = new ErrorResponse(
             "INTERNAL_SERVER_ERROR",
             "Error interno del servidor",
@@ -91,6 +210,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    // Un contador por código de error, incluidos SALDO_NO_DISPONIBLE y CUENTA_NOT_FOUND
+    private void contar(String codigo) {
+        meterRegistry.counter("accounting.api.errores", "codigo", codigo).increment();
+    }
+
     public static class ErrorResponse {
         private String code;
         private String message;
@@ -1,39 +1,74 @@
 package com.microservices.accountingservice.infrastructure.messaging;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.microservices.accountingservice.domain.event.CuentaEvent;
-import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import com.microservices.accountingservice.domain.event.EventoCodec;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envía a Kafka los eventos ya serializados en la tabla outbox. Solo lo usa
+ * {@link OutboxRelay}; los servicios publican eventos de aplicación.
+ *
+ * <p>El envío no bloquea: el productor agrupa y comprime los mensajes por partición, y
+ * al confirmarse cada uno se registran la latencia de publicación
+ * ({@code accounting.eventos.publicacion}, por tópico y resultado) y su tamaño
+ * serializado ({@code accounting.eventos.bytes}).
+ *
+ * <p>Cada mensaje lleva la cabecera {@code formato} ({@code json} o {@code binario})
+ * para que los consumidores sepan cómo leerlo sin inspeccionar el contenido.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AccountingEventProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
-
-    public void publishCuentaEvent(CuentaEvent evento) {
-        try {
-            String mensaje = objectMapper.writeValueAsString(evento);
-            kafkaTemplate.send("cuenta-events", mensaje);
-            log.info("Evento de cuenta publicado: {}", evento.getEventType());
-        } catch (JsonProcessingException e) {
-            log.error("Error al serializar evento de cuenta: {}", e.getMessage());
-        }
+    public static final String CABECERA_FORMATO = "formato";
+
+    private static final byte[] FORMATO_BINARIO = "binario".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FORMATO_JSON = "json".getBytes(StandardCharsets.UTF_8);
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Con la misma clave los mensajes van a la misma partición y conservan su orden
+    public CompletableFuture<SendResult<String, byte[]>> publicar(String topico, String clave, byte[] mensaje) {
+        ProducerRecord<String, byte[]> registro = new ProducerRecord<>(topico, clave, mensaje);
+        registro.headers().add(CABECERA_FORMATO, EventoCodec.esBinario(mensaje) ? FORMATO_BINARIO : FORMATO_JSON);
+
+        long inicio = System.nanoTime();
+        return kafkaTemplate.send(registro).whenComplete((resultado, error) -> {
+            latencia(topico, error == null ? "ok" : "error").record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            if (error == null) {
+                tamano(topico).record(resultado.getRecordMetadata().serializedValueSize());
+            } else {
+                log.warn("Kafka rechazó el evento de la cuenta {} en {}: {}", clave, topico, error.getMessage());
+            }
+        });
+    }
+
+    private Timer latencia(String topico, String resultado) {
+        return Timer.builder("accounting.eventos.publicacion")
+            .description("Tiempo desde el envío hasta la confirmación de Kafka")
+            .tag("topico", topico)
+            .tag("resultado", resultado)
+            .register(meterRegistry);
     }
 
-    public void publishMovimientoEvent(MovimientoEvent evento) {
-        try {
-            String mensaje = objectMapper.writeValueAsString(evento);
-            kafkaTemplate.send("movimiento-events", mensaje);
-            log.info("Evento de movimiento publicado: {}", evento.getEventType());
-        } catch (JsonProcessingException e) {
-            log.error("Error al serializar evento de movimiento: {}", e.getMessage());
-        }
+    private DistributionSummary tamano(String topico) {
+        return DistributionSummary.builder("accounting.eventos.bytes")
+            .description("Tamaño serializado del evento antes de comprimir")
+            .baseUnit("bytes")
+            .tag("topico", topico)
+            .register(meterRegistry);
     }
 }
@@ -1,31 +1,123 @@
 package com.microservices.accountingservice.infrastructure.messaging;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
 import com.microservices.accountingservice.domain.event.ClienteEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene la proyección local de clientes. Cada instancia usa su propio grupo de
+ * consumo para recibir todas las particiones, y al asignárselas retoma cada una desde
+ * el offset guardado con la proyección: al arrancar solo se leen los eventos que
+ * llegaron después del último aplicado.
+ *
+ * <p>Los eventos se consumen por lotes (hasta {@code max-registros-lote} por poll) con
+ * {@code concurrencia} hilos; cada hilo atiende sus propias particiones, así que el
+ * orden dentro de una partición se conserva. Un lote se aplica en una sola transacción
+ * y sus offsets se confirman al terminar.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class ClienteEventConsumer {
+public class ClienteEventConsumer extends AbstractConsumerSeekAware {
+
+    private static final String TOPICO = "cliente-events";
 
     private final ObjectMapper objectMapper;
+    private final ClienteProyeccionService clienteProyeccionService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Integer, AtomicLong> retrasos = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        Map<Integer, Long> offsets = clienteProyeccionService.obtenerOffsets(TOPICO);
+        for (TopicPartition particion : assignments.keySet()) {
+            Long ultimo = offsets.get(particion.partition());
+            if (ultimo != null) {
+                callback.seek(particion.topic(), particion.partition(), ultimo + 1);
+            } else {
+                callback.seekToBeginning(particion.topic(), particion.partition());
+            }
+        }
+        log.info("Proyección de clientes retomada en {} particiones", assignments.size());
+    }
+
+    @KafkaListener(
+        topics = TOPICO,
+        groupId = "${accounting.clientes.proyeccion.grupo:accounting-service-group}",
+        containerFactory = "loteKafkaListenerContainerFactory",
+        concurrency = "${accounting.clientes.proyeccion.concurrencia:3}",
+        properties = "max.poll.records=${accounting.clientes.proyeccion.max-registros-lote:1000}",
+        autoStartup = "${accounting.clientes.proyeccion.habilitada:true}")
+    public void handleClienteEvents(List<ConsumerRecord<String, String>> registros, Consumer<?, ?> consumer) {
+        List<EventoCliente> eventos = new ArrayList<>(registros.size());
+        for (ConsumerRecord<String, String> registro : registros) {
+            try {
+                ClienteEvent evento = objectMapper.readValue(registro.value(), ClienteEvent.class);
+                eventos.add(new EventoCliente(evento, registro.topic(), registro.partition(), registro.offset()));
+            } catch (JsonProcessingException e) {
+                // Un mensaje ilegible no se arregla reintentando: se cuenta y se sigue
+                contador("invalido", registro.partition()).increment();
+                log.error("Evento de cliente ilegible en {}-{}@{}: {}",
+                        registro.topic(), registro.partition(), registro.offset(), e.getOriginalMessage());
+            }
+        }
 
-    @KafkaListener(topics = "cliente-events", groupId = "accounting-service-group")
-    public void handleClienteEvent(String mensaje) {
-        try {
-            ClienteEvent evento = objectMapper.readValue(mensaje, ClienteEvent.class);
-            log.info("Evento de cliente recibido: {} para cliente ID: {}", 
-                    evento.getEventType(), evento.getClienteId());
-            
-            // Aquí se podría sincronizar información del cliente en el servicio de contabilidad
-            // Por ejemplo, actualizar una tabla de clientes local o cache
-            
-        } catch (Exception e) {
-            log.error("Error al procesar evento de cliente: {}", e.getMessage());
+        // Los errores de base de datos se propagan para que el contenedor reintente el lote
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        int aplicados = clienteProyeccionService.aplicarLote(eventos);
+        muestra.stop(meterRegistry.timer("accounting.clientes.proyeccion.lote"));
+
+        Map<Integer, Long> porParticion = eventos.stream()
+            .collect(Collectors.groupingBy(EventoCliente::particion, Collectors.counting()));
+        porParticion.forEach((particion, cantidad) -> contador("recibido", particion).increment(cantidad));
+        registrarRetrasos(consumer, porParticion.keySet());
+
+        log.debug("Lote de eventos de cliente procesado: {} registros, {} aplicados", registros.size(), aplicados);
+    }
+
+    private Counter contador(String resultado, int particion) {
+        return Counter.builder("accounting.clientes.proyeccion.eventos")
+            .tag("resultado", resultado)
+            .tag("particion", String.valueOf(particion))
+            .register(meterRegistry);
+    }
+
+    private void registrarRetrasos(Consumer<?, ?> consumer, Iterable<Integer> particiones) {
+        for (Integer particion : particiones) {
+            consumer.currentLag(new TopicPartition(TOPICO, particion))
+                .ifPresent(retraso -> retrasos.computeIfAbsent(particion, this::registrarRetraso).set(retraso));
         }
     }
+
+    private AtomicLong registrarRetraso(int particion) {
+        AtomicLong retraso = new AtomicLong();
+        Gauge.builder("accounting.clientes.proyeccion.retraso", retraso, AtomicLong::get)
+            .description("Eventos de cliente pendientes por partición según el último lote")
+            .tag("particion", String.valueOf(particion))
+            .register(meterRegistry);
+        return retraso;
+    }
 }
@@ -0,0 +1,55 @@
+package com.microservices.accountingservice.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.application.outbox.OutboxWriter;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.event.EventoCodec;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Deserializador Kafka de eventos de cuenta y movimiento. Acepta el formato binario de
+ * {@link EventoCodec} y, mientras dure la migración, los mensajes JSON anteriores; el
+ * tipo de un mensaje JSON se deduce del tópico.
+ */
+public class EventoDeserializer implements Deserializer<Object> {
+
+    private final EventoCodec codec = new EventoCodec();
+    private final ObjectMapper objectMapper;
+
+    public EventoDeserializer() {
+        this(new ObjectMapper().findAndRegisterModules());
+    }
+
+    public EventoDeserializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] datos) {
+        if (datos == null) {
+            return null;
+        }
+        try {
+            if (EventoCodec.esBinario(datos)) {
+                return codec.decodificar(datos);
+            }
+            return objectMapper.readValue(datos, tipoJson(topic));
+        } catch (IOException | IllegalArgumentException | ArithmeticException e) {
+            throw new SerializationException("No se pudo leer el evento del tópico " + topic, e);
+        }
+    }
+
+    private Class<?> tipoJson(String topico) {
+        if (OutboxWriter.TOPICO_CUENTAS.equals(topico)) {
+            return CuentaEvent.class;
+        }
+        if (OutboxWriter.TOPICO_MOVIMIENTOS.equals(topico)) {
+            return MovimientoEvent.class;
+        }
+        throw new SerializationException("Tópico sin tipo de evento JSON conocido: " + topico);
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservices.accountingservice.infrastructure.messaging;
+
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.event.EventoCodec;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serializador Kafka de eventos de cuenta y movimiento en el formato binario de
+ * {@link EventoCodec}.
+ */
+public class EventoSerializer implements Serializer<Object> {
+
+    private final EventoCodec codec = new EventoCodec();
+
+    @Override
+    public byte[] serialize(String topic, Object evento) {
+        if (evento == null) {
+            return null;
+        }
+        if (evento instanceof CuentaEvent cuenta) {
+            return codec.codificar(cuenta);
+        }
+        if (evento instanceof MovimientoEvent movimiento) {
+            return codec.codificar(movimiento);
+        }
+        throw new SerializationException("Tipo de evento no soportado: " + evento.getClass().getName());
+    }
+}
@@ -0,0 +1,140 @@
+package com.microservices.accountingservice.infrastructure.messaging;
+
+import com.microservices.accountingservice.domain.entity.EventoOutbox;
+import com.microservices.accountingservice.domain.repository.EventoOutboxRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publica en Kafka los eventos de la tabla outbox por lotes, en orden de ID. Los envíos
+ * de un lote salen sin esperar uno a uno y con la cuenta como clave, así que los de una
+ * misma cuenta llegan a la misma partición en orden. Cada lote se elimina de la tabla en
+ * la misma transacción que lo bloqueó, una vez que Kafka confirmó los envíos.
+ *
+ * <p>La transacción del lote es READ COMMITTED y bloquea con {@code SKIP LOCKED}: solo
+ * toma bloqueos de fila sobre el lote, sin bloqueos de hueco que frenen las inserciones
+ * de las contabilizaciones mientras espera a Kafka, y otra instancia no espera por él.
+ * Para no adelantar eventos de una cuenta, una instancia que no obtiene el evento más
+ * antiguo pendiente (lo tiene otro relay) suelta su lote y lo intenta en la siguiente
+ * pasada. Esto supone que el orden de ID sigue al de confirmación dentro de cada cuenta:
+ * por eso {@link EventoOutbox} toma sus IDs de a uno y no en bloques por instancia.
+ *
+ * <p>Si falla el envío de un evento, los de su cuenta se conservan y se reintentan en la
+ * siguiente pasada junto con los posteriores: la entrega es al menos una vez y los
+ * consumidores pueden recibir repetidos.
+ *
+ * <p>Con {@code accounting.outbox.relay.habilitado=false} no se crea: los eventos se
+ * acumulan en la tabla hasta que otra instancia los releve.
+ */
+@Component
+@ConditionalOnProperty(name = "accounting.outbox.relay.habilitado", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final AccountingEventProducer producer;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final long timeoutEnvioMs;
+    private final DistributionSummary tamanoLotes;
+
+    public OutboxRelay(EventoOutboxRepository eventoOutboxRepository,
+                       AccountingEventProducer producer,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${accounting.outbox.relay.tamano-lote:500}") int tamanoLote,
+                       @Value("${accounting.outbox.relay.timeout-envio-ms:10000}") long timeoutEnvioMs) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.producer = producer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.tamanoLote = tamanoLote;
+        this.timeoutEnvioMs = timeoutEnvioMs;
+        this.tamanoLotes = DistributionSummary.builder("accounting.outbox.lote")
+            .description("Eventos enviados juntos por el relay de outbox")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${accounting.outbox.relay.intervalo-ms:200}")
+    public void relevar() {
+        // Con lotes llenos hay más pendientes: se sigue sin esperar al siguiente intervalo
+        int publicados;
+        do {
+            publicados = transactionTemplate.execute(status -> relevarLote());
+        } while (publicados == tamanoLote);
+    }
+
+    /**
+     * Publica un lote y elimina los eventos confirmados. Devuelve cuántos se publicaron.
+     */
+    int relevarLote() {
+        List<EventoOutbox> eventos = eventoOutboxRepository.findPendientes(PageRequest.of(0, tamanoLote));
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        Long primerPendiente = eventoOutboxRepository.findPrimerId();
+        if (primerPendiente != null && primerPendiente < eventos.get(0).getId()) {
+            log.debug("Eventos anteriores al {} en curso en otro relay; se reintenta en la siguiente pasada",
+                    eventos.get(0).getId());
+            return 0;
+        }
+        tamanoLotes.record(eventos.size());
+
+        List<CompletableFuture<?>> envios = new ArrayList<>(eventos.size());
+        for (EventoOutbox evento : eventos) {
+            envios.add(producer.publicar(evento.getTopico(), evento.getClave(), evento.getContenido()));
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutEnvioMs);
+        Set<String> cuentasFallidas = new HashSet<>();
+        for (int i = 0; i < eventos.size(); i++) {
+            EventoOutbox evento = eventos.get(i);
+            try {
+                envios.get(i).get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                if (cuentasFallidas.add(evento.getClave())) {
+                    log.warn("No se pudo publicar el evento {} de la cuenta {}: {}",
+                            evento.getId(), evento.getClave(), e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cuentasFallidas.add(evento.getClave());
+            }
+        }
+
+        List<Long> publicados = new ArrayList<>(eventos.size());
+        for (EventoOutbox evento : eventos) {
+            if (!cuentasFallidas.contains(evento.getClave())) {
+                publicados.add(evento.getId());
+            }
+        }
+        eventoOutboxRepository.deleteAllByIdInBatch(publicados);
+
+        if (!cuentasFallidas.isEmpty()) {
+            log.warn("Lote de outbox con fallos: {} de {} eventos publicados, {} cuentas pendientes",
+                    publicados.size(), eventos.size(), cuentasFallidas.size());
+            // Se corta la pasada para no reintentar de inmediato contra un broker caído
+            return 0;
+        }
+        log.debug("Lote de outbox publicado: {} eventos", publicados.size());
+        return publicados.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.microservices.accountingservice.infrastructure.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Agrega la cabecera {@value #CABECERA} con las sentencias SQL ejecutadas hasta escribir
+ * el cuerpo, incluidas las respuestas de error. Solo fuera de producción: delata la
+ * forma en que se consultan los datos.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "accounting.sql.cabecera-sentencias", havingValue = "true")
+public class CabeceraSentenciasAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String CABECERA = "X-Sentencias-Sql";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int sentencias = ContadorSentencias.actual();
+        if (sentencias >= 0) {
+            response.getHeaders().set(CABECERA, Integer.toString(sentencias));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,43 @@
+package com.microservices.accountingservice.infrastructure.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual mientras hay una
+ * medición abierta. Se registra como {@code hibernate.session_factory.statement_inspector}
+ * (ver {@code MetricasConfig}), así que ve todas las sesiones que abre una solicitud,
+ * incluidas las de cada {@code TransactionTemplate} y las cargas LAZY.
+ *
+ * <p>Un lote JDBC cuenta una vez por sentencia preparada, no por fila.
+ */
+public class ContadorSentencias implements StatementInspector {
+
+    private static final ThreadLocal<int[]> MEDICION = new ThreadLocal<>();
+
+    /** Abre una medición en el hilo actual; si ya había una, vuelve a cero. */
+    public static void iniciar() {
+        MEDICION.set(new int[1]);
+    }
+
+    /** Sentencias contadas desde {@link #iniciar()}, o -1 si no hay medición abierta. */
+    public static int actual() {
+        int[] medicion = MEDICION.get();
+        return medicion == null ? -1 : medicion[0];
+    }
+
+    /** Cierra la medición del hilo actual y devuelve su total (-1 si no había). */
+    public static int detener() {
+        int total = actual();
+        MEDICION.remove();
+        return total;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] medicion = MEDICION.get();
+        if (medicion != null) {
+            medicion[0]++;
+        }
+        return sql;
+    }
+}
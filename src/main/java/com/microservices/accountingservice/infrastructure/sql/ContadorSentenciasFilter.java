@@ -0,0 +1,49 @@
+package com.microservices.accountingservice.infrastructure.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Mide las sentencias SQL de cada solicitud y las registra en
+ * {@code accounting.http.sentencias} con las etiquetas {@code metodo} y {@code uri}
+ * (la plantilla del endpoint, no la ruta con ids). Un endpoint cuyo máximo crece con
+ * el tamaño de los datos tiene un N+1.
+ *
+ * <p>En los reportes en streaming solo se cuenta lo que ocurre antes de empezar a
+ * escribir; el cuerpo se genera en otro hilo.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContadorSentenciasFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorSentencias.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int sentencias = ContadorSentencias.detener();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("accounting.http.sentencias")
+                .description("Sentencias SQL por solicitud")
+                .tag("metodo", request.getMethod())
+                .tag("uri", uri == null ? "DESCONOCIDA" : uri.toString())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(sentencias);
+        }
+    }
+}
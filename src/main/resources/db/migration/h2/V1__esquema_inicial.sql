@@ -0,0 +1,99 @@
+-- Mismo esquema que db/migration/mysql, para las pruebas sobre H2
+
+CREATE SEQUENCE cuentas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE movimientos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE saldos_diarios_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE saldo_checkpoints_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE eventos_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE cuentas (
+    id BIGINT NOT NULL,
+    numero_cuenta VARCHAR(20) NOT NULL,
+    tipo_cuenta VARCHAR(20) NOT NULL,
+    saldo_inicial NUMERIC(15,2) NOT NULL,
+    saldo_actual NUMERIC(15,2) NOT NULL,
+    estado BOOLEAN NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    ultima_secuencia BIGINT NOT NULL,
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    fecha_actualizacion TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_cuentas_numero_cuenta UNIQUE (numero_cuenta)
+);
+
+CREATE TABLE movimientos (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    fecha TIMESTAMP(6) NOT NULL,
+    tipo_movimiento VARCHAR(20) NOT NULL,
+    valor NUMERIC(15,2) NOT NULL,
+    saldo NUMERIC(15,2) NOT NULL,
+    secuencia BIGINT,
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    fecha_actualizacion TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_movimientos_cuenta_secuencia UNIQUE (cuenta_id, secuencia),
+    CONSTRAINT fk_movimientos_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas (id)
+);
+
+CREATE TABLE saldos_diarios (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    total_depositos NUMERIC(15,2) NOT NULL,
+    total_retiros NUMERIC(15,2) NOT NULL,
+    cantidad_movimientos BIGINT NOT NULL,
+    saldo_cierre NUMERIC(15,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_saldos_diarios_cuenta_fecha UNIQUE (cuenta_id, fecha)
+);
+
+CREATE TABLE saldo_checkpoints (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    secuencia BIGINT NOT NULL,
+    saldo NUMERIC(15,2) NOT NULL,
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_saldo_checkpoints_cuenta_secuencia ON saldo_checkpoints (cuenta_id, secuencia);
+
+CREATE TABLE eventos_outbox (
+    id BIGINT NOT NULL,
+    topico VARCHAR(100) NOT NULL,
+    clave VARCHAR(50) NOT NULL,
+    tipo_evento VARCHAR(20) NOT NULL,
+    contenido BLOB NOT NULL,
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE clientes_proyeccion (
+    cliente_id BIGINT NOT NULL,
+    identificacion VARCHAR(20),
+    nombre VARCHAR(100),
+    estado BOOLEAN NOT NULL,
+    fecha_actualizacion TIMESTAMP(6),
+    PRIMARY KEY (cliente_id)
+);
+
+CREATE TABLE proyeccion_offsets (
+    id VARCHAR(255) NOT NULL,
+    topico VARCHAR(255) NOT NULL,
+    particion INTEGER NOT NULL,
+    ultimo_offset BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE claves_idempotencia (
+    clave VARCHAR(100) NOT NULL,
+    huella VARCHAR(64) NOT NULL,
+    movimiento_id BIGINT NOT NULL,
+    fecha_expiracion TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (clave)
+);
+
+CREATE INDEX idx_claves_idempotencia_expiracion ON claves_idempotencia (fecha_expiracion);
@@ -0,0 +1,4 @@
+-- Ver db/migration/mysql/V2. En H2 la base siempre parte vacía, así que solo se crean
+-- los índices.
+CREATE INDEX idx_movimientos_cliente_fecha ON movimientos (cliente_id, fecha, id);
+CREATE INDEX idx_movimientos_cuenta_fecha ON movimientos (cuenta_id, fecha, id);
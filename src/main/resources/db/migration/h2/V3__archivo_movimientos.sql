@@ -0,0 +1,29 @@
+-- Ver db/migration/mysql/V3.
+CREATE TABLE movimientos_archivo (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    fecha TIMESTAMP(6) NOT NULL,
+    tipo_movimiento VARCHAR(20) NOT NULL,
+    valor NUMERIC(15,2) NOT NULL,
+    saldo NUMERIC(15,2) NOT NULL,
+    secuencia BIGINT,
+    fecha_creacion TIMESTAMP(6) NOT NULL,
+    fecha_actualizacion TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_movimientos_archivo_cliente_fecha ON movimientos_archivo (cliente_id, fecha, id);
+CREATE INDEX idx_movimientos_archivo_cuenta_fecha ON movimientos_archivo (cuenta_id, fecha, id);
+
+CREATE TABLE archivo_movimientos_estado (
+    id INTEGER NOT NULL,
+    frontera TIMESTAMP(6),
+    ultima_cuenta_id BIGINT NOT NULL,
+    completo BOOLEAN NOT NULL,
+    fecha_actualizacion TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+INSERT INTO archivo_movimientos_estado (id, frontera, ultima_cuenta_id, completo, fecha_actualizacion)
+VALUES (1, NULL, 0, TRUE, NULL);
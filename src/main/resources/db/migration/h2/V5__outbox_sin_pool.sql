@@ -0,0 +1,2 @@
+-- Los IDs de eventos_outbox se piden de a uno para que su orden siga el de confirmación
+ALTER SEQUENCE eventos_outbox_seq INCREMENT BY 1;
@@ -0,0 +1,116 @@
+-- Esquema que antes generaba Hibernate con ddl-auto: update. Usa IF NOT EXISTS para
+-- que una base creada de esa forma se pueda pasar a Flyway sin recrear las tablas
+-- (baseline-on-migrate con baseline-version 0). IF NOT EXISTS no cambia una tabla que ya
+-- existe: las columnas que le falten a una base de esa época las agrega V4.
+
+CREATE TABLE IF NOT EXISTS cuentas (
+    id BIGINT NOT NULL,
+    numero_cuenta VARCHAR(20) NOT NULL,
+    tipo_cuenta VARCHAR(20) NOT NULL,
+    saldo_inicial DECIMAL(15,2) NOT NULL,
+    saldo_actual DECIMAL(15,2) NOT NULL,
+    estado BIT NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    ultima_secuencia BIGINT NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    fecha_actualizacion DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_cuentas_numero_cuenta UNIQUE (numero_cuenta)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS movimientos (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    fecha DATETIME(6) NOT NULL,
+    tipo_movimiento VARCHAR(20) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    saldo DECIMAL(15,2) NOT NULL,
+    secuencia BIGINT,
+    fecha_creacion DATETIME(6) NOT NULL,
+    fecha_actualizacion DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_movimientos_cuenta_secuencia UNIQUE (cuenta_id, secuencia),
+    CONSTRAINT fk_movimientos_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuentas (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS saldos_diarios (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    total_depositos DECIMAL(15,2) NOT NULL,
+    total_retiros DECIMAL(15,2) NOT NULL,
+    cantidad_movimientos BIGINT NOT NULL,
+    saldo_cierre DECIMAL(15,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_saldos_diarios_cuenta_fecha UNIQUE (cuenta_id, fecha)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS saldo_checkpoints (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    secuencia BIGINT NOT NULL,
+    saldo DECIMAL(15,2) NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_saldo_checkpoints_cuenta_secuencia (cuenta_id, secuencia)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS eventos_outbox (
+    id BIGINT NOT NULL,
+    topico VARCHAR(100) NOT NULL,
+    clave VARCHAR(50) NOT NULL,
+    tipo_evento VARCHAR(20) NOT NULL,
+    contenido BLOB NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS clientes_proyeccion (
+    cliente_id BIGINT NOT NULL,
+    identificacion VARCHAR(20),
+    nombre VARCHAR(100),
+    estado BIT NOT NULL,
+    fecha_actualizacion DATETIME(6),
+    PRIMARY KEY (cliente_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS proyeccion_offsets (
+    id VARCHAR(255) NOT NULL,
+    topico VARCHAR(255) NOT NULL,
+    particion INTEGER NOT NULL,
+    ultimo_offset BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS claves_idempotencia (
+    clave VARCHAR(100) NOT NULL,
+    huella VARCHAR(64) NOT NULL,
+    movimiento_id BIGINT NOT NULL,
+    fecha_expiracion DATETIME(6) NOT NULL,
+    PRIMARY KEY (clave),
+    INDEX idx_claves_idempotencia_expiracion (fecha_expiracion)
+) ENGINE=InnoDB;
+
+-- MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila por generador
+CREATE TABLE IF NOT EXISTS cuentas_seq (next_val BIGINT) ENGINE=InnoDB;
+CREATE TABLE IF NOT EXISTS movimientos_seq (next_val BIGINT) ENGINE=InnoDB;
+CREATE TABLE IF NOT EXISTS saldos_diarios_seq (next_val BIGINT) ENGINE=InnoDB;
+CREATE TABLE IF NOT EXISTS saldo_checkpoints_seq (next_val BIGINT) ENGINE=InnoDB;
+CREATE TABLE IF NOT EXISTS eventos_outbox_seq (next_val BIGINT) ENGINE=InnoDB;
+
+INSERT INTO cuentas_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM cuentas_seq);
+INSERT INTO movimientos_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM movimientos_seq);
+INSERT INTO saldos_diarios_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM saldos_diarios_seq);
+INSERT INTO saldo_checkpoints_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM saldo_checkpoints_seq);
+INSERT INTO eventos_outbox_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM eventos_outbox_seq);
+
+-- Una base que viene de ddl-auto ya tiene filas con ids de la época IDENTITY, y puede tener
+-- estas tablas creadas por Hibernate en 1. El optimizador pooled reserva los ids
+-- [next_val - 49, next_val], así que next_val debe quedar al menos en MAX(id) + 50
+UPDATE cuentas_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 50, 1) FROM cuentas));
+UPDATE movimientos_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 50, 1) FROM movimientos));
+UPDATE saldos_diarios_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 50, 1) FROM saldos_diarios));
+UPDATE saldo_checkpoints_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 50, 1) FROM saldo_checkpoints));
+UPDATE eventos_outbox_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 50, 1) FROM eventos_outbox));
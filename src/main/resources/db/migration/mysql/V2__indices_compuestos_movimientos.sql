@@ -0,0 +1,15 @@
+-- Las consultas por cliente filtran por movimientos.cliente_id en lugar de unir con
+-- cuentas. Se alinea la copia con el cliente vigente de cada cuenta: antes se tomaba
+-- del cuerpo de la solicitud y no se actualizaba al cambiar la cuenta de cliente.
+UPDATE movimientos m
+SET m.cliente_id = (SELECT c.cliente_id FROM cuentas c WHERE c.id = m.cuenta_id)
+WHERE EXISTS (SELECT 1 FROM cuentas c WHERE c.id = m.cuenta_id AND c.cliente_id <> m.cliente_id);
+
+-- Rango de fechas por cliente o por cuenta con orden (fecha, id): el reporte, los
+-- totales del período y la paginación por cursor leen un rango del índice en orden,
+-- en cualquiera de los dos sentidos, sin ordenar.
+CREATE INDEX idx_movimientos_cliente_fecha ON movimientos (cliente_id, fecha, id);
+CREATE INDEX idx_movimientos_cuenta_fecha ON movimientos (cuenta_id, fecha, id);
+
+-- ddl-auto creó la columna como TINYBLOB (255 bytes), que no alcanza para un evento en JSON
+ALTER TABLE eventos_outbox MODIFY contenido BLOB NOT NULL;
@@ -0,0 +1,35 @@
+-- Nivel frío de movimientos. El archivador mueve aquí por lotes los movimientos con
+-- fecha anterior al horizonte configurado (accounting.movimientos.archivo); las
+-- consultas leen esta tabla solo cuando su rango empieza antes de la frontera.
+-- Sin clave foránea a cuentas: las filas llegan ya validadas desde movimientos y así
+-- las inserciones del archivador no bloquean la fila de la cuenta. Las páginas se
+-- comprimen porque la tabla casi no se lee ni se escribe fuera del archivador.
+CREATE TABLE movimientos_archivo (
+    id BIGINT NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    fecha DATETIME(6) NOT NULL,
+    tipo_movimiento VARCHAR(20) NOT NULL,
+    valor DECIMAL(15,2) NOT NULL,
+    saldo DECIMAL(15,2) NOT NULL,
+    secuencia BIGINT,
+    fecha_creacion DATETIME(6) NOT NULL,
+    fecha_actualizacion DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_movimientos_archivo_cliente_fecha (cliente_id, fecha, id),
+    INDEX idx_movimientos_archivo_cuenta_fecha (cuenta_id, fecha, id)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED;
+
+-- Una sola fila: hasta qué fecha puede haber movimientos archivados y por qué cuenta
+-- va la pasada del archivador que corresponde a esa frontera
+CREATE TABLE archivo_movimientos_estado (
+    id INTEGER NOT NULL,
+    frontera DATETIME(6),
+    ultima_cuenta_id BIGINT NOT NULL,
+    completo BIT NOT NULL,
+    fecha_actualizacion DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+INSERT INTO archivo_movimientos_estado (id, frontera, ultima_cuenta_id, completo, fecha_actualizacion)
+VALUES (1, NULL, 0, TRUE, NULL);
@@ -0,0 +1,56 @@
+-- Bases creadas antes con ddl-auto: update. V1 no toca sus tablas (IF NOT EXISTS), así que
+-- cuentas y movimientos quedan sin las columnas del control optimista y de la secuencia
+-- de asientos, y la validación del esquema falla al arrancar. MySQL no tiene
+-- ADD COLUMN IF NOT EXISTS: cada cambio se arma según information_schema y en una base
+-- creada por V1 queda en DO 0.
+
+SET @sentencia = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+                     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'cuentas' AND COLUMN_NAME = 'version') = 0,
+    'ALTER TABLE cuentas ADD COLUMN version BIGINT NOT NULL DEFAULT 0',
+    'DO 0');
+PREPARE cambio FROM @sentencia;
+EXECUTE cambio;
+DEALLOCATE PREPARE cambio;
+
+SET @sentencia = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+                     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'cuentas' AND COLUMN_NAME = 'ultima_secuencia') = 0,
+    'ALTER TABLE cuentas ADD COLUMN ultima_secuencia BIGINT NOT NULL DEFAULT 0',
+    'DO 0');
+PREPARE cambio FROM @sentencia;
+EXECUTE cambio;
+DEALLOCATE PREPARE cambio;
+
+SET @sentencia = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+                     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'movimientos' AND COLUMN_NAME = 'secuencia') = 0,
+    'ALTER TABLE movimientos ADD COLUMN secuencia BIGINT',
+    'DO 0');
+PREPARE cambio FROM @sentencia;
+EXECUTE cambio;
+DEALLOCATE PREPARE cambio;
+
+-- Movimientos sin secuencia: se numeran por cuenta en el orden en que se asentaron (el id
+-- venía de IDENTITY), a continuación de la mayor secuencia que ya tenga la cuenta
+UPDATE movimientos m
+JOIN (
+    SELECT p.id, COALESCE(u.maxima, 0) + ROW_NUMBER() OVER (PARTITION BY p.cuenta_id ORDER BY p.id) AS secuencia
+    FROM movimientos p
+    LEFT JOIN (SELECT cuenta_id, MAX(secuencia) AS maxima FROM movimientos GROUP BY cuenta_id) u
+        ON u.cuenta_id = p.cuenta_id
+    WHERE p.secuencia IS NULL
+) n ON n.id = m.id
+SET m.secuencia = n.secuencia;
+
+-- El próximo asiento de cada cuenta sigue a su último movimiento. GREATEST porque los
+-- movimientos archivados ya no están en esta tabla
+UPDATE cuentas c
+SET c.ultima_secuencia = GREATEST(c.ultima_secuencia,
+    (SELECT COALESCE(MAX(m.secuencia), 0) FROM movimientos m WHERE m.cuenta_id = c.id));
+
+SET @sentencia = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+                     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'movimientos'
+                       AND INDEX_NAME = 'uk_movimientos_cuenta_secuencia') = 0,
+    'ALTER TABLE movimientos ADD CONSTRAINT uk_movimientos_cuenta_secuencia UNIQUE (cuenta_id, secuencia)',
+    'DO 0');
+PREPARE cambio FROM @sentencia;
+EXECUTE cambio;
+DEALLOCATE PREPARE cambio;
@@ -0,0 +1,175 @@
+package com.microservices.accountingservice.application.archivo;
+
+import com.microservices.accountingservice.application.service.ClienteProyeccionService;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
+import com.microservices.accountingservice.application.service.CuentaService;
+import com.microservices.accountingservice.application.service.MovimientoService;
+import com.microservices.accountingservice.application.service.ReporteService;
+import com.microservices.accountingservice.application.service.SaldoDiarioService;
+import com.microservices.accountingservice.application.service.SaldoService;
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.dto.MovimientoDto;
+import com.microservices.accountingservice.domain.dto.PaginaMovimientosDto;
+import com.microservices.accountingservice.domain.dto.ReporteEstadoCuentaDto;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import com.microservices.accountingservice.domain.exception.MovimientoArchivadoException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archivo de movimientos sobre una base propia: la frontera publicada queda en la base
+ * y no debe alcanzar a las demás pruebas.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:archivo",
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false",
+    "accounting.movimientos.archivo.espera-publicacion=0s",
+    "accounting.movimientos.archivo.tamano-lote=7"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Archivo de movimientos")
+class ArchivoMovimientosTest {
+
+    private static final long CLIENTE_ID = 1L;
+    private static final int ANTIGUOS = 20;
+    private static final int RECIENTES = 5;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long cuentaId;
+
+    @BeforeAll
+    void sembrarYArchivar(@Autowired ClienteProyeccionService clienteProyeccionService,
+                          @Autowired CuentaService cuentaService,
+                          @Autowired SaldoDiarioService saldoDiarioService,
+                          @Autowired ArchivadorMovimientos archivadorMovimientos) {
+        ClienteEvent cliente = ClienteEvent.builder()
+            .eventType("CREATED")
+            .clienteId(CLIENTE_ID)
+            .identificacion("1234567890")
+            .nombre("Jose Lema")
+            .estado(true)
+            .timestamp(LocalDateTime.now())
+            .build();
+        clienteProyeccionService.aplicarLote(List.of(new EventoCliente(cliente, "cliente-events", 0, 0)));
+
+        CuentaDto cuenta = new CuentaDto();
+        cuenta.setNumeroCuenta("585545");
+        cuenta.setTipoCuenta("Corriente");
+        cuenta.setSaldoInicial(new BigDecimal("1000.00"));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(CLIENTE_ID);
+        cuentaId = cuentaService.crearCuenta(cuenta).getId();
+
+        List<MovimientoDto> movimientos = new ArrayList<>();
+        for (int i = 0; i < ANTIGUOS + RECIENTES; i++) {
+            MovimientoDto movimiento = new MovimientoDto();
+            movimiento.setCuentaId(cuentaId);
+            movimiento.setClienteId(CLIENTE_ID);
+            movimiento.setTipoMovimiento("Deposito");
+            movimiento.setValor(new BigDecimal("10.00"));
+            movimiento.setFecha(LocalDateTime.now());
+            movimiento.setSaldo(BigDecimal.ZERO);
+            movimientos.add(movimiento);
+        }
+        movimientoService.crearMovimientosEnLote(movimientos);
+        // La contabilización fecha los movimientos con la hora actual: los primeros pasan a hace dos años
+        jdbcTemplate.update("UPDATE movimientos SET fecha = DATEADD('MONTH', -24, fecha) " +
+            "WHERE cuenta_id = ? AND secuencia <= ?", cuentaId, ANTIGUOS);
+
+        archivadorMovimientos.archivar();
+        saldoDiarioService.reconstruir(cuentaId);
+    }
+
+    @Test
+    @DisplayName("El archivador debería mover por lotes los movimientos anteriores al horizonte")
+    void archivadorDeberiaMoverMovimientosAntiguos(@Autowired FronteraArchivo fronteraArchivo) {
+        // When
+        Integer calientes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimientos WHERE cuenta_id = ?",
+            Integer.class, cuentaId);
+        Integer archivados = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimientos_archivo WHERE cuenta_id = ?",
+            Integer.class, cuentaId);
+
+        // Then
+        assertEquals(RECIENTES, calientes);
+        assertEquals(ANTIGUOS, archivados);
+        assertEquals(LocalDate.now().withDayOfMonth(1).minusMonths(12).atStartOfDay(), fronteraArchivo.actual());
+    }
+
+    @Test
+    @DisplayName("La paginación debería pasar del nivel caliente al archivo sin repetir movimientos")
+    void paginacionDeberiaRecorrerAmbosNiveles() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        List<LocalDateTime> fechas = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            PaginaMovimientosDto pagina = movimientoService.obtenerMovimientosPorCuenta(cuentaId, cursor, 10);
+            pagina.getMovimientos().forEach(movimiento -> {
+                ids.add(movimiento.getId());
+                fechas.add(movimiento.getFecha());
+            });
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(ANTIGUOS + RECIENTES, ids.size());
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        for (int i = 1; i < fechas.size(); i++) {
+            assertFalse(fechas.get(i).isAfter(fechas.get(i - 1)));
+        }
+    }
+
+    @Test
+    @DisplayName("El reporte y la verificación de saldo deberían incluir los movimientos archivados")
+    void reporteYSaldoDeberianIncluirArchivo(@Autowired ReporteService reporteService,
+                                             @Autowired SaldoService saldoService) {
+        // When
+        ReporteEstadoCuentaDto reporte = reporteService.generarReporteEstadoCuenta(CLIENTE_ID,
+            LocalDateTime.now().minusMonths(30), LocalDateTime.now().plusDays(1), true);
+
+        // Then
+        ReporteEstadoCuentaDto.CuentaReporteDto cuenta = reporte.getCuentas().get(0);
+        assertEquals(ANTIGUOS + RECIENTES, cuenta.getMovimientos().size());
+        assertEquals(ANTIGUOS + RECIENTES, cuenta.getCantidadMovimientos());
+        assertEquals(0, new BigDecimal("1250.00").compareTo(cuenta.getSaldoCierre()));
+        assertTrue(saldoService.verificarSaldo(cuentaId).getConsistente());
+    }
+
+    @Test
+    @DisplayName("Un movimiento archivado debería poder leerse pero no modificarse")
+    void movimientoArchivadoDeberiaSerDeSoloLectura() {
+        // Given
+        Long archivado = jdbcTemplate.queryForObject("SELECT MIN(id) FROM movimientos_archivo WHERE cuenta_id = ?",
+            Long.class, cuentaId);
+        MovimientoDto cambio = new MovimientoDto();
+        cambio.setTipoMovimiento("Retiro");
+
+        // When & Then
+        assertEquals(archivado, movimientoService.obtenerMovimientoPorId(archivado).getId());
+        assertThrows(MovimientoArchivadoException.class, () -> movimientoService.actualizarMovimiento(archivado, cambio));
+    }
+}
@@ -0,0 +1,123 @@
+package com.microservices.accountingservice.application.cache;
+
+import com.microservices.accountingservice.domain.dto.ReporteEstadoCuentaDto;
+import com.microservices.accountingservice.domain.event.CuentaEvent;
+import com.microservices.accountingservice.domain.event.MovimientoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas unitarias para ReporteCache")
+class ReporteCacheTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FIN = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReporteCache reporteCache;
+    private AtomicInteger generados;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reporteCache = new ReporteCache(meterRegistry, 1000, Duration.ofMinutes(5), Duration.ofMinutes(1));
+        generados = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Debería servir desde caché hasta que se contabilice un movimiento del cliente")
+    void deberiaInvalidarAlContabilizarMovimientoDelCliente() {
+        // Given
+        obtener(1L);
+        obtener(1L);
+        obtener(2L);
+
+        // When
+        reporteCache.onMovimiento(MovimientoEvent.builder().clienteId(1L).build());
+        obtener(1L);
+        obtener(2L);
+
+        // Then
+        assertEquals(3, generados.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "reportes-estado-cuenta")
+            .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Debería invalidar al cliente anterior y al nuevo cuando una cuenta cambia de cliente")
+    void deberiaInvalidarAmbosClientesAlCambiarDeCliente() {
+        // Given
+        obtener(1L);
+        obtener(2L);
+
+        // When
+        reporteCache.onCuenta(CuentaEvent.builder().clienteId(2L).clienteIdAnterior(1L).build());
+        obtener(1L);
+        obtener(2L);
+
+        // Then
+        assertEquals(4, generados.get());
+    }
+
+    @Test
+    @DisplayName("No debería volver a servir un reporte generado mientras llegaba una invalidación")
+    void noDeberiaServirReporteGeneradoDuranteInvalidacion() {
+        // Given
+        reporteCache.obtener(1L, INICIO, FIN, true, () -> {
+            generados.incrementAndGet();
+            reporteCache.invalidarCliente(1L);
+            return new ReporteEstadoCuentaDto();
+        });
+
+        // When
+        obtener(1L);
+
+        // Then
+        assertEquals(2, generados.get());
+    }
+
+    @Test
+    @DisplayName("Debería descartar el estado de un cliente al invalidar sus reportes")
+    void deberiaDescartarEstadoDelClienteInvalidado() {
+        // Given
+        obtener(1L);
+        obtener(2L);
+        assertEquals(2, reporteCache.clientesRegistrados());
+
+        // When
+        reporteCache.invalidarCliente(1L);
+        reporteCache.invalidarCliente(3L);
+
+        // Then
+        assertEquals(1, reporteCache.clientesRegistrados());
+        obtener(1L);
+        assertEquals(3, generados.get());
+    }
+
+    @Test
+    @DisplayName("Debería informar la invalidación reciente solo del cliente invalidado")
+    void deberiaInformarInvalidacionReciente() {
+        // When
+        reporteCache.onMovimiento(MovimientoEvent.builder().clienteId(1L).build());
+
+        // Then
+        assertTrue(reporteCache.invalidadoRecientemente(1L));
+        assertFalse(reporteCache.invalidadoRecientemente(2L));
+    }
+
+    private void obtener(Long clienteId) {
+        reporteCache.obtener(clienteId, INICIO, FIN, true, () -> {
+            generados.incrementAndGet();
+            ReporteEstadoCuentaDto reporte = new ReporteEstadoCuentaDto();
+            reporte.setClienteId(clienteId);
+            return reporte;
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.microservices.accountingservice.application.posting;
+
+import com.microservices.accountingservice.domain.exception.CuentaOcupadaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas unitarias para PostingEngine")
+class PostingEngineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PostingEngine postingEngine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        postingEngine = new PostingEngine(meterRegistry, 8, 200);
+    }
+
+    @Test
+    @DisplayName("Debería serializar los movimientos concurrentes de una misma cuenta")
+    void deberiaSerializarMovimientosDeUnaMismaCuenta() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger concurrentes = new AtomicInteger();
+        AtomicInteger maximoConcurrentes = new AtomicInteger();
+        int[] saldo = {0};
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> postingEngine.ejecutar(1L, () -> {
+                maximoConcurrentes.accumulateAndGet(concurrentes.incrementAndGet(), Math::max);
+                saldo[0]++;
+                concurrentes.decrementAndGet();
+                return null;
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1000, saldo[0]);
+        assertEquals(1, maximoConcurrentes.get());
+        assertEquals(1000, meterRegistry.get("accounting.posting.espera").timer().count());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con CuentaOcupadaException cuando se agota la espera del carril")
+    void deberiaRechazarCuandoSeAgotaLaEspera() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch tomado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<?> ocupante = executor.submit(() -> postingEngine.ejecutar(1L, () -> {
+            tomado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(tomado.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        assertThrows(CuentaOcupadaException.class, () -> postingEngine.ejecutar(1L, () -> null));
+        assertEquals(1.0, meterRegistry.get("accounting.posting.rechazos").counter().count());
+
+        liberar.countDown();
+        ocupante.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debería permitir que varias cuentas se tomen juntas sin interbloqueo")
+    void deberiaTomarVariasCuentasSinInterbloqueo() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger completados = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            List<Long> cuentas = i % 2 == 0 ? List.of(1L, 2L, 3L) : List.of(3L, 2L, 1L);
+            executor.submit(() -> postingEngine.ejecutar(cuentas, completados::incrementAndGet));
+        }
+        executor.shutdown();
+
+        // Then
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(200, completados.get());
+    }
+}
@@ -0,0 +1,135 @@
+package com.microservices.accountingservice.application.service;
+
+import com.microservices.accountingservice.application.proyeccion.ClienteDirectorio;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import com.microservices.accountingservice.domain.repository.ClienteProyeccionRepository;
+import com.microservices.accountingservice.domain.repository.ProyeccionOffsetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos instancias del servicio sobre la misma base, cada una con su propio directorio en
+ * memoria, como dos réplicas que consumen todas las particiones con grupos distintos.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:proyeccion-instancias",
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false",
+    "accounting.movimientos.archivo.habilitado=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Proyección de clientes con dos instancias")
+class ClienteProyeccionInstanciasTest {
+
+    @Autowired
+    private ClienteProyeccionService instanciaA;
+
+    @Autowired
+    private ClienteDirectorio directorioA;
+
+    @Autowired
+    private ProyeccionOffsetRepository proyeccionOffsetRepository;
+
+    private ClienteProyeccionService instanciaB;
+    private ClienteDirectorio directorioB;
+
+    @BeforeAll
+    void crearSegundaInstancia(@Autowired ClienteProyeccionRepository clienteProyeccionRepository,
+                               @Autowired TransactionTemplate transactionTemplate,
+                               @Autowired ApplicationEventPublisher eventPublisher) {
+        directorioB = new ClienteDirectorio(clienteProyeccionRepository, transactionTemplate, new SimpleMeterRegistry());
+        directorioB.cargar();
+        instanciaB = new ClienteProyeccionService(clienteProyeccionRepository, proyeccionOffsetRepository,
+            directorioB, transactionTemplate, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("La instancia que recibe un lote ya aplicado por otra debería actualizar igual su directorio")
+    void loteYaAplicadoDeberiaActualizarElDirectorio() {
+        // Given
+        List<EventoCliente> lote = List.of(
+            registro(evento(21L, "CREATED", "Jose Lema"), 0, 0L),
+            registro(evento(21L, "UPDATED", "Jose Lema Actualizado"), 0, 1L));
+        assertEquals(2, instanciaA.aplicarLote(lote));
+
+        // When
+        int aplicados = instanciaB.aplicarLote(lote);
+
+        // Then
+        assertEquals(0, aplicados);
+        ClienteResumen esperado = new ClienteResumen(21L, "Jose Lema Actualizado", "1234567890", true);
+        assertEquals(esperado, directorioA.buscar(21L).orElseThrow());
+        assertEquals(esperado, directorioB.buscar(21L).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Dos instancias con el primer lote de una partición a la vez deberían aplicarlo una sola vez")
+    void primerLoteSimultaneoDeberiaAplicarseUnaVez() throws Exception {
+        // Given: ninguna fila de offset para la partición 1
+        List<EventoCliente> lote = List.of(
+            registro(evento(22L, "CREATED", "Marianela Montalvo"), 1, 0L),
+            registro(evento(23L, "CREATED", "Juan Osorio"), 1, 1L));
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        CountDownLatch salida = new CountDownLatch(1);
+
+        // When
+        Future<Integer> aplicadosA;
+        Future<Integer> aplicadosB;
+        try {
+            aplicadosA = hilos.submit(() -> {
+                salida.await();
+                return instanciaA.aplicarLote(lote);
+            });
+            aplicadosB = hilos.submit(() -> {
+                salida.await();
+                return instanciaB.aplicarLote(lote);
+            });
+            salida.countDown();
+
+            // Then: ninguna falla y entre las dos aplican el lote una vez
+            assertEquals(2, aplicadosA.get() + aplicadosB.get());
+        } finally {
+            hilos.shutdown();
+        }
+        assertEquals(1L, proyeccionOffsetRepository.findById("cliente-events-1").orElseThrow().getUltimoOffset());
+        for (ClienteDirectorio directorio : List.of(directorioA, directorioB)) {
+            assertEquals("Marianela Montalvo", directorio.buscar(22L).orElseThrow().nombre());
+            assertEquals("Juan Osorio", directorio.buscar(23L).orElseThrow().nombre());
+        }
+    }
+
+    private EventoCliente registro(ClienteEvent evento, int particion, long offset) {
+        return new EventoCliente(evento, "cliente-events", particion, offset);
+    }
+
+    private ClienteEvent evento(Long clienteId, String tipo, String nombre) {
+        return ClienteEvent.builder()
+            .eventType(tipo)
+            .clienteId(clienteId)
+            .identificacion("1234567890")
+            .nombre(nombre)
+            .estado(true)
+            .timestamp(LocalDateTime.now())
+            .build();
+    }
+}
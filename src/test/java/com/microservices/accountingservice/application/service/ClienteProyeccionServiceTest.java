@@ -0,0 +1,164 @@
+package com.microservices.accountingservice.application.service;
+
+import com.microservices.accountingservice.application.proyeccion.ClienteDirectorio;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
+import com.microservices.accountingservice.domain.entity.ClienteProyeccion;
+import com.microservices.accountingservice.domain.entity.ProyeccionOffset;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import com.microservices.accountingservice.domain.projection.ClienteResumen;
+import com.microservices.accountingservice.domain.repository.ClienteProyeccionRepository;
+import com.microservices.accountingservice.domain.repository.ProyeccionOffsetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias para ClienteProyeccionService")
+class ClienteProyeccionServiceTest {
+
+    @Mock
+    private ClienteProyeccionRepository clienteProyeccionRepository;
+
+    @Mock
+    private ProyeccionOffsetRepository proyeccionOffsetRepository;
+
+    @Mock
+    private ClienteDirectorio clienteDirectorio;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<Iterable<ProyeccionOffset>> offsets;
+
+    @InjectMocks
+    private ClienteProyeccionService clienteProyeccionService;
+
+    @BeforeEach
+    void setUp() {
+        // Ejecutar el callback transaccional directamente
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Debería proyectar el lote y guardar los offsets en la misma transacción")
+    void deberiaProyectarLoteYGuardarOffsets() {
+        // Given
+        ClienteEvent evento = evento(1L, "CREATED", "Jose Lema", true);
+        when(proyeccionOffsetRepository.bloquear(Set.of("cliente-events-0"))).thenReturn(List.of());
+        when(clienteProyeccionRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+
+        // When
+        int aplicados = clienteProyeccionService.aplicarLote(List.of(registro(evento, 0, 7L)));
+
+        // Then
+        assertEquals(1, aplicados);
+        verify(proyeccionOffsetRepository).saveAll(offsets.capture());
+        assertEquals(7L, offsets.getValue().iterator().next().getUltimoOffset());
+        verify(clienteProyeccionRepository).saveAll(any());
+        verify(clienteDirectorio).registrar(new ClienteResumen(1L, "Jose Lema", "1234567890", true));
+        verify(eventPublisher).publishEvent(evento);
+    }
+
+    @Test
+    @DisplayName("Debería descartar los eventos ya aplicados y refrescar igual el directorio desde la tabla")
+    void deberiaDescartarEventosYaAplicados() {
+        // Given: otra instancia ya aplicó los eventos
+        ClienteEvent ultimo = evento(1L, "UPDATED", "Otro Nombre", true);
+        ClienteProyeccion existente = new ClienteProyeccion(1L);
+        existente.setIdentificacion("1234567890");
+        existente.setNombre("Otro Nombre");
+        existente.setEstado(true);
+        when(proyeccionOffsetRepository.bloquear(Set.of("cliente-events-0")))
+            .thenReturn(List.of(new ProyeccionOffset("cliente-events-0", "cliente-events", 0, 7L)));
+        when(clienteProyeccionRepository.findAllById(Set.of(1L))).thenReturn(List.of(existente));
+
+        // When
+        int aplicados = clienteProyeccionService.aplicarLote(List.of(
+            registro(evento(1L, "UPDATED", "Otro Nombre", true), 0, 6L),
+            registro(ultimo, 0, 7L)));
+
+        // Then
+        assertEquals(0, aplicados);
+        verify(clienteProyeccionRepository, never()).saveAll(any());
+        verify(proyeccionOffsetRepository, never()).saveAll(any());
+        verify(clienteDirectorio).registrar(new ClienteResumen(1L, "Otro Nombre", "1234567890", true));
+        verify(eventPublisher).publishEvent(ultimo);
+    }
+
+    @Test
+    @DisplayName("Debería conservar el nombre e inactivar al cliente cuando se elimina")
+    void deberiaInactivarClienteEliminado() {
+        // Given
+        ClienteProyeccion existente = new ClienteProyeccion(1L);
+        existente.setIdentificacion("1234567890");
+        existente.setNombre("Jose Lema");
+        existente.setEstado(true);
+        when(proyeccionOffsetRepository.bloquear(Set.of("cliente-events-0"))).thenReturn(List.of());
+        when(clienteProyeccionRepository.findAllById(Set.of(1L))).thenReturn(List.of(existente));
+
+        // When
+        clienteProyeccionService.aplicarLote(List.of(registro(evento(1L, "DELETED", null, null), 0, 8L)));
+
+        // Then
+        verify(clienteDirectorio).registrar(new ClienteResumen(1L, "Jose Lema", "1234567890", false));
+    }
+
+    @Test
+    @DisplayName("Debería aplicar en orden varios eventos del mismo cliente con una sola lectura y escritura")
+    void deberiaAgruparEventosDelMismoCliente() {
+        // Given
+        ClienteEvent ultimo = evento(1L, "UPDATED", "Jose Lema Actualizado", true);
+        when(proyeccionOffsetRepository.bloquear(Set.of("cliente-events-0", "cliente-events-1"))).thenReturn(List.of());
+        when(clienteProyeccionRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of());
+
+        // When
+        int aplicados = clienteProyeccionService.aplicarLote(List.of(
+            registro(evento(1L, "CREATED", "Jose Lema", true), 0, 1L),
+            registro(evento(2L, "CREATED", "Marianela Montalvo", true), 1, 1L),
+            registro(ultimo, 0, 2L)));
+
+        // Then
+        assertEquals(3, aplicados);
+        verify(clienteProyeccionRepository, times(1)).findAllById(any());
+        verify(clienteProyeccionRepository, times(1)).saveAll(any());
+        verify(clienteDirectorio).registrar(new ClienteResumen(1L, "Jose Lema Actualizado", "1234567890", true));
+        verify(clienteDirectorio).registrar(new ClienteResumen(2L, "Marianela Montalvo", "1234567890", true));
+        verify(eventPublisher).publishEvent(ultimo);
+        verify(eventPublisher, times(2)).publishEvent(any(ClienteEvent.class));
+    }
+
+    private EventoCliente registro(ClienteEvent evento, int particion, long offset) {
+        return new EventoCliente(evento, "cliente-events", particion, offset);
+    }
+
+    private ClienteEvent evento(Long clienteId, String tipo, String nombre, Boolean estado) {
+        return ClienteEvent.builder()
+            .eventType(tipo)
+            .clienteId(clienteId)
+            .identificacion(nombre != null ? "1234567890" : null)
+            .nombre(nombre)
+            .estado(estado)
+            .build();
+    }
+}
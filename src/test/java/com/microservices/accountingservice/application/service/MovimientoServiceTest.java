@@ -1,27 +1,49 @@
 package com.microservices.accountingservice.application.service;
 
+import com.microservices.accountingservice.application.cache.CuentaCache;
+import com.microservices.accountingservice.application.idempotencia.RegistroIdempotencia;
+import com.microservices.accountingservice.application.posting.OptimisticRetryExecutor;
+import com.microservices.accountingservice.application.posting.PostingEngine;
+import com.microservices.accountingservice.domain.dto.LoteMovimientosResultadoDto;
 import com.microservices.accountingservice.domain.dto.MovimientoDto;
 import com.microservices.accountingservice.domain.entity.Cuenta;
 import com.microservices.accountingservice.domain.entity.Movimiento;
 import com.microservices.accountingservice.domain.exception.CuentaNotFoundException;
+import com.microservices.accountingservice.domain.exception.MovimientoInmutableException;
 import com.microservices.accountingservice.domain.exception.SaldoNoDisponibleException;
 import com.microservices.accountingservice.domain.mapper.MovimientoMapper;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.CuentaMetadatos;
 import com.microservices.accountingservice.domain.repository.CuentaRepository;
 import com.microservices.accountingservice.domain.repository.MovimientoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -38,6 +60,36 @@ class MovimientoServiceTest {
     @Mock
     private MovimientoMapper movimientoMapper;
 
+    @Mock
+    private SaldoService saldoService;
+
+    @Mock
+    private SaldoDiarioService saldoDiarioService;
+
+    @Spy
+    private PostingEngine postingEngine = new PostingEngine(new SimpleMeterRegistry(), 16, 5000);
+
+    @Spy
+    private OptimisticRetryExecutor retryExecutor = new OptimisticRetryExecutor(new SimpleMeterRegistry(), 3, 1, 5);
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private CuentaCache cuentaCache;
+
+    @Mock
+    private RegistroIdempotencia registroIdempotencia;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private MovimientoService movimientoService;
 
@@ -47,12 +99,17 @@ class MovimientoServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Ejecutar el callback transaccional directamente
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(cuentaCache.obtener(1L)).thenReturn(Optional.of(metadatos(true)));
+
         // Configurar cuenta de prueba
         cuenta = new Cuenta();
         cuenta.setId(1L);
         cuenta.setNumeroCuenta("478758");
         cuenta.setTipoCuenta("Ahorros");
-        cuenta.setSaldoInicial(new BigDecimal("2000.00"));
+        cuenta.setSaldoInicial(Dinero.de(new BigDecimal("2000.00")));
         cuenta.setEstado(true);
         cuenta.setClienteId(1L);
 
@@ -66,8 +123,8 @@ class MovimientoServiceTest {
         movimiento = new Movimiento();
         movimiento.setId(1L);
         movimiento.setTipoMovimiento("Retiro");
-        movimiento.setValor(new BigDecimal("575.00"));
-        movimiento.setSaldo(new BigDecimal("1425.00"));
+        movimiento.setValor(Dinero.de(new BigDecimal("575.00")));
+        movimiento.setSaldo(Dinero.de(new BigDecimal("1425.00")));
         movimiento.setFecha(LocalDateTime.now());
         movimiento.setCuenta(cuenta);
     }
@@ -98,8 +155,8 @@ class MovimientoServiceTest {
         movimientoDto.setTipoMovimiento("Deposito");
         movimientoDto.setValor(new BigDecimal("500.00"));
         movimiento.setTipoMovimiento("Deposito");
-        movimiento.setValor(new BigDecimal("500.00"));
-        movimiento.setSaldo(new BigDecimal("2500.00"));
+        movimiento.setValor(Dinero.de(new BigDecimal("500.00")));
+        movimiento.setSaldo(Dinero.de(new BigDecimal("2500.00")));
 
         when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
         when(movimientoMapper.toEntity(movimientoDto)).thenReturn(movimiento);
@@ -116,12 +173,49 @@ class MovimientoServiceTest {
         verify(movimientoMapper).toDto(movimiento);
     }
 
+    @Test
+    @DisplayName("Debería devolver el movimiento ya contabilizado con la misma clave sin tomar el carril")
+    void deberiaDevolverMovimientoYaContabilizadoConLaMismaClave() {
+        // Given
+        MovimientoDto previo = new MovimientoDto();
+        previo.setId(7L);
+        when(registroIdempotencia.huella("clave-1", movimientoDto)).thenReturn("huella");
+        when(registroIdempotencia.buscar("clave-1", "huella")).thenReturn(Optional.of(previo));
+
+        // When
+        MovimientoDto resultado = movimientoService.crearMovimiento(movimientoDto, "clave-1");
+
+        // Then
+        assertSame(previo, resultado);
+        verifyNoInteractions(postingEngine, transactionTemplate, cuentaRepository, movimientoRepository);
+    }
+
+    @Test
+    @DisplayName("Debería guardar la clave de idempotencia en la transacción del movimiento")
+    void deberiaGuardarClaveDeIdempotenciaConElMovimiento() {
+        // Given
+        when(registroIdempotencia.huella("clave-1", movimientoDto)).thenReturn("huella");
+        when(registroIdempotencia.buscar("clave-1", "huella")).thenReturn(Optional.empty());
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
+        when(movimientoMapper.toEntity(movimientoDto)).thenReturn(movimiento);
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimiento);
+        when(movimientoMapper.toDto(movimiento)).thenReturn(movimientoDto);
+
+        // When
+        MovimientoDto resultado = movimientoService.crearMovimiento(movimientoDto, "clave-1");
+
+        // Then
+        assertSame(movimientoDto, resultado);
+        verify(registroIdempotencia).registrar("clave-1", "huella", movimiento);
+        verify(registroIdempotencia).recordar("clave-1", "huella", movimientoDto);
+    }
+
     @Test
     @DisplayName("Debería lanzar SaldoNoDisponibleException cuando no hay saldo suficiente para retiro")
     void deberiaLanzarSaldoNoDisponibleExceptionCuandoNoHaySaldoSuficiente() {
         // Given
         movimientoDto.setValor(new BigDecimal("3000.00")); // Mayor al saldo inicial
-        cuenta.setSaldoInicial(new BigDecimal("2000.00"));
+        cuenta.setSaldoInicial(Dinero.de(new BigDecimal("2000.00")));
 
         when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
 
@@ -176,8 +270,8 @@ class MovimientoServiceTest {
     void deberiaPermitirRetiroCuandoElSaldoEsExactamenteIgualAlValorDelRetiro() {
         // Given
         movimientoDto.setValor(new BigDecimal("2000.00")); // Igual al saldo inicial
-        movimiento.setValor(new BigDecimal("2000.00"));
-        movimiento.setSaldo(BigDecimal.ZERO);
+        movimiento.setValor(Dinero.de(new BigDecimal("2000.00")));
+        movimiento.setSaldo(Dinero.CERO);
 
         when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
         when(movimientoMapper.toEntity(movimientoDto)).thenReturn(movimiento);
@@ -202,8 +296,8 @@ class MovimientoServiceTest {
         BigDecimal saldoEsperado = new BigDecimal("1425.00"); // 2000 - 575
 
         movimientoDto.setValor(valorRetiro);
-        movimiento.setValor(valorRetiro);
-        movimiento.setSaldo(saldoEsperado);
+        movimiento.setValor(Dinero.de(valorRetiro));
+        movimiento.setSaldo(Dinero.de(saldoEsperado));
 
         when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
         when(movimientoMapper.toEntity(movimientoDto)).thenReturn(movimiento);
@@ -216,7 +310,7 @@ class MovimientoServiceTest {
         // Then
         assertNotNull(resultado);
         verify(movimientoRepository).save(argThat(mov -> 
-            mov.getSaldo().compareTo(saldoEsperado) == 0
+            mov.getSaldo().equals(Dinero.de(saldoEsperado))
         ));
     }
 
@@ -230,8 +324,8 @@ class MovimientoServiceTest {
 
         movimientoDto.setValor(valorDeposito);
         movimiento.setTipoMovimiento("Deposito");
-        movimiento.setValor(valorDeposito);
-        movimiento.setSaldo(saldoEsperado);
+        movimiento.setValor(Dinero.de(valorDeposito));
+        movimiento.setSaldo(Dinero.de(saldoEsperado));
 
         when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
         when(movimientoMapper.toEntity(movimientoDto)).thenReturn(movimiento);
@@ -244,8 +338,135 @@ class MovimientoServiceTest {
         // Then
         assertNotNull(resultado);
         verify(movimientoRepository).save(argThat(mov -> 
-            mov.getSaldo().compareTo(saldoEsperado) == 0
+            mov.getSaldo().equals(Dinero.de(saldoEsperado))
         ));
     }
-}
 
+    @Test
+    @DisplayName("Debería reintentar la contabilización cuando la cuenta cambió de versión")
+    void deberiaReintentarCuandoHayConflictoDeVersion() {
+        // Given
+        doThrow(new ObjectOptimisticLockingFailureException(Cuenta.class, 1L))
+            .doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+            .when(transactionTemplate).execute(any());
+        when(cuentaRepository.findById(1L)).thenReturn(Optional.of(cuenta));
+        when(movimientoMapper.toEntity(movimientoDto)).thenReturn(movimiento);
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimiento);
+        when(movimientoMapper.toDto(movimiento)).thenReturn(movimientoDto);
+
+        // When
+        MovimientoDto resultado = movimientoService.crearMovimiento(movimientoDto);
+
+        // Then
+        assertNotNull(resultado);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(movimientoRepository, times(1)).save(any(Movimiento.class));
+    }
+
+    @Test
+    @DisplayName("Debería informar el resultado de cada ítem del lote sin abortar los demás")
+    void deberiaInformarResultadoPorItemDelLote() {
+        // Given
+        ReflectionTestUtils.setField(movimientoService, "maxItemsLote", 10);
+
+        MovimientoDto deposito = itemLote("Deposito", "100.00", 1L);
+        MovimientoDto retiroExcesivo = itemLote("Retiro", "5000.00", 1L);
+        MovimientoDto cuentaInexistente = itemLote("Deposito", "10.00", 99L);
+        MovimientoDto valorInvalido = itemLote("Transferencia", "0.00", 1L);
+
+        when(cuentaRepository.findAllById(anyIterable())).thenReturn(List.of(cuenta));
+        when(movimientoMapper.toEntity(any(MovimientoDto.class))).thenAnswer(invocation -> new Movimiento());
+        when(movimientoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(movimientoMapper.toDto(any(Movimiento.class))).thenReturn(movimientoDto);
+
+        // When
+        LoteMovimientosResultadoDto resultado = movimientoService.crearMovimientosEnLote(
+            Arrays.asList(deposito, retiroExcesivo, cuentaInexistente, valorInvalido, null));
+
+        // Then
+        assertEquals(5, resultado.getTotal());
+        assertEquals(1, resultado.getCreados());
+        assertEquals(4, resultado.getRechazados());
+        assertEquals("CREADO", resultado.getResultados().get(0).getEstado());
+        assertEquals("SALDO_NO_DISPONIBLE", resultado.getResultados().get(1).getCodigoError());
+        assertEquals("CUENTA_NOT_FOUND", resultado.getResultados().get(2).getCodigoError());
+        assertEquals("VALIDATION_ERROR", resultado.getResultados().get(3).getCodigoError());
+        assertEquals("tipoMovimiento: El tipo de movimiento debe ser Deposito o Retiro; valor: El valor debe ser mayor a 0",
+            resultado.getResultados().get(3).getMensaje());
+        assertEquals("VALIDATION_ERROR", resultado.getResultados().get(4).getCodigoError());
+        assertEquals(Dinero.de(new BigDecimal("2100.00")), cuenta.getSaldoActual());
+        verify(transactionTemplate, times(1)).execute(any());
+        assertEquals(1.0, meterRegistry.counter("accounting.movimientos.lote.rechazos", "codigo", "SALDO_NO_DISPONIBLE").count());
+        assertEquals(1.0, meterRegistry.counter("accounting.movimientos.lote.rechazos", "codigo", "CUENTA_NOT_FOUND").count());
+        assertEquals(2.0, meterRegistry.counter("accounting.movimientos.lote.rechazos", "codigo", "VALIDATION_ERROR").count());
+    }
+
+    // El validador exige fecha y saldo aunque el servicio los reemplaza al contabilizar
+    private static MovimientoDto itemLote(String tipo, String valor, Long cuentaId) {
+        MovimientoDto item = new MovimientoDto();
+        item.setFecha(LocalDateTime.now());
+        item.setTipoMovimiento(tipo);
+        item.setValor(new BigDecimal(valor));
+        item.setSaldo(BigDecimal.ZERO);
+        item.setCuentaId(cuentaId);
+        return item;
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una cuenta inactiva en caché sin tomar el carril ni abrir transacción")
+    void deberiaRechazarCuentaInactivaEnCacheSinTomarCarril() {
+        // Given
+        when(cuentaCache.obtener(1L)).thenReturn(Optional.of(metadatos(false)));
+
+        // When & Then
+        CuentaNotFoundException exception = assertThrows(
+            CuentaNotFoundException.class,
+            () -> movimientoService.crearMovimiento(movimientoDto)
+        );
+
+        assertEquals("La cuenta está inactiva", exception.getMessage());
+        verify(postingEngine, never()).ejecutar(anyLong(), any());
+        verify(transactionTemplate, never()).execute(any());
+        verify(cuentaRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar el cambio de tipo o de valor de un movimiento sin tocar el saldo")
+    void deberiaRechazarCambioDeTipoOValor() {
+        // Given
+        when(movimientoRepository.findById(1L)).thenReturn(Optional.of(movimiento));
+        MovimientoDto otroTipo = new MovimientoDto();
+        otroTipo.setTipoMovimiento("Deposito");
+        otroTipo.setValor(new BigDecimal("575.00"));
+        MovimientoDto otroValor = new MovimientoDto();
+        otroValor.setTipoMovimiento("Retiro");
+        otroValor.setValor(new BigDecimal("500.00"));
+
+        // When & Then
+        assertThrows(MovimientoInmutableException.class, () -> movimientoService.actualizarMovimiento(1L, otroTipo));
+        assertThrows(MovimientoInmutableException.class, () -> movimientoService.actualizarMovimiento(1L, otroValor));
+        assertEquals("Retiro", movimiento.getTipoMovimiento());
+        verify(movimientoRepository, never()).save(any(Movimiento.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería aceptar una actualización con el mismo tipo y valor sin publicar cambios")
+    void deberiaAceptarActualizacionSinCambios() {
+        // Given
+        when(movimientoRepository.findById(1L)).thenReturn(Optional.of(movimiento));
+        when(movimientoMapper.toDto(movimiento)).thenReturn(movimientoDto);
+
+        // When
+        MovimientoDto resultado = movimientoService.actualizarMovimiento(1L, movimientoDto);
+
+        // Then
+        assertSame(movimientoDto, resultado);
+        verify(movimientoRepository, never()).save(any(Movimiento.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private CuentaMetadatos metadatos(boolean estado) {
+        return new CuentaMetadatos(1L, "478758", "Ahorros", Dinero.de(new BigDecimal("2000.00")), estado, 1L, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,159 @@
+package com.microservices.accountingservice.application.service;
+
+import com.microservices.accountingservice.application.service.SaldoDiarioService.ResumenPeriodo;
+import com.microservices.accountingservice.domain.model.Dinero;
+import com.microservices.accountingservice.domain.projection.CuentaVista;
+import com.microservices.accountingservice.domain.repository.CuentaRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Resúmenes de período sobre tres cuentas con los mismos movimientos: una nunca
+ * reconstruida, otra reconstruida y otra con agregados solo desde el tercer día, como
+ * una cuenta con historia anterior a los agregados. Las tres deben resumir igual.
+ *
+ * <p>Saldo inicial 100 y movimientos: día 0 09:00 +50 (150), día 1 10:00 -30 (120),
+ * día 1 15:00 +20 (140), día 2 12:00 +100 (240), día 3 08:00 -40 (200),
+ * día 3 18:00 +10 (210).
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:saldos-diarios",
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false",
+    "accounting.movimientos.archivo.habilitado=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Resumen de período con saldos diarios")
+class SaldoDiarioServiceTest {
+
+    private static final long CLIENTE_ID = 11L;
+    private static final long SIN_RECONSTRUIR_ID = 2_000L;
+    private static final long RECONSTRUIDA_ID = 2_001L;
+    private static final long AGREGADOS_PARCIALES_ID = 2_002L;
+    private static final List<Long> CUENTAS = List.of(SIN_RECONSTRUIR_ID, RECONSTRUIDA_ID, AGREGADOS_PARCIALES_ID);
+
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate dia0 = LocalDate.now().minusDays(10);
+
+    @BeforeAll
+    void sembrar() {
+        List<Object[]> cuentas = new ArrayList<>();
+        List<Object[]> movimientos = new ArrayList<>();
+        long id = 6_000L;
+        for (long cuentaId : CUENTAS) {
+            cuentas.add(new Object[]{cuentaId, "SD-" + cuentaId, CLIENTE_ID});
+            movimientos.add(movimiento(id++, cuentaId, 0, 9, "Deposito", "50.00", "150.00", 1));
+            movimientos.add(movimiento(id++, cuentaId, 1, 10, "Retiro", "30.00", "120.00", 2));
+            movimientos.add(movimiento(id++, cuentaId, 1, 15, "Deposito", "20.00", "140.00", 3));
+            movimientos.add(movimiento(id++, cuentaId, 2, 12, "Deposito", "100.00", "240.00", 4));
+            movimientos.add(movimiento(id++, cuentaId, 3, 8, "Retiro", "40.00", "200.00", 5));
+            movimientos.add(movimiento(id++, cuentaId, 3, 18, "Deposito", "10.00", "210.00", 6));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cuentas (id, numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, " +
+            "estado, cliente_id, version, ultima_secuencia, fecha_creacion) " +
+            "VALUES (?, ?, 'Ahorros', 100.00, 210.00, TRUE, ?, 0, 6, CURRENT_TIMESTAMP)", cuentas);
+        jdbcTemplate.batchUpdate("INSERT INTO movimientos (id, cuenta_id, cliente_id, fecha, tipo_movimiento, valor, " +
+            "saldo, secuencia, fecha_creacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", movimientos);
+
+        assertEquals(4, saldoDiarioService.reconstruir(RECONSTRUIDA_ID));
+        saldoDiarioService.reconstruir(AGREGADOS_PARCIALES_ID);
+        jdbcTemplate.update("DELETE FROM saldos_diarios WHERE cuenta_id = ? AND fecha < ?",
+            AGREGADOS_PARCIALES_ID, Date.valueOf(dia0.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("Un período con días extremos parciales debería tener la apertura y el cierre de los movimientos")
+    void periodoConExtremosParcialesDeberiaResumirAperturaYCierre() {
+        // When
+        Map<Long, ResumenPeriodo> resumenes = resumir(en(1, 12), en(3, 12));
+
+        // Then
+        for (long cuentaId : CUENTAS) {
+            assertEquals(resumen("120.00", "200.00", "120.00", "40.00", 3), resumenes.get(cuentaId), "cuenta " + cuentaId);
+        }
+    }
+
+    @Test
+    @DisplayName("Un período dentro de un solo día debería contar solo los movimientos de ese tramo")
+    void periodoDeUnDiaDeberiaContarSoloSuTramo() {
+        // When
+        Map<Long, ResumenPeriodo> resumenes = resumir(en(1, 0), en(1, 12));
+
+        // Then
+        for (long cuentaId : CUENTAS) {
+            assertEquals(resumen("150.00", "120.00", "0.00", "30.00", 1), resumenes.get(cuentaId), "cuenta " + cuentaId);
+        }
+    }
+
+    @Test
+    @DisplayName("Un período posterior a todos los movimientos debería abrir y cerrar con el saldo final")
+    void periodoPosteriorDeberiaAbrirConElSaldoFinal() {
+        // When
+        Map<Long, ResumenPeriodo> resumenes = resumir(en(5, 0), en(6, 0));
+
+        // Then
+        for (long cuentaId : CUENTAS) {
+            assertEquals(resumen("210.00", "210.00", "0.00", "0.00", 0), resumenes.get(cuentaId), "cuenta " + cuentaId);
+        }
+    }
+
+    @Test
+    @DisplayName("Un período anterior al primer movimiento debería abrir y cerrar con el saldo inicial")
+    void periodoAnteriorDeberiaAbrirConElSaldoInicial() {
+        // When
+        Map<Long, ResumenPeriodo> resumenes = resumir(en(-3, 0), en(-1, 0));
+
+        // Then
+        for (long cuentaId : CUENTAS) {
+            assertEquals(resumen("100.00", "100.00", "0.00", "0.00", 0), resumenes.get(cuentaId), "cuenta " + cuentaId);
+        }
+    }
+
+    private Map<Long, ResumenPeriodo> resumir(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        List<CuentaVista> cuentas = cuentaRepository.findVistasByClienteIdAndEstadoTrue(CLIENTE_ID);
+        assertEquals(CUENTAS.size(), cuentas.size());
+        return saldoDiarioService.resumirPeriodo(CLIENTE_ID, cuentas, fechaInicio, fechaFin);
+    }
+
+    private LocalDateTime en(int dia, int hora) {
+        return dia0.plusDays(dia).atTime(hora, 0);
+    }
+
+    private Object[] movimiento(long id, long cuentaId, int dia, int hora, String tipo, String valor, String saldo,
+                                long secuencia) {
+        return new Object[]{id, cuentaId, CLIENTE_ID, Timestamp.valueOf(en(dia, hora)), tipo,
+            new BigDecimal(valor), new BigDecimal(saldo), secuencia};
+    }
+
+    private static ResumenPeriodo resumen(String apertura, String cierre, String depositos, String retiros,
+                                          long cantidad) {
+        return new ResumenPeriodo(Dinero.de(new BigDecimal(apertura)), Dinero.de(new BigDecimal(cierre)),
+            Dinero.de(new BigDecimal(depositos)), Dinero.de(new BigDecimal(retiros)), cantidad);
+    }
+}
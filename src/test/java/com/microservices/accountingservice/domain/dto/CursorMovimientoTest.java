@@ -0,0 +1,61 @@
+package com.microservices.accountingservice.domain.dto;
+
+import com.microservices.accountingservice.domain.exception.CursorInvalidoException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas unitarias para CursorMovimiento")
+class CursorMovimientoTest {
+
+    @Test
+    @DisplayName("Debería decodificar el mismo cursor que codificó, con fracciones de segundo")
+    void deberiaDecodificarLoCodificado() {
+        // Given
+        CursorMovimiento cursor = new CursorMovimiento(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000), 9_007L);
+
+        // When
+        String token = cursor.codificar();
+
+        // Then
+        assertEquals(cursor, CursorMovimiento.decodificar(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    @DisplayName("Sin cursor debería partir de la posición inicial")
+    void sinCursorDeberiaPartirDelInicio() {
+        // When & Then
+        assertEquals(CursorMovimiento.INICIO, CursorMovimiento.decodificar(null));
+        assertEquals(CursorMovimiento.INICIO, CursorMovimiento.decodificar(" "));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un cursor mal formado o alterado")
+    void deberiaRechazarCursorInvalido() {
+        // Given
+        String valido = new CursorMovimiento(LocalDateTime.of(2025, 3, 1, 10, 15), 42L).codificar();
+        List<String> invalidos = List.of(
+            "%%%",
+            valido.substring(0, valido.length() - 3),
+            base64("2025-03-01T10:15"),
+            base64("2025-13-01T10:15_42"),
+            base64("2025-03-01T10:15_cuarenta"),
+            base64("_42"));
+
+        // When & Then
+        for (String token : invalidos) {
+            assertThrows(CursorInvalidoException.class, () -> CursorMovimiento.decodificar(token), token);
+        }
+    }
+
+    private static String base64(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
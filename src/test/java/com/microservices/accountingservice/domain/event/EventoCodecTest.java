@@ -0,0 +1,129 @@
+package com.microservices.accountingservice.domain.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.infrastructure.messaging.EventoDeserializer;
+import com.microservices.accountingservice.infrastructure.messaging.EventoSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas unitarias para EventoCodec")
+class EventoCodecTest {
+
+    private final EventoCodec codec = new EventoCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("Debería recuperar un evento de movimiento con montos en centavos y fechas en microsegundos")
+    void deberiaCodificarYDecodificarMovimiento() {
+        // Given
+        MovimientoEvent evento = movimiento();
+
+        // When
+        MovimientoEvent decodificado = (MovimientoEvent) codec.decodificar(codec.codificar(evento));
+
+        // Then
+        assertEquals("CREATED", decodificado.getEventType());
+        assertEquals(123456789L, decodificado.getMovimientoId());
+        assertEquals(42L, decodificado.getCuentaId());
+        assertEquals("478758", decodificado.getNumeroCuenta());
+        assertEquals(7L, decodificado.getClienteId());
+        assertEquals("Retiro", decodificado.getTipoMovimiento());
+        assertEquals(new BigDecimal("-575.50"), decodificado.getValor());
+        assertEquals(new BigDecimal("1424.50"), decodificado.getSaldo());
+        assertEquals(LocalDateTime.of(2024, 2, 10, 9, 30, 15, 123456000), decodificado.getFecha());
+        assertEquals(evento.getTimestamp(), decodificado.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Debería conservar los campos nulos de un evento de cuenta")
+    void deberiaConservarCamposNulos() {
+        // Given
+        CuentaEvent evento = CuentaEvent.builder()
+            .eventType("DEACTIVATED")
+            .cuentaId(42L)
+            .numeroCuenta("478758")
+            .tipoCuenta("Ahorros")
+            .saldoInicial(new BigDecimal("2000"))
+            .clienteId(7L)
+            .estado(false)
+            .build();
+
+        // When
+        CuentaEvent decodificado = (CuentaEvent) codec.decodificar(codec.codificar(evento));
+
+        // Then
+        assertEquals("DEACTIVATED", decodificado.getEventType());
+        assertEquals(new BigDecimal("2000.00"), decodificado.getSaldoInicial());
+        assertNull(decodificado.getSaldoActual());
+        assertNull(decodificado.getClienteIdAnterior());
+        assertNull(decodificado.getTimestamp());
+        assertFalse(decodificado.getEstado());
+    }
+
+    @Test
+    @DisplayName("Debería ocupar menos de un tercio que el mismo evento en JSON")
+    void deberiaSerMasCompactoQueJson() throws Exception {
+        // Given
+        MovimientoEvent evento = movimiento();
+
+        // When
+        byte[] binario = codec.codificar(evento);
+        byte[] json = objectMapper.writeValueAsBytes(evento);
+
+        // Then
+        assertTrue(binario.length * 3 < json.length,
+            "binario: " + binario.length + " bytes, JSON: " + json.length + " bytes");
+    }
+
+    @Test
+    @DisplayName("Debería leer tanto mensajes binarios como JSON durante la migración")
+    void deberiaLeerAmbosFormatos() throws Exception {
+        // Given
+        MovimientoEvent evento = movimiento();
+        EventoDeserializer deserializer = new EventoDeserializer();
+        byte[] binario = new EventoSerializer().serialize("movimiento-events", evento);
+        byte[] json = objectMapper.writeValueAsBytes(evento);
+
+        // When
+        MovimientoEvent desdeBinario = (MovimientoEvent) deserializer.deserialize("movimiento-events", binario);
+        MovimientoEvent desdeJson = (MovimientoEvent) deserializer.deserialize("movimiento-events", json);
+
+        // Then
+        assertEquals(desdeJson.getMovimientoId(), desdeBinario.getMovimientoId());
+        assertEquals(0, desdeJson.getValor().compareTo(desdeBinario.getValor()));
+        assertEquals(desdeJson.getTimestamp(), desdeBinario.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una versión de formato desconocida")
+    void deberiaRechazarVersionDesconocida() {
+        // Given
+        byte[] datos = codec.codificar(movimiento());
+        datos[1] = 99;
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> codec.decodificar(datos));
+        assertEquals("Versión de formato de evento no soportada: 99", exception.getMessage());
+    }
+
+    private MovimientoEvent movimiento() {
+        return MovimientoEvent.builder()
+            .eventType("CREATED")
+            .movimientoId(123456789L)
+            .cuentaId(42L)
+            .numeroCuenta("478758")
+            .clienteId(7L)
+            .tipoMovimiento("Retiro")
+            .valor(new BigDecimal("-575.50"))
+            .saldo(new BigDecimal("1424.50"))
+            .fecha(LocalDateTime.of(2024, 2, 10, 9, 30, 15, 123456789))
+            .timestamp(LocalDateTime.of(2024, 2, 10, 9, 30, 15, 250000000))
+            .build();
+    }
+}
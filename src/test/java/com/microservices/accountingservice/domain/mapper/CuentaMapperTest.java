@@ -0,0 +1,49 @@
+package com.microservices.accountingservice.domain.mapper;
+
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.entity.Cuenta;
+import com.microservices.accountingservice.domain.model.Dinero;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas unitarias para CuentaMapper")
+class CuentaMapperTest {
+
+    private final CuentaMapper cuentaMapper = new CuentaMapper();
+
+    @Test
+    @DisplayName("Debería actualizar los datos editables sin tocar el saldo inicial ni el actual")
+    void deberiaActualizarSinTocarLosSaldos() {
+        // Given
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("478758");
+        cuenta.setTipoCuenta("Ahorros");
+        cuenta.setSaldoInicial(Dinero.de(new BigDecimal("2000.00")));
+        cuenta.setSaldoActual(Dinero.de(new BigDecimal("1425.00")));
+        cuenta.setClienteId(1L);
+        cuenta.setEstado(true);
+
+        CuentaDto cambio = new CuentaDto();
+        cambio.setNumeroCuenta("478759");
+        cambio.setTipoCuenta("Corriente");
+        cambio.setSaldoInicial(new BigDecimal("5000.00"));
+        cambio.setSaldoActual(new BigDecimal("9999.00"));
+        cambio.setClienteId(2L);
+        cambio.setEstado(false);
+
+        // When
+        cuentaMapper.updateEntity(cambio, cuenta);
+
+        // Then
+        assertEquals("478759", cuenta.getNumeroCuenta());
+        assertEquals("Corriente", cuenta.getTipoCuenta());
+        assertEquals(2L, cuenta.getClienteId());
+        assertFalse(cuenta.getEstado());
+        assertEquals(Dinero.de(new BigDecimal("2000.00")), cuenta.getSaldoInicial());
+        assertEquals(Dinero.de(new BigDecimal("1425.00")), cuenta.getSaldoActual());
+    }
+}
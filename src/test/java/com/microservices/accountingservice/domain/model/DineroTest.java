@@ -0,0 +1,45 @@
+package com.microservices.accountingservice.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas unitarias para Dinero")
+class DineroTest {
+
+    @Test
+    @DisplayName("Debería convertir desde y hacia BigDecimal sin perder la escala")
+    void deberiaConvertirDesdeYHaciaBigDecimal() {
+        // Given
+        Dinero saldo = Dinero.de(new BigDecimal("1425.5"));
+
+        // When
+        Dinero resultado = saldo.menos(Dinero.de(new BigDecimal("1430.05")));
+
+        // Then
+        assertEquals(142_550L, saldo.centavos());
+        assertEquals(new BigDecimal("-4.55"), resultado.aBigDecimal());
+        assertEquals("-4.55", resultado.toString());
+        assertTrue(resultado.esNegativo());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar montos con fracciones de centavo")
+    void deberiaRechazarFraccionesDeCentavo() {
+        // When & Then
+        assertThrows(ArithmeticException.class, () -> Dinero.de(new BigDecimal("10.005")));
+    }
+
+    @Test
+    @DisplayName("Debería fallar si la suma desborda el long de centavos")
+    void deberiaFallarSiLaSumaDesborda() {
+        // Given
+        Dinero maximo = Dinero.deCentavos(Long.MAX_VALUE);
+
+        // When & Then
+        assertThrows(ArithmeticException.class, () -> maximo.mas(Dinero.deCentavos(1)));
+    }
+}
@@ -0,0 +1,126 @@
+package com.microservices.accountingservice.domain.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Planes de las consultas de movimientos sobre un esquema creado por las migraciones y
+ * un conjunto de datos sembrado. Las sentencias tienen la misma forma que las de
+ * {@link MovimientoRepository}; si una consulta deja de usar su índice compuesto el
+ * plan cambia y la prueba falla.
+ */
+@SpringBootTest(properties = {
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Planes de consulta de movimientos")
+class PlanesConsultaTest {
+
+    // Fuera del rango de los identificadores que asignan las secuencias en otras pruebas
+    private static final long PRIMER_ID = 9_000_000L;
+    private static final long PRIMER_CLIENTE = 900_000L;
+    private static final int CUENTAS = 400;
+    private static final int MOVIMIENTOS = 20_000;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String RANGO_CLIENTE = "m.cliente_id = ? AND m.fecha BETWEEN ? AND ?";
+    private static final String CURSOR = "(m.fecha < ? OR (m.fecha = ? AND m.id < ?)) ORDER BY m.fecha DESC, m.id DESC LIMIT 20";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void sembrar() {
+        List<Object[]> cuentas = new ArrayList<>(CUENTAS);
+        for (long i = 0; i < CUENTAS; i++) {
+            cuentas.add(new Object[]{PRIMER_ID + i, "P" + i, PRIMER_CLIENTE + i / 2});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cuentas (id, numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, " +
+            "estado, cliente_id, version, ultima_secuencia, fecha_creacion) " +
+            "VALUES (?, ?, 'Ahorros', 0, 0, TRUE, ?, 0, 0, CURRENT_TIMESTAMP)", cuentas);
+
+        List<Object[]> movimientos = new ArrayList<>(MOVIMIENTOS);
+        for (long i = 0; i < MOVIMIENTOS; i++) {
+            long cuenta = i % CUENTAS;
+            movimientos.add(new Object[]{PRIMER_ID + i, PRIMER_ID + cuenta, PRIMER_CLIENTE + cuenta / 2,
+                Timestamp.valueOf(INICIO.plusMinutes(i)), i / CUENTAS + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO movimientos (id, cuenta_id, cliente_id, fecha, tipo_movimiento, valor, " +
+            "saldo, secuencia, fecha_creacion) VALUES (?, ?, ?, ?, 'Deposito', 10.00, 10.00, ?, CURRENT_TIMESTAMP)",
+            movimientos);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("El reporte por cliente debería leer un rango de idx_movimientos_cliente_fecha en lugar de recorrer cuentas")
+    void reportePorClienteDeberiaUsarIndiceCompuesto() {
+        // Given
+        String antes = "SELECT m.id FROM movimientos m JOIN cuentas c ON c.id = m.cuenta_id " +
+            "WHERE c.cliente_id = ? AND m.fecha BETWEEN ? AND ? ORDER BY m.fecha DESC, m.id DESC";
+        String despues = "SELECT m.cuenta_id, m.id FROM movimientos m WHERE " + RANGO_CLIENTE +
+            " ORDER BY m.fecha DESC, m.id DESC";
+
+        // When
+        String planAntes = plan(antes);
+        String planDespues = plan(despues);
+
+        // Then
+        assertTrue(planAntes.contains("CUENTAS.tableScan"), planAntes);
+        assertRangoDeIndice(planDespues, "IDX_MOVIMIENTOS_CLIENTE_FECHA", "CLIENTE_ID = ?1", "FECHA >= ?2");
+    }
+
+    @Test
+    @DisplayName("Los totales del período deberían leer un rango de idx_movimientos_cliente_fecha")
+    void totalesDelPeriodoDeberianUsarIndiceCompuesto() {
+        // When
+        String plan = plan("SELECT m.cuenta_id, SUM(m.valor) FROM movimientos m " +
+            "WHERE m.cliente_id = ? AND m.fecha >= ? AND m.fecha < ? GROUP BY m.cuenta_id");
+
+        // Then
+        assertRangoDeIndice(plan, "IDX_MOVIMIENTOS_CLIENTE_FECHA", "CLIENTE_ID = ?1", "FECHA >= ?2");
+    }
+
+    @Test
+    @DisplayName("La paginación por cursor debería recorrer el índice de cliente o de cuenta según el filtro")
+    void paginacionPorCursorDeberiaUsarIndiceCompuesto() {
+        // When
+        String porCliente = plan("SELECT m.id, c.numero_cuenta FROM movimientos m JOIN cuentas c ON c.id = m.cuenta_id " +
+            "WHERE m.cliente_id = ? AND " + CURSOR);
+        String porCuenta = plan("SELECT m.id, c.numero_cuenta FROM movimientos m JOIN cuentas c ON c.id = m.cuenta_id " +
+            "WHERE m.cuenta_id = ? AND " + CURSOR);
+
+        // Then
+        assertRangoDeIndice(porCliente, "IDX_MOVIMIENTOS_CLIENTE_FECHA", "CLIENTE_ID = ?1");
+        assertRangoDeIndice(porCuenta, "IDX_MOVIMIENTOS_CUENTA_FECHA", "CUENTA_ID = ?1");
+        assertFalse(porCliente.contains("tableScan"), porCliente);
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).replaceAll("\\s+", " ");
+    }
+
+    // H2 anota la tabla con /* INDICE: condiciones */ cuando lee un rango del índice
+    private static void assertRangoDeIndice(String plan, String indice, String... condiciones) {
+        int inicio = plan.indexOf("PUBLIC." + indice + ":");
+        assertTrue(inicio >= 0, plan);
+        String rango = plan.substring(inicio, plan.indexOf("*/", inicio));
+        for (String condicion : condiciones) {
+            assertTrue(rango.contains(condicion), plan);
+        }
+    }
+}
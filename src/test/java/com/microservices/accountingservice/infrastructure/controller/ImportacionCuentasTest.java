@@ -0,0 +1,188 @@
+package com.microservices.accountingservice.infrastructure.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
+import com.microservices.accountingservice.application.service.CuentaService;
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Importación masiva de cuentas con bloques de 3 líneas, para que un archivo pequeño
+ * pase por varios bloques y transacciones.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:importacion",
+    "accounting.cuentas.importacion.tamano-bloque=3",
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Importación masiva de cuentas")
+class ImportacionCuentasTest {
+
+    private static final long CLIENTE_ID = 1L;
+    private static final long CLIENTE_INACTIVO_ID = 2L;
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void sembrar(@Autowired ClienteProyeccionService clienteProyeccionService) {
+        clienteProyeccionService.aplicarLote(List.of(
+            new EventoCliente(cliente(CLIENTE_ID, true), "cliente-events", 0, 0),
+            new EventoCliente(cliente(CLIENTE_INACTIVO_ID, false), "cliente-events", 0, 1)));
+
+        CuentaDto existente = new CuentaDto();
+        existente.setNumeroCuenta("IMP-EXISTENTE");
+        existente.setTipoCuenta("Ahorros");
+        existente.setSaldoInicial(BigDecimal.ZERO);
+        existente.setEstado(true);
+        existente.setClienteId(CLIENTE_ID);
+        cuentaService.crearCuenta(existente);
+    }
+
+    @Test
+    @DisplayName("Un CSV debería crear las cuentas válidas e informar cada línea rechazada con su código")
+    void csvDeberiaCrearValidasYRechazarPorLinea() throws Exception {
+        // Given
+        String csv = String.join("\n",
+            "clienteId,numeroCuenta,tipoCuenta,saldoInicial,estado",
+            "1,IMP-1,Ahorros,100.00,true",
+            "1,\"IMP-2\",Corriente,0,true",
+            "",
+            "1,IMP-3,Plazo,10,true",
+            "1,IMP-EXISTENTE,Ahorros,10,true",
+            "1,IMP-4,Ahorros,diez,true",
+            "1,IMP-1,Ahorros,5,true",
+            "2,IMP-5,Ahorros,5,true",
+            "1,IMP-6,Ahorros,1500.50,false",
+            "1,IMP-6,Ahorros,7,true");
+
+        // When
+        List<JsonNode> registros = importar(TEXT_CSV, csv);
+
+        // Then
+        List<JsonNode> errores = registros(registros, "ERROR");
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 11L), errores.stream().map(e -> e.get("linea").asLong()).toList());
+        assertEquals(List.of("VALIDATION_ERROR", "CUENTA_ALREADY_EXISTS", "FORMATO_INVALIDO",
+                "CUENTA_ALREADY_EXISTS", "CLIENTE_NO_DISPONIBLE", "CUENTA_ALREADY_EXISTS"),
+            errores.stream().map(e -> e.get("codigoError").asText()).toList());
+        assertTrue(errores.get(5).get("mensaje").asText().contains("línea 10"), errores.get(5).toString());
+
+        assertEquals(3, registros(registros, "PROGRESO").size());
+        JsonNode resumen = registros.get(registros.size() - 1);
+        assertEquals("RESUMEN", resumen.get("registro").asText());
+        assertEquals(11, resumen.get("ultimaLinea").asLong());
+        assertEquals(3, resumen.get("creadas").asLong());
+        assertEquals(6, resumen.get("rechazadas").asLong());
+        assertTrue(resumen.get("completa").asBoolean());
+
+        CuentaDto cuenta = cuentaService.obtenerCuentaPorNumero("IMP-6");
+        assertEquals(0, new BigDecimal("1500.50").compareTo(cuenta.getSaldoActual()));
+        assertFalse(cuenta.getEstado());
+        assertNotNull(cuentaService.obtenerCuentaPorNumero("IMP-2").getId());
+    }
+
+    @Test
+    @DisplayName("Un NDJSON debería crear las cuentas e ignorar los campos que no son de alta")
+    void ndjsonDeberiaCrearCuentas() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+            "{\"numeroCuenta\":\"IMP-N1\",\"tipoCuenta\":\"Ahorros\",\"saldoInicial\":50.25,\"estado\":true,\"clienteId\":1}",
+            "{\"numeroCuenta\":\"IMP-N2\",\"tipoCuenta\":\"Ahorros\",\"saldoInicial\":1,\"estado\":true,\"clienteId\":1,\"id\":1,\"saldoActual\":999}",
+            "{\"numeroCuenta\":",
+            "");
+
+        // When
+        List<JsonNode> registros = importar(MediaType.APPLICATION_NDJSON, ndjson);
+
+        // Then
+        List<JsonNode> errores = registros(registros, "ERROR");
+        assertEquals(1, errores.size());
+        assertEquals(3, errores.get(0).get("linea").asLong());
+        assertEquals("FORMATO_INVALIDO", errores.get(0).get("codigoError").asText());
+        assertEquals(2, registros.get(registros.size() - 1).get("creadas").asLong());
+
+        CuentaDto cuenta = cuentaService.obtenerCuentaPorNumero("IMP-N2");
+        assertNotEquals(1L, cuenta.getId());
+        assertEquals(0, BigDecimal.ONE.compareTo(cuenta.getSaldoActual()));
+    }
+
+    @Test
+    @DisplayName("Un CSV sin todas las columnas debería rechazarse completo con 400")
+    void csvSinColumnasDeberiaRechazarse() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/cuentas/importacion")
+                .contentType(TEXT_CSV)
+                .content("numeroCuenta,tipoCuenta\nIMP-X,Ahorros\n"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("IMPORTACION_INVALIDA"));
+    }
+
+    private List<JsonNode> importar(MediaType tipo, String contenido) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/api/cuentas/importacion")
+                .contentType(tipo)
+                .content(contenido.getBytes(StandardCharsets.UTF_8)))
+            .andReturn();
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> registros = new ArrayList<>();
+        for (String linea : cuerpo.split("\n")) {
+            registros.add(objectMapper.readTree(linea));
+        }
+        return registros;
+    }
+
+    private static List<JsonNode> registros(List<JsonNode> registros, String tipo) {
+        return registros.stream().filter(r -> tipo.equals(r.get("registro").asText())).toList();
+    }
+
+    private static ClienteEvent cliente(long clienteId, boolean estado) {
+        return ClienteEvent.builder()
+            .eventType("CREATED")
+            .clienteId(clienteId)
+            .identificacion("100000000" + clienteId)
+            .nombre("Cliente " + clienteId)
+            .estado(estado)
+            .timestamp(LocalDateTime.now())
+            .build();
+    }
+}
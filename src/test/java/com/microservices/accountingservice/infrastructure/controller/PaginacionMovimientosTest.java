@@ -0,0 +1,161 @@
+package com.microservices.accountingservice.infrastructure.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Paginación por cursor sobre movimientos que comparten fecha de a cinco: el desempate
+ * por ID es lo único que separa una página de la siguiente dentro de la misma fecha.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:paginacion",
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false",
+    "accounting.movimientos.archivo.habilitado=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Paginación de movimientos por cursor")
+class PaginacionMovimientosTest {
+
+    private static final long CLIENTE_ID = 7L;
+    private static final long CUENTA_ID = 1_000L;
+    private static final long OTRA_CUENTA_ID = 1_001L;
+    private static final int MOVIMIENTOS = 23;
+    private static final int POR_FECHA = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(1);
+    private final List<Long> esperadosCuenta = new ArrayList<>();
+    private final List<Long> esperadosCliente = new ArrayList<>();
+
+    @BeforeAll
+    void sembrar() {
+        jdbcTemplate.batchUpdate("INSERT INTO cuentas (id, numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, " +
+                "estado, cliente_id, version, ultima_secuencia, fecha_creacion) " +
+                "VALUES (?, ?, 'Ahorros', 0, 0, TRUE, ?, 0, 0, CURRENT_TIMESTAMP)",
+            List.of(new Object[]{CUENTA_ID, "PAG-1", CLIENTE_ID}, new Object[]{OTRA_CUENTA_ID, "PAG-2", CLIENTE_ID}));
+
+        // Los IDs no siguen el orden de las fechas, para que el orden venga del índice y no de la inserción
+        List<Object[]> movimientos = new ArrayList<>();
+        for (int i = 0; i < MOVIMIENTOS; i++) {
+            long id = 5_000L + (i * 7L) % MOVIMIENTOS;
+            long cuenta = i % 3 == 0 ? OTRA_CUENTA_ID : CUENTA_ID;
+            movimientos.add(new Object[]{id, cuenta, CLIENTE_ID, Timestamp.valueOf(base.plusMinutes(i / POR_FECHA)), i + 1L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO movimientos (id, cuenta_id, cliente_id, fecha, tipo_movimiento, valor, " +
+            "saldo, secuencia, fecha_creacion) VALUES (?, ?, ?, ?, 'Deposito', 10.00, 10.00, ?, CURRENT_TIMESTAMP)",
+            movimientos);
+
+        esperadosCliente.addAll(jdbcTemplate.queryForList(
+            "SELECT id FROM movimientos WHERE cliente_id = ? ORDER BY fecha DESC, id DESC", Long.class, CLIENTE_ID));
+        esperadosCuenta.addAll(jdbcTemplate.queryForList(
+            "SELECT id FROM movimientos WHERE cuenta_id = ? ORDER BY fecha DESC, id DESC", Long.class, CUENTA_ID));
+    }
+
+    @Test
+    @DisplayName("Recorrer las páginas del cliente debería devolver cada movimiento una vez y en orden")
+    void paginasDelClienteDeberianCubrirTodoSinRepetir() throws Exception {
+        // When
+        List<Long> ids = recorrer(() -> get("/api/movimientos/cliente/{clienteId}", CLIENTE_ID), 4);
+
+        // Then
+        assertEquals(esperadosCliente, ids);
+        assertEquals(MOVIMIENTOS, new HashSet<>(ids).size());
+    }
+
+    @Test
+    @DisplayName("Recorrer las páginas de una cuenta con tamaño igual al grupo de fechas debería cortar bien los empates")
+    void paginasDeLaCuentaDeberianCortarEmpates() throws Exception {
+        // When
+        List<Long> ids = recorrer(() -> get("/api/movimientos/cliente/{clienteId}", CLIENTE_ID)
+            .param("cuentaId", String.valueOf(CUENTA_ID)), 3);
+
+        // Then
+        assertEquals(esperadosCuenta, ids);
+    }
+
+    @Test
+    @DisplayName("Recorrer un rango de fechas debería incluir ambos extremos y nada fuera de él")
+    void paginasDelRangoDeberianRespetarLosExtremos() throws Exception {
+        // Given
+        LocalDateTime desde = base.plusMinutes(1);
+        LocalDateTime hasta = base.plusMinutes(3);
+        List<Long> esperados = jdbcTemplate.queryForList("SELECT id FROM movimientos WHERE cliente_id = ? " +
+            "AND fecha BETWEEN ? AND ? ORDER BY fecha DESC, id DESC", Long.class,
+            CLIENTE_ID, Timestamp.valueOf(desde), Timestamp.valueOf(hasta));
+
+        // When
+        List<Long> ids = recorrer(() -> get("/api/movimientos/cliente/{clienteId}", CLIENTE_ID)
+            .param("fechaInicio", desde.toString())
+            .param("fechaFin", hasta.toString()), 4);
+
+        // Then
+        assertEquals(3 * POR_FECHA, esperados.size());
+        assertEquals(esperados, ids);
+    }
+
+    @Test
+    @DisplayName("Un cursor alterado debería responder 400 CURSOR_INVALIDO")
+    void cursorAlteradoDeberiaResponder400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/movimientos").param("cursor", "no-es-un-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("CURSOR_INVALIDO"));
+    }
+
+    // Sigue siguienteCursor hasta la última página; cada página es una solicitud nueva
+    private List<Long> recorrer(Supplier<MockHttpServletRequestBuilder> consulta, int limite) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            MockHttpServletRequestBuilder pagina = consulta.get().param("limite", String.valueOf(limite));
+            if (cursor != null) {
+                pagina.param("cursor", cursor);
+            }
+            String cuerpo = mockMvc.perform(pagina)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            JsonNode respuesta = objectMapper.readTree(cuerpo);
+            respuesta.get("movimientos").forEach(movimiento -> ids.add(movimiento.get("id").asLong()));
+            assertTrue(respuesta.get("movimientos").size() <= limite);
+            cursor = respuesta.get("hayMas").asBoolean() ? respuesta.get("siguienteCursor").asText() : null;
+            assertTrue(++paginas <= MOVIMIENTOS, "La paginación no termina");
+        } while (cursor != null);
+        return ids;
+    }
+}
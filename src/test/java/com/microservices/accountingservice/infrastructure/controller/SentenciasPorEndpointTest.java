@@ -0,0 +1,164 @@
+package com.microservices.accountingservice.infrastructure.controller;
+
+import com.microservices.accountingservice.application.service.ClienteProyeccionService;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
+import com.microservices.accountingservice.application.service.CuentaService;
+import com.microservices.accountingservice.application.service.MovimientoService;
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.dto.MovimientoDto;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import com.microservices.accountingservice.infrastructure.sql.SentenciasSql;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Máximo de sentencias SQL por endpoint. Los datos tienen varias cuentas y movimientos
+ * por cliente, así que un N+1 supera el máximo y rompe el build.
+ */
+@SpringBootTest(properties = {
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false",
+    "accounting.sql.cabecera-sentencias=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Sentencias SQL por endpoint")
+class SentenciasPorEndpointTest {
+
+    private static final long CLIENTE_ID = 1L;
+    private static final int CUENTAS = 3;
+    private static final int MOVIMIENTOS_POR_CUENTA = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<Long> cuentas = new ArrayList<>();
+    private Long movimientoId;
+
+    @BeforeAll
+    void sembrar(@Autowired ClienteProyeccionService clienteProyeccionService,
+                 @Autowired CuentaService cuentaService,
+                 @Autowired MovimientoService movimientoService) {
+        ClienteEvent cliente = ClienteEvent.builder()
+            .eventType("CREATED")
+            .clienteId(CLIENTE_ID)
+            .identificacion("1234567890")
+            .nombre("Jose Lema")
+            .estado(true)
+            .timestamp(LocalDateTime.now())
+            .build();
+        clienteProyeccionService.aplicarLote(List.of(new EventoCliente(cliente, "cliente-events", 0, 0)));
+
+        List<MovimientoDto> movimientos = new ArrayList<>();
+        for (int i = 0; i < CUENTAS; i++) {
+            CuentaDto cuenta = new CuentaDto();
+            cuenta.setNumeroCuenta("47875" + i);
+            cuenta.setTipoCuenta("Ahorros");
+            cuenta.setSaldoInicial(new BigDecimal("2000.00"));
+            cuenta.setEstado(true);
+            cuenta.setClienteId(CLIENTE_ID);
+            Long cuentaId = cuentaService.crearCuenta(cuenta).getId();
+            cuentas.add(cuentaId);
+            for (int j = 0; j < MOVIMIENTOS_POR_CUENTA; j++) {
+                movimientos.add(movimiento(cuentaId, "Deposito", "10.00"));
+            }
+        }
+        movimientoService.crearMovimientosEnLote(movimientos);
+        movimientoId = movimientoService.obtenerMovimientosPorCuenta(cuentas.get(0), null, null)
+            .getMovimientos().get(0).getId();
+    }
+
+    @Test
+    @DisplayName("Consultas de cuentas")
+    void consultasDeCuentas() throws Exception {
+        mockMvc.perform(get("/api/cuentas/{id}", cuentas.get(0)))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.maximo(2));
+        mockMvc.perform(get("/api/cuentas").param("clienteId", String.valueOf(CLIENTE_ID)))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.maximo(1));
+    }
+
+    @Test
+    @DisplayName("Consultas de movimientos")
+    void consultasDeMovimientos() throws Exception {
+        mockMvc.perform(get("/api/movimientos/{id}", movimientoId))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.maximo(1));
+        mockMvc.perform(get("/api/movimientos/cliente/{clienteId}", CLIENTE_ID))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.maximo(1));
+        mockMvc.perform(get("/api/movimientos/cliente/{clienteId}", CLIENTE_ID)
+                .param("cuentaId", String.valueOf(cuentas.get(0))))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.maximo(1));
+    }
+
+    @Test
+    @DisplayName("Contabilizar un movimiento")
+    void contabilizarMovimiento() throws Exception {
+        mockMvc.perform(post("/api/movimientos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"cuentaId\":" + cuentas.get(1) + ",\"clienteId\":" + CLIENTE_ID
+                    + ",\"tipoMovimiento\":\"Retiro\",\"valor\":5.00,\"fecha\":\"2024-01-10T10:00:00\",\"saldo\":0}"))
+            .andExpect(status().isCreated())
+            // Cada contabilización pide a la secuencia el ID de su evento de outbox, que no usa pool
+            .andExpect(SentenciasSql.maximo(8));
+        // Un reintento con la misma clave se responde desde la caché de idempotencia
+        String movimiento = "{\"cuentaId\":" + cuentas.get(2) + ",\"clienteId\":" + CLIENTE_ID
+            + ",\"tipoMovimiento\":\"Deposito\",\"valor\":5.00,\"fecha\":\"2024-01-10T10:00:00\",\"saldo\":0}";
+        for (int intento = 0; intento < 2; intento++) {
+            mockMvc.perform(post("/api/movimientos")
+                    .header("Idempotency-Key", "deposito-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(movimiento))
+                .andExpect(status().isCreated())
+                .andExpect(SentenciasSql.maximo(intento == 0 ? 10 : 0));
+        }
+        // Un rechazo también pasa por la cabecera
+        mockMvc.perform(get("/api/cuentas/{id}", 999_999L))
+            .andExpect(status().isNotFound())
+            .andExpect(SentenciasSql.maximo(1));
+    }
+
+    @Test
+    @DisplayName("Reporte de estado de cuenta")
+    void reporteEstadoCuenta() throws Exception {
+        mockMvc.perform(get("/api/reportes")
+                .param("cliente", String.valueOf(CLIENTE_ID))
+                .param("fechaInicio", LocalDateTime.now().minusDays(1).toString())
+                .param("fechaFin", LocalDateTime.now().plusDays(1).toString()))
+            .andExpect(status().isOk())
+            // Cuentas sin agregado anterior al período: dos lecturas más para ver si sus agregados están completos
+            .andExpect(SentenciasSql.maximo(9));
+    }
+
+    private static MovimientoDto movimiento(Long cuentaId, String tipo, String valor) {
+        MovimientoDto movimiento = new MovimientoDto();
+        movimiento.setCuentaId(cuentaId);
+        movimiento.setClienteId(CLIENTE_ID);
+        movimiento.setTipoMovimiento(tipo);
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setFecha(LocalDateTime.now());
+        movimiento.setSaldo(BigDecimal.ZERO);
+        return movimiento;
+    }
+}
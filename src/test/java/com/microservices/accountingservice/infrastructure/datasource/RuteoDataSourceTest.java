@@ -0,0 +1,197 @@
+package com.microservices.accountingservice.infrastructure.datasource;
+
+import com.microservices.accountingservice.application.cache.ReporteCache;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService;
+import com.microservices.accountingservice.application.service.ClienteProyeccionService.EventoCliente;
+import com.microservices.accountingservice.application.service.CuentaService;
+import com.microservices.accountingservice.application.service.ReporteService;
+import com.microservices.accountingservice.domain.dto.CuentaDto;
+import com.microservices.accountingservice.domain.dto.ReporteEstadoCuentaDto;
+import com.microservices.accountingservice.domain.event.ClienteEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ruteo entre la base de las pruebas y una segunda base H2 en memoria que hace de
+ * réplica. La réplica no replica nada: tiene el mismo esquema y datos propios, así que
+ * cada lectura muestra de qué base vino.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ruteo",
+    "accounting.datasource.replicas[0].url=" + RuteoDataSourceTest.URL_REPLICA,
+    "accounting.datasource.replicas[0].username=sa",
+    "accounting.datasource.consulta-retraso=SELECT segundos FROM retraso_replica",
+    "accounting.datasource.columna-retraso=segundos",
+    "accounting.datasource.verificacion-intervalo-ms=3600000",
+    "accounting.clientes.proyeccion.habilitada=false",
+    "accounting.outbox.relay.habilitado=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Ruteo de lecturas a réplicas")
+class RuteoDataSourceTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:ruteo-replica;DB_CLOSE_DELAY=-1";
+    private static final long CLIENTE_ID = 1L;
+    private static final long CLIENTE_REPORTE_ID = 2L;
+    private static final long CLIENTE_INVALIDADO_ID = 3L;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FIN = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private MonitorReplicas monitorReplicas;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private ReporteCache reporteCache;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+    @BeforeAll
+    void prepararBases(@Autowired ClienteProyeccionService clienteProyeccionService) {
+        Flyway.configure()
+            .dataSource(URL_REPLICA, "sa", "")
+            .locations("classpath:db/migration/h2")
+            .load()
+            .migrate();
+        replica.execute("CREATE TABLE retraso_replica (segundos BIGINT)");
+        replica.update("INSERT INTO retraso_replica VALUES (0)");
+        replica.update("INSERT INTO cuentas (id, numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, " +
+            "cliente_id, version, ultima_secuencia, fecha_creacion) " +
+            "VALUES (1000, 'R-1000', 'Ahorros', 0, 0, TRUE, ?, 0, 0, CURRENT_TIMESTAMP)", CLIENTE_ID);
+        // Clientes que solo existen en la réplica y nunca se invalidan en la primaria
+        replica.batchUpdate("INSERT INTO cuentas (id, numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, " +
+            "cliente_id, version, ultima_secuencia, fecha_creacion) " +
+            "VALUES (?, ?, 'Ahorros', 0, 0, TRUE, ?, 0, 0, CURRENT_TIMESTAMP)",
+            List.of(new Object[]{2000, "R-2000", CLIENTE_REPORTE_ID}, new Object[]{3000, "R-3000", CLIENTE_INVALIDADO_ID}));
+        monitorReplicas.verificar();
+
+        ClienteEvent cliente = ClienteEvent.builder()
+            .eventType("CREATED")
+            .clienteId(CLIENTE_ID)
+            .identificacion("1234567890")
+            .nombre("Jose Lema")
+            .estado(true)
+            .timestamp(LocalDateTime.now())
+            .build();
+        clienteProyeccionService.aplicarLote(List.of(new EventoCliente(cliente, "cliente-events", 0, 0)));
+        CuentaDto cuenta = new CuentaDto();
+        cuenta.setNumeroCuenta("P-1");
+        cuenta.setTipoCuenta("Ahorros");
+        cuenta.setSaldoInicial(new BigDecimal("100.00"));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(CLIENTE_ID);
+        cuentaService.crearCuenta(cuenta);
+        ContextoRuteo.limpiar();
+    }
+
+    @AfterEach
+    void limpiarContexto() {
+        ContextoRuteo.limpiar();
+        replica.update("UPDATE retraso_replica SET segundos = 0");
+        monitorReplicas.verificar();
+    }
+
+    @Test
+    @DisplayName("Una lectura de solo lectura de un servicio debería ir a la réplica y contarse en su pool")
+    void lecturaDeberiaIrALaReplica(@Autowired MeterRegistry meterRegistry) {
+        // When
+        List<String> numeros = numerosDeCuenta();
+
+        // Then
+        assertEquals(List.of("R-1000"), numeros);
+        assertTrue(meterRegistry.get("accounting.datasource.conexiones")
+            .tags("destino", "replica-1", "motivo", "lectura").counter().count() > 0);
+        assertNotNull(meterRegistry.get("hikaricp.connections").tag("pool", "replica-1").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections").tag("pool", "primaria").gauge());
+    }
+
+    @Test
+    @DisplayName("Las lecturas posteriores a una escritura en el mismo hilo deberían quedarse en la primaria")
+    void lecturaTrasEscrituraDeberiaIrALaPrimaria() {
+        // Given
+        CuentaDto cuenta = new CuentaDto();
+        cuenta.setNumeroCuenta("P-2");
+        cuenta.setTipoCuenta("Corriente");
+        cuenta.setSaldoInicial(BigDecimal.ZERO);
+        cuenta.setEstado(true);
+        cuenta.setClienteId(CLIENTE_ID);
+        cuentaService.crearCuenta(cuenta);
+
+        // When
+        List<String> numeros = numerosDeCuenta();
+
+        // Then
+        assertTrue(numeros.contains("P-2"), numeros.toString());
+        assertFalse(numeros.contains("R-1000"), numeros.toString());
+    }
+
+    @Test
+    @DisplayName("Con la réplica por encima del retraso máximo las lecturas deberían volver a la primaria")
+    void replicaAtrasadaDeberiaQuedarFueraDeServicio() {
+        // Given
+        replica.update("UPDATE retraso_replica SET segundos = 60");
+        monitorReplicas.verificar();
+
+        // When
+        List<String> numeros = numerosDeCuenta();
+
+        // Then
+        assertTrue(numeros.contains("P-1"), numeros.toString());
+        assertFalse(numeros.contains("R-1000"), numeros.toString());
+    }
+
+    @Test
+    @DisplayName("El reporte de estado de cuenta debería generarse desde la réplica")
+    void reporteDeberiaLeerseDeLaReplica() {
+        // When
+        ReporteEstadoCuentaDto reporte = reporteService.generarReporteEstadoCuenta(CLIENTE_REPORTE_ID, INICIO, FIN, false);
+
+        // Then
+        assertNotNull(reporte.getCuentas());
+        assertEquals(List.of("R-2000"), reporte.getCuentas().stream()
+            .map(ReporteEstadoCuentaDto.CuentaReporteDto::getNumeroCuenta)
+            .toList());
+    }
+
+    @Test
+    @DisplayName("Tras invalidar al cliente el reporte debería regenerarse en la primaria")
+    void reporteRecienInvalidadoDeberiaLeerseDeLaPrimaria() {
+        // Given
+        assertNotNull(reporteService.generarReporteEstadoCuenta(CLIENTE_INVALIDADO_ID, INICIO, FIN, false).getCuentas());
+
+        // When
+        reporteCache.invalidarCliente(CLIENTE_INVALIDADO_ID);
+        ReporteEstadoCuentaDto reporte = reporteService.generarReporteEstadoCuenta(CLIENTE_INVALIDADO_ID, INICIO, FIN, false);
+
+        // Then
+        assertNull(reporte.getCuentas(), "El cliente no tiene cuentas en la primaria");
+    }
+
+    private List<String> numerosDeCuenta() {
+        return cuentaService.obtenerCuentasPorCliente(CLIENTE_ID).stream()
+            .map(CuentaDto::getNumeroCuenta)
+            .toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.microservices.accountingservice.infrastructure.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(partitions = 3, topics = AccountingEventProducerTest.TOPICO)
+@DisplayName("Pruebas con broker embebido para AccountingEventProducer")
+class AccountingEventProducerTest {
+
+    static final String TOPICO = "movimiento-events";
+
+    private static final int CUENTAS = 5;
+    private static final int EVENTOS_POR_CUENTA = 200;
+
+    private DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    private SimpleMeterRegistry meterRegistry;
+    private AccountingEventProducer producer;
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        // Misma configuración de productor que application.yml
+        Map<String, Object> propiedades = new HashMap<>(KafkaTestUtils.producerProps(broker));
+        propiedades.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        propiedades.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        propiedades.put(ProducerConfig.ACKS_CONFIG, "all");
+        propiedades.put(ProducerConfig.BATCH_SIZE_CONFIG, 131072);
+        propiedades.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        propiedades.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        propiedades.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerFactory = new DefaultKafkaProducerFactory<>(propiedades);
+        meterRegistry = new SimpleMeterRegistry();
+        producer = new AccountingEventProducer(new KafkaTemplate<>(producerFactory), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        producerFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("Debería entregar en orden los eventos de cada cuenta en una sola partición")
+    void deberiaConservarOrdenPorCuenta(EmbeddedKafkaBroker broker) {
+        // Given
+        List<CompletableFuture<?>> envios = new ArrayList<>();
+        for (int secuencia = 0; secuencia < EVENTOS_POR_CUENTA; secuencia++) {
+            for (int cuenta = 1; cuenta <= CUENTAS; cuenta++) {
+                envios.add(producer.publicar(TOPICO, String.valueOf(cuenta),
+                    ("{\"secuencia\":" + secuencia + "}").getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+
+        // When
+        CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).join();
+        List<ConsumerRecord<String, String>> recibidos = consumirTodo(broker, CUENTAS * EVENTOS_POR_CUENTA);
+
+        // Then
+        Map<String, Integer> particionPorCuenta = new HashMap<>();
+        Map<String, Integer> ultimaSecuencia = new HashMap<>();
+        for (ConsumerRecord<String, String> registro : recibidos) {
+            Integer particion = particionPorCuenta.putIfAbsent(registro.key(), registro.partition());
+            assertTrue(particion == null || particion == registro.partition(),
+                "Los eventos de la cuenta " + registro.key() + " llegaron a más de una partición");
+
+            int secuencia = Integer.parseInt(registro.value().replaceAll("\\D", ""));
+            assertEquals(ultimaSecuencia.getOrDefault(registro.key(), -1) + 1, secuencia,
+                "Evento fuera de orden para la cuenta " + registro.key());
+            ultimaSecuencia.put(registro.key(), secuencia);
+        }
+        assertEquals(CUENTAS, ultimaSecuencia.size());
+        ultimaSecuencia.values().forEach(ultima -> assertEquals(EVENTOS_POR_CUENTA - 1, ultima));
+
+        assertEquals(CUENTAS * EVENTOS_POR_CUENTA, meterRegistry.get("accounting.eventos.publicacion")
+            .tag("topico", TOPICO).tag("resultado", "ok").timer().count());
+        assertEquals(CUENTAS * EVENTOS_POR_CUENTA, meterRegistry.get("accounting.eventos.bytes")
+            .tag("topico", TOPICO).summary().count());
+    }
+
+    private List<ConsumerRecord<String, String>> consumirTodo(EmbeddedKafkaBroker broker, int esperados) {
+        Map<String, Object> propiedades = KafkaTestUtils.consumerProps("orden-por-cuenta", "false", broker);
+        propiedades.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(propiedades,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPICO);
+            List<ConsumerRecord<String, String>> recibidos = new ArrayList<>();
+            long limite = System.currentTimeMillis() + 30_000;
+            while (recibidos.size() < esperados && System.currentTimeMillis() < limite) {
+                KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5)).forEach(recibidos::add);
+            }
+            assertEquals(esperados, recibidos.size());
+            return recibidos;
+        }
+    }
+}
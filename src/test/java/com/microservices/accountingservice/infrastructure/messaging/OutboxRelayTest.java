@@ -0,0 +1,142 @@
+package com.microservices.accountingservice.infrastructure.messaging;
+
+import com.microservices.accountingservice.domain.entity.EventoOutbox;
+import com.microservices.accountingservice.domain.repository.EventoOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Pruebas unitarias para OutboxRelay")
+class OutboxRelayTest {
+
+    @Mock
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Mock
+    private AccountingEventProducer producer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(eventoOutboxRepository, producer, transactionManager, new SimpleMeterRegistry(), 3, 1000);
+    }
+
+    @Test
+    @DisplayName("Debería publicar el lote en orden con la cuenta como clave y eliminarlo")
+    void deberiaPublicarLoteYEliminarlo() {
+        // Given
+        when(eventoOutboxRepository.findPendientes(any()))
+            .thenReturn(List.of(evento(1L, "10"), evento(2L, "20"), evento(3L, "10")))
+            .thenReturn(List.of());
+        when(eventoOutboxRepository.findPrimerId()).thenReturn(1L);
+        when(producer.publicar(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        outboxRelay.relevar();
+
+        // Then
+        InOrder orden = inOrder(producer);
+        orden.verify(producer).publicar("movimiento-events", "10", json(1L));
+        orden.verify(producer).publicar("movimiento-events", "20", json(2L));
+        orden.verify(producer).publicar("movimiento-events", "10", json(3L));
+        verify(eventoOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        // El lote estaba lleno: se consulta otra vez sin esperar al siguiente intervalo
+        verify(eventoOutboxRepository, times(2)).findPendientes(any());
+    }
+
+    @Test
+    @DisplayName("Debería conservar los eventos de la cuenta cuyo envío falló")
+    void deberiaConservarEventosDeCuentaFallida() {
+        // Given
+        when(eventoOutboxRepository.findPendientes(any()))
+            .thenReturn(List.of(evento(1L, "10"), evento(2L, "20"), evento(3L, "10")));
+        when(eventoOutboxRepository.findPrimerId()).thenReturn(1L);
+        when(producer.publicar(anyString(), eq("20"), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(producer.publicar(anyString(), eq("10"), eq(json(1L))))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker no disponible")));
+        when(producer.publicar(anyString(), eq("10"), eq(json(3L)))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        outboxRelay.relevar();
+
+        // Then
+        verify(eventoOutboxRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(eventoOutboxRepository, times(1)).findPendientes(any());
+    }
+
+    @Test
+    @DisplayName("Debería soltar el lote si otro relay tiene eventos más antiguos")
+    void deberiaSoltarLoteSiOtroRelayTieneEventosAnteriores() {
+        // Given
+        when(eventoOutboxRepository.findPendientes(any())).thenReturn(List.of(evento(4L, "10"), evento(5L, "20")));
+        when(eventoOutboxRepository.findPrimerId()).thenReturn(1L);
+
+        // When
+        outboxRelay.relevar();
+
+        // Then
+        verifyNoInteractions(producer);
+        verify(eventoOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Debería relevar en una transacción READ COMMITTED")
+    void deberiaRelevarEnReadCommitted() {
+        // Given
+        when(eventoOutboxRepository.findPendientes(any())).thenReturn(List.of());
+
+        // When
+        outboxRelay.relevar();
+
+        // Then
+        verify(transactionManager).getTransaction(argThat(definicion ->
+            definicion.getIsolationLevel() == TransactionDefinition.ISOLATION_READ_COMMITTED));
+    }
+
+    @Test
+    @DisplayName("No debería publicar nada si la tabla outbox está vacía")
+    void noDeberiaPublicarSinPendientes() {
+        // Given
+        when(eventoOutboxRepository.findPendientes(any())).thenReturn(List.of());
+
+        // When
+        outboxRelay.relevar();
+
+        // Then
+        verifyNoInteractions(producer);
+        verify(eventoOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private EventoOutbox evento(Long id, String clave) {
+        EventoOutbox evento = new EventoOutbox("movimiento-events", clave, "CREATED", json(id));
+        evento.setId(id);
+        return evento;
+    }
+
+    private byte[] json(Long id) {
+        return ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,34 @@
+package com.microservices.accountingservice.infrastructure.sql;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con MockMvc cuántas sentencias SQL ejecutó un endpoint, a partir de la
+ * cabecera {@value CabeceraSentenciasAdvice#CABECERA}. Requiere
+ * {@code accounting.sql.cabecera-sentencias=true}.
+ *
+ * <pre>{@code
+ * mockMvc.perform(get("/api/cuentas/{id}", id))
+ *     .andExpect(status().isOk())
+ *     .andExpect(SentenciasSql.maximo(2));
+ * }</pre>
+ */
+public final class SentenciasSql {
+
+    private SentenciasSql() {
+    }
+
+    public static ResultMatcher maximo(int maximo) {
+        return resultado -> {
+            String valor = resultado.getResponse().getHeader(CabeceraSentenciasAdvice.CABECERA);
+            assertNotNull(valor, "La respuesta no trae la cabecera " + CabeceraSentenciasAdvice.CABECERA);
+            int sentencias = Integer.parseInt(valor);
+            assertTrue(sentencias <= maximo, () -> resultado.getRequest().getMethod() + " "
+                + resultado.getRequest().getRequestURI() + " ejecutó " + sentencias
+                + " sentencias SQL y el máximo es " + maximo);
+        };
+    }
+}